@@ -20,11 +20,36 @@ public final class Constants {
     public static final double TAX_RATE = 0.18;
     public static final double INSURANCE_DISCOUNT = 0.15;
 
-    // File paths for CSV persistence
+    // Scheduling — a working day must fit in 64 slots (one long bitmap per doctor per day)
+    public static final int APPOINTMENT_DURATION_MINUTES = 30;
+    public static final int SLOT_MINUTES = 15;
+    public static final int WORKDAY_START_HOUR = 9;
+    public static final int WORKDAY_END_HOUR = 17;
+    public static final int SLOT_SEARCH_DAYS = 30;
+    public static final int MAX_SLOT_SEARCH_DAYS = 90;
+
+    // Keyset pagination of list endpoints
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int STREAM_FETCH_SIZE = 500;
+
+    // Keyword search (served from in-memory trigram indexes)
+    public static final int MAX_SEARCH_RESULTS = 100;
+
+    // Doctor recommendation score: experience (years) up; fee (per 100), upcoming confirmed
+    // appointments and days until the next free slot down
+    public static final int DEFAULT_RECOMMENDATIONS = 10;
+    public static final double RECOMMEND_WEIGHT_EXPERIENCE = 1.0;
+    public static final double RECOMMEND_WEIGHT_FEE = 0.5;
+    public static final double RECOMMEND_WEIGHT_LOAD = 2.0;
+    public static final double RECOMMEND_WEIGHT_WAIT = 1.0;
+
+    // File paths for CSV and binary snapshot persistence
     public static final String DATA_DIRECTORY = "data/";
     public static final String PATIENTS_CSV = DATA_DIRECTORY + "patients.csv";
     public static final String DOCTORS_CSV = DATA_DIRECTORY + "doctors.csv";
     public static final String APPOINTMENTS_CSV = DATA_DIRECTORY + "appointments.csv";
+    public static final String SNAPSHOT_FILE = DATA_DIRECTORY + "meditrack.snapshot";
 
     // Validation
     public static final int MIN_AGE = 0;
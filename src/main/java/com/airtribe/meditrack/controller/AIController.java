@@ -1,14 +1,22 @@
 package com.airtribe.meditrack.controller;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.exception.InvalidDataException;
+import com.airtribe.meditrack.service.AppointmentSlotEngine;
 import com.airtribe.meditrack.service.DoctorService;
+import com.airtribe.meditrack.service.SymptomDictionary;
 import com.airtribe.meditrack.util.AIHelper;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -20,19 +28,71 @@ import java.util.Map;
 public class AIController {
 
     private final DoctorService doctorService;
+    private final AppointmentSlotEngine slotEngine;
+    private final SymptomDictionary symptomDictionary;
 
-    public AIController(DoctorService doctorService) {
+    public AIController(DoctorService doctorService, AppointmentSlotEngine slotEngine,
+                        SymptomDictionary symptomDictionary) {
         this.doctorService = doctorService;
+        this.slotEngine = slotEngine;
+        this.symptomDictionary = symptomDictionary;
     }
 
+    /**
+     * Top doctors for the given symptoms, from the in-memory recommendation index.
+     * Example: /api/ai/recommend?symptoms=chest pain&limit=5
+     */
     @GetMapping("/recommend")
-    public ResponseEntity<List<Doctor>> recommendDoctors(@RequestParam String symptoms) {
-        List<Doctor> recommended = AIHelper.recommendDoctors(symptoms, doctorService.getAllDoctors());
-        return ResponseEntity.ok(recommended);
+    public ResponseEntity<List<Doctor>> recommendDoctors(
+            @RequestParam String symptoms,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_RECOMMENDATIONS) int limit) {
+        return ResponseEntity.ok(doctorService.recommendDoctors(symptoms, limit));
     }
 
+    /**
+     * Re-read the symptom dictionary file now (edits are also picked up automatically).
+     */
+    @PostMapping("/dictionary/reload")
+    public ResponseEntity<Map<String, Object>> reloadDictionary() {
+        symptomDictionary.reload();
+        return ResponseEntity.ok(symptomDictionary.getMetrics());
+    }
+
+    /**
+     * Free slots for a doctor or for every doctor of a specialization, earliest first.
+     * Without either parameter, returns the generic working-day slot template.
+     * Example: /api/ai/slots?specialization=CARDIOLOGY&count=5&days=30
+     */
     @GetMapping("/slots")
-    public ResponseEntity<Map<String, Object>> suggestSlots() {
+    public ResponseEntity<Map<String, Object>> suggestSlots(
+            @RequestParam(required = false) String doctorId,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(defaultValue = "" + Constants.SLOT_SEARCH_DAYS) int days) {
+        LocalDateTime start = from != null ? parseFrom(from) : LocalDateTime.now();
+        if (doctorId != null) {
+            return ResponseEntity.ok(Map.of("availableSlots",
+                    slotEngine.nextFreeSlots(doctorId, start, count, days)));
+        }
+        if (specialization != null) {
+            Specialization spec;
+            try {
+                spec = Specialization.valueOf(specialization.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidDataException("specialization", "Unknown specialization: " + specialization);
+            }
+            return ResponseEntity.ok(Map.of("availableSlots",
+                    slotEngine.nextFreeSlots(spec, start, count, days)));
+        }
         return ResponseEntity.ok(Map.of("availableSlots", AIHelper.suggestTimeSlots()));
     }
+
+    private static LocalDateTime parseFrom(String from) {
+        try {
+            return LocalDateTime.parse(from);
+        } catch (DateTimeParseException e) {
+            throw new InvalidDataException("from", "Expected an ISO date-time such as 2026-03-01T09:00, got: " + from);
+        }
+    }
 }
@@ -1,8 +1,13 @@
 package com.airtribe.meditrack.controller;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Appointment;
 import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.BatchBookingResult;
+import com.airtribe.meditrack.entity.BookingRequest;
+import com.airtribe.meditrack.entity.KeysetPage;
 import com.airtribe.meditrack.service.AppointmentService;
+import com.airtribe.meditrack.util.NdjsonWriter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +18,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,9 +33,11 @@ import java.util.Map;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final ObjectMapper objectMapper;
 
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, ObjectMapper objectMapper) {
         this.appointmentService = appointmentService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -46,11 +55,39 @@ public class AppointmentController {
         return new ResponseEntity<>(appointment, HttpStatus.CREATED);
     }
 
+    /**
+     * Book many appointments at once (e.g. a daily schedule import).
+     * Request body: [ { "doctorId": "...", "patientId": "...", "dateTime": "...", "notes": "..." }, ... ]
+     * Rejected rows are listed in "failures" with their index; the rest are still created.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchBookingResult> createAppointments(@RequestBody List<BookingRequest> requests) {
+        return ResponseEntity.ok(appointmentService.createAppointments(requests));
+    }
+
     @GetMapping
     public ResponseEntity<List<Appointment>> getAllAppointments() {
         return ResponseEntity.ok(appointmentService.getAllAppointments());
     }
 
+    /**
+     * Keyset pagination: pass the returned nextCursor as {@code after} to get the next page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<Appointment>> getAppointmentsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsPage(after, limit));
+    }
+
+    /**
+     * All appointments as NDJSON (one JSON object per line), written while the rows are read.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAppointments(@RequestParam(required = false) String after) {
+        return NdjsonWriter.<Appointment>response(objectMapper, sink -> appointmentService.streamAppointments(after, sink));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Appointment> getAppointmentById(@PathVariable String id) {
         return ResponseEntity.ok(appointmentService.getAppointmentById(id));
@@ -1,8 +1,11 @@
 package com.airtribe.meditrack.controller;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Bill;
 import com.airtribe.meditrack.entity.BillSummary;
+import com.airtribe.meditrack.entity.KeysetPage;
 import com.airtribe.meditrack.service.BillingService;
+import com.airtribe.meditrack.util.NdjsonWriter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,7 +13,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 import java.util.List;
 import java.util.Map;
@@ -24,9 +30,11 @@ import java.util.Map;
 public class BillController {
 
     private final BillingService billingService;
+    private final ObjectMapper objectMapper;
 
-    public BillController(BillingService billingService) {
+    public BillController(BillingService billingService, ObjectMapper objectMapper) {
         this.billingService = billingService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -45,6 +53,24 @@ public class BillController {
         return ResponseEntity.ok(billingService.getAllBills());
     }
 
+    /**
+     * Keyset pagination: pass the returned nextCursor as {@code after} to get the next page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<Bill>> getBillsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(billingService.getBillsPage(after, limit));
+    }
+
+    /**
+     * All bills as NDJSON (one JSON object per line), written while the rows are read.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamBills(@RequestParam(required = false) String after) {
+        return NdjsonWriter.<Bill>response(objectMapper, sink -> billingService.streamBills(after, sink));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Bill> getBillById(@PathVariable String id) {
         return billingService.getBillById(id)
@@ -1,75 +1,333 @@
 package com.airtribe.meditrack.controller;
 
 import com.airtribe.meditrack.constants.Constants;
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.Doctor;
 import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.exception.InvalidDataException;
 import com.airtribe.meditrack.service.AppointmentService;
 import com.airtribe.meditrack.service.BillingService;
+import com.airtribe.meditrack.service.CheckpointService;
+import com.airtribe.meditrack.service.CsvImportService;
+import com.airtribe.meditrack.service.CsvImportService.ImportResult;
+import com.airtribe.meditrack.service.DataExportService;
+import com.airtribe.meditrack.service.DataJob;
+import com.airtribe.meditrack.service.DataJobService;
+import com.airtribe.meditrack.service.DeltaExportService;
+import com.airtribe.meditrack.service.DeltaExportService.DeltaResult;
 import com.airtribe.meditrack.service.DoctorService;
 import com.airtribe.meditrack.service.PatientService;
+import com.airtribe.meditrack.service.SnapshotService;
 import com.airtribe.meditrack.util.CSVUtil;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST controller for CSV data persistence (save/load) and system stats.
  * Demonstrates: File I/O, try-with-resources (in CSVUtil),
- * JPA repository saveAll for bulk load.
+ * parallel memory-mapped bulk load (in CsvImportService), binary snapshots (in SnapshotService),
+ * incremental delta export (in DeltaExportService), background jobs with progress (in DataJobService),
+ * streaming HTTP export (in DataExportService).
  */
 @RestController
 @RequestMapping("/api/data")
 public class DataController {
 
+    private static final int GZIP_BUFFER_BYTES = 64 * 1024;
+
     private final DoctorService doctorService;
     private final PatientService patientService;
     private final AppointmentService appointmentService;
     private final BillingService billingService;
+    private final CsvImportService importService;
+    private final SnapshotService snapshotService;
+    private final DeltaExportService deltaExportService;
+    private final DataJobService jobService;
+    private final DataExportService exportService;
+    private final CheckpointService checkpointService;
 
     public DataController(DoctorService doctorService, PatientService patientService,
-                          AppointmentService appointmentService, BillingService billingService) {
+                          AppointmentService appointmentService, BillingService billingService,
+                          CsvImportService importService, SnapshotService snapshotService,
+                          DeltaExportService deltaExportService, DataJobService jobService,
+                          DataExportService exportService, CheckpointService checkpointService) {
         this.doctorService = doctorService;
         this.patientService = patientService;
         this.appointmentService = appointmentService;
         this.billingService = billingService;
+        this.importService = importService;
+        this.snapshotService = snapshotService;
+        this.deltaExportService = deltaExportService;
+        this.jobService = jobService;
+        this.exportService = exportService;
+        this.checkpointService = checkpointService;
     }
 
+    /**
+     * Starts a background save; mode=full (default) rewrites the CSV files, mode=delta appends a
+     * segment with only the rows changed since the last delta export. Poll the returned job.
+     */
     @PostMapping("/save")
-    public ResponseEntity<Map<String, String>> saveAllData() {
+    public ResponseEntity<Map<String, Object>> saveAllData(@RequestParam(defaultValue = "full") String mode) {
+        boolean delta = "delta".equalsIgnoreCase(mode);
+        if (!delta && !"full".equalsIgnoreCase(mode)) {
+            throw new InvalidDataException("mode", "Unknown save mode: " + mode + " (expected full or delta)");
+        }
+        DataJob job = delta
+                ? jobService.submit("save-delta", this::saveDelta)
+                : jobService.submit("save", this::saveCsv);
+        return accepted(job);
+    }
+
+    /**
+     * Starts a background import of the CSV files. Poll the returned job.
+     */
+    @PostMapping("/load")
+    public ResponseEntity<Map<String, Object>> loadAllData() {
+        return accepted(jobService.submit("load", this::loadCsv));
+    }
+
+    /**
+     * Streams one table (doctors, patients, appointments or bills) as CSV or NDJSON straight from a
+     * database cursor; gzip=true compresses the body (Content-Encoding: gzip).
+     */
+    @GetMapping("/export/{entity}")
+    public ResponseEntity<StreamingResponseBody> exportEntity(@PathVariable String entity,
+                                                              @RequestParam(defaultValue = "csv") String format,
+                                                              @RequestParam(defaultValue = "false") boolean gzip) {
+        String name = exportService.checkEntity(entity);
+        DataExportService.Format exportFormat = DataExportService.Format.of(format);
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                exportService.export(name, exportFormat, out);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_BYTES);
+            exportService.export(name, exportFormat, compressed);
+            compressed.finish();
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "." + exportFormat.getExtension()).build().toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<DataJob>> getJobs() {
+        return ResponseEntity.ok(jobService.getJobs());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<DataJob> getJob(@PathVariable String id) {
+        return jobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancels a queued or running job; 409 if it has already finished.
+     */
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<DataJob> cancelJob(@PathVariable String id) {
+        Optional<DataJob> job = jobService.getJob(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return jobService.cancel(id)
+                ? ResponseEntity.accepted().body(job.get())
+                : ResponseEntity.status(HttpStatus.CONFLICT).body(job.get());
+    }
+
+    private static ResponseEntity<Map<String, Object>> accepted(DataJob job) {
+        String statusUrl = "/api/data/jobs/" + job.getId();
+        return ResponseEntity.accepted()
+                .location(URI.create(statusUrl))
+                .body(Map.of("jobId", job.getId(), "type", job.getType(),
+                        "status", job.getStatus(), "statusUrl", statusUrl));
+    }
+
+    // --- Job bodies (run on the DataJobService executor) ---
+
+    private Object saveCsv(DataJob job) throws IOException {
+        job.setPhase("reading");
+        List<Doctor> doctors = doctorService.getAllDoctors();
+        List<Patient> patients = patientService.getAllPatients();
+        List<Appointment> appointments = appointmentService.getAllAppointments();
+        job.addWorkTotal(doctors.size() + patients.size() + appointments.size());
+
+        job.setPhase("doctors");
+        CSVUtil.saveDoctors(doctors, Constants.DOCTORS_CSV);
+        job.addWorkDone(doctors.size());
+        job.addRows(doctors.size());
+
+        job.setPhase("patients");
+        CSVUtil.savePatients(patients, Constants.PATIENTS_CSV);
+        job.addWorkDone(patients.size());
+        job.addRows(patients.size());
+
+        job.setPhase("appointments");
+        CSVUtil.saveAppointments(appointments, Constants.APPOINTMENTS_CSV);
+        job.addWorkDone(appointments.size());
+        job.addRows(appointments.size());
+
+        return Map.of("message", "All data saved successfully to CSV files",
+                "doctors", doctors.size(), "patients", patients.size(), "appointments", appointments.size());
+    }
+
+    private Object saveDelta(DataJob job) throws IOException {
+        job.setPhase("delta");
+        DeltaResult result = deltaExportService.exportChanges();
+        job.addRows(result.records().values().stream().mapToLong(Long::longValue).sum());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", result.segment() != null
+                ? "Changes saved to delta segment " + result.segment()
+                : "No changes since the last delta export");
+        body.put("after", result.after());
+        body.put("upTo", result.upTo());
+        body.put("records", result.records());
+        return body;
+    }
+
+    private Object loadCsv(DataJob job) throws IOException {
+        for (String file : List.of(Constants.DOCTORS_CSV, Constants.PATIENTS_CSV, Constants.APPOINTMENTS_CSV)) {
+            Path path = Paths.get(file);
+            job.addWorkTotal(Files.exists(path) ? Files.size(path) : 0);
+        }
+        CsvImportService.Progress progress = new CsvImportService.Progress() {
+            @Override
+            public void batchWritten(int rows) {
+                job.addRows(rows);
+            }
+
+            @Override
+            public void bytesParsed(long bytes) {
+                job.addWorkDone(bytes);
+            }
+        };
+
+        job.setPhase("doctors");
+        ImportResult doctors = importService.importFile(Constants.DOCTORS_CSV,
+                Doctor.class, CSVUtil::mapDoctor, doctorService.getRepository(), progress);
+        doctorService.rebuildIndexes();
+
+        job.setPhase("patients");
+        ImportResult patients = importService.importFile(Constants.PATIENTS_CSV,
+                Patient.class, CSVUtil::mapPatient, patientService.getRepository(), progress);
+        patientService.rebuildIndexes();
+
+        job.setPhase("appointments");
+        ImportResult appointments = importService.importFile(Constants.APPOINTMENTS_CSV,
+                Appointment.class, CSVUtil::mapAppointment, appointmentService.getRepository(), progress);
+        appointmentService.rebuildIndexes();
+
+        // Bulk imports bypass the journal; a checkpoint makes them durable
+        job.setPhase("checkpoint");
+        checkpointService.checkpointIfEnabled();
+
+        return Map.of("message",
+                "Data loaded — Doctors: " + doctors.rows()
+                        + ", Patients: " + patients.rows()
+                        + ", Appointments: " + appointments.rows());
+    }
+
+    @GetMapping("/delta")
+    public ResponseEntity<Map<String, Object>> getDeltaStatus() throws IOException {
+        return ResponseEntity.ok(deltaExportService.getStatus());
+    }
+
+    @PostMapping("/delta/compact")
+    public ResponseEntity<Map<String, Object>> compactDeltas() {
         try {
-            CSVUtil.saveDoctors(doctorService.getAllDoctors(), Constants.DOCTORS_CSV);
-            CSVUtil.savePatients(patientService.getAllPatients(), Constants.PATIENTS_CSV);
-            CSVUtil.saveAppointments(appointmentService.getAllAppointments(), Constants.APPOINTMENTS_CSV);
-            return ResponseEntity.ok(Map.of("message", "All data saved successfully to CSV files"));
+            return ResponseEntity.ok(deltaExportService.compact());
         } catch (IOException e) {
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to save data: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to compact deltas: " + e.getMessage()));
         }
     }
 
-    @PostMapping("/load")
-    public ResponseEntity<Map<String, String>> loadAllData() {
+    @PostMapping("/delta/restore")
+    public ResponseEntity<Map<String, Object>> restoreDeltas() {
         try {
-            var doctors = CSVUtil.loadDoctors(Constants.DOCTORS_CSV);
-            doctorService.getRepository().saveAll(doctors);
+            Map<String, Long> counts = deltaExportService.restore();
+            doctorService.rebuildIndexes();
+            patientService.rebuildIndexes();
+            appointmentService.rebuildIndexes();
+            checkpointService.checkpointIfEnabled();
+            return ResponseEntity.ok(Map.of("message", "Delta segments applied", "records", counts));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to apply deltas: " + e.getMessage()));
+        }
+    }
 
-            var patients = CSVUtil.loadPatients(Constants.PATIENTS_CSV);
-            patientService.getRepository().saveAll(patients);
+    @PostMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> saveSnapshot() {
+        try {
+            Map<String, Long> counts = snapshotService.save(Constants.SNAPSHOT_FILE);
+            return ResponseEntity.ok(Map.of("message", "Snapshot saved to " + Constants.SNAPSHOT_FILE,
+                    "records", counts));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to save snapshot: " + e.getMessage()));
+        }
+    }
 
-            var appointments = CSVUtil.loadAppointments(Constants.APPOINTMENTS_CSV);
-            appointmentService.getRepository().saveAll(appointments);
+    @PostMapping("/snapshot/restore")
+    public ResponseEntity<Map<String, Object>> restoreSnapshot() {
+        try {
+            Map<String, Long> counts = snapshotService.restore(Constants.SNAPSHOT_FILE);
+            doctorService.rebuildIndexes();
+            patientService.rebuildIndexes();
+            appointmentService.rebuildIndexes();
+            checkpointService.checkpointIfEnabled();
+            return ResponseEntity.ok(Map.of("message", "Snapshot restored from " + Constants.SNAPSHOT_FILE,
+                    "records", counts));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Failed to restore snapshot: " + e.getMessage()));
+        }
+    }
 
-            return ResponseEntity.ok(Map.of("message",
-                    "Data loaded — Doctors: " + doctors.size()
-                            + ", Patients: " + patients.size()
-                            + ", Appointments: " + appointments.size()));
+    /**
+     * Snapshots the database into the journal directory and drops the journal segments it covers.
+     */
+    @PostMapping("/checkpoint")
+    public ResponseEntity<Map<String, Object>> checkpoint() {
+        if (!checkpointService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "The write-ahead journal is disabled (meditrack.journal.enabled=false)"));
+        }
+        try {
+            return ResponseEntity.ok(Map.of("message", "Checkpoint taken", "records", checkpointService.checkpoint()));
         } catch (IOException e) {
             return ResponseEntity.internalServerError()
-                    .body(Map.of("error", "Failed to load data: " + e.getMessage()));
+                    .body(Map.of("error", "Failed to take checkpoint: " + e.getMessage()));
         }
     }
 
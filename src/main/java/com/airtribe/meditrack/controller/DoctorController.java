@@ -1,8 +1,11 @@
 package com.airtribe.meditrack.controller;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.KeysetPage;
 import com.airtribe.meditrack.entity.Specialization;
 import com.airtribe.meditrack.service.DoctorService;
+import com.airtribe.meditrack.util.NdjsonWriter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 import java.util.List;
 import java.util.Map;
@@ -26,9 +31,11 @@ import java.util.Map;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final ObjectMapper objectMapper;
 
-    public DoctorController(DoctorService doctorService) {
+    public DoctorController(DoctorService doctorService, ObjectMapper objectMapper) {
         this.doctorService = doctorService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -41,6 +48,24 @@ public class DoctorController {
         return ResponseEntity.ok(doctorService.getAllDoctors());
     }
 
+    /**
+     * Keyset pagination: pass the returned nextCursor as {@code after} to get the next page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<Doctor>> getDoctorsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(doctorService.getDoctorsPage(after, limit));
+    }
+
+    /**
+     * All doctors as NDJSON (one JSON object per line), written while the rows are read.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamDoctors(@RequestParam(required = false) String after) {
+        return NdjsonWriter.<Doctor>response(objectMapper, sink -> doctorService.streamDoctors(after, sink));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Doctor> getDoctorById(@PathVariable String id) {
         return doctorService.getDoctorById(id)
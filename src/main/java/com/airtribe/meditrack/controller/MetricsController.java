@@ -0,0 +1,43 @@
+package com.airtribe.meditrack.controller;
+
+import com.airtribe.meditrack.observer.AppointmentEventBus;
+import com.airtribe.meditrack.observer.OutboxRelay;
+import com.airtribe.meditrack.service.SymptomDictionary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST controller exposing runtime metrics of in-process components.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsController {
+
+    private final AppointmentEventBus eventBus;
+    private final OutboxRelay outboxRelay;
+    private final SymptomDictionary symptomDictionary;
+
+    public MetricsController(AppointmentEventBus eventBus, OutboxRelay outboxRelay,
+                             SymptomDictionary symptomDictionary) {
+        this.eventBus = eventBus;
+        this.outboxRelay = outboxRelay;
+        this.symptomDictionary = symptomDictionary;
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<Map<String, Object>> getEventMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>(eventBus.getMetrics());
+        metrics.put("outbox", outboxRelay.getMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+
+    @GetMapping("/symptoms")
+    public ResponseEntity<Map<String, Object>> getSymptomDictionaryMetrics() {
+        return ResponseEntity.ok(symptomDictionary.getMetrics());
+    }
+}
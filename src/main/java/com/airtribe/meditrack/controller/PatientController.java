@@ -1,7 +1,13 @@
 package com.airtribe.meditrack.controller;
 
+import com.airtribe.meditrack.constants.Constants;
+import com.airtribe.meditrack.entity.HistoryEntryRequest;
+import com.airtribe.meditrack.entity.KeysetPage;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
 import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.PatientSummary;
 import com.airtribe.meditrack.service.PatientService;
+import com.airtribe.meditrack.util.NdjsonWriter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,6 +19,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
 import java.util.List;
 
@@ -24,9 +32,11 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final ObjectMapper objectMapper;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService, ObjectMapper objectMapper) {
         this.patientService = patientService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -35,22 +45,60 @@ public class PatientController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Patient>> getAllPatients() {
-        return ResponseEntity.ok(patientService.getAllPatients());
+    public ResponseEntity<List<PatientSummary>> getAllPatients() {
+        return ResponseEntity.ok(patientService.getPatientSummaries());
+    }
+
+    /**
+     * Keyset pagination: pass the returned nextCursor as {@code after} to get the next page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<Patient>> getPatientsPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(patientService.getPatientsPage(after, limit));
+    }
+
+    /**
+     * All patients as NDJSON (one JSON object per line), written while the rows are read.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamPatients(@RequestParam(required = false) String after) {
+        return NdjsonWriter.<Patient>response(objectMapper, sink -> patientService.streamPatients(after, sink));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Patient> getPatientById(@PathVariable String id) {
-        return patientService.getPatientById(id)
+        return patientService.getPatientDetails(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Update patient fields; medicalHistory in the body is ignored (append via POST /{id}/history).
+     */
     @PutMapping("/{id}")
     public ResponseEntity<Patient> updatePatient(@PathVariable String id, @RequestBody Patient patient) {
         return ResponseEntity.ok(patientService.updatePatient(id, patient));
     }
 
+    /**
+     * Append one medical history entry (a single insert; existing history is not loaded).
+     */
+    @PostMapping("/{id}/history")
+    public ResponseEntity<MedicalHistoryEntry> appendHistory(@PathVariable String id,
+                                                             @RequestBody HistoryEntryRequest request) {
+        return new ResponseEntity<>(patientService.appendHistoryEntry(id, request.entry()), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}/history")
+    public ResponseEntity<KeysetPage<MedicalHistoryEntry>> getHistory(
+            @PathVariable String id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + Constants.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(patientService.getHistoryPage(id, after, limit));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePatient(@PathVariable String id) {
         boolean deleted = patientService.deletePatient(id);
@@ -58,17 +106,17 @@ public class PatientController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Patient>> searchPatients(@RequestParam String keyword) {
+    public ResponseEntity<List<PatientSummary>> searchPatients(@RequestParam String keyword) {
         return ResponseEntity.ok(patientService.searchPatients(keyword));
     }
 
     @GetMapping("/search/name")
-    public ResponseEntity<List<Patient>> searchByName(@RequestParam String name) {
+    public ResponseEntity<List<PatientSummary>> searchByName(@RequestParam String name) {
         return ResponseEntity.ok(patientService.searchPatientsByName(name));
     }
 
     @GetMapping("/search/age")
-    public ResponseEntity<List<Patient>> searchByAge(@RequestParam int age) {
+    public ResponseEntity<List<PatientSummary>> searchByAge(@RequestParam int age) {
         return ResponseEntity.ok(patientService.searchPatientsByAge(age));
     }
 
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 import java.time.LocalDateTime;
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
  * JPA: @Entity persisted to 'appointments' table.
  */
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = @Index(name = "idx_appointments_updated_at", columnList = "updated_at"))
 public class Appointment extends MedicalEntity implements Cloneable {
 
     @Column(name = "doctor_id", nullable = false)
@@ -0,0 +1,21 @@
+package com.airtribe.meditrack.entity;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk booking: the appointments that were created and the rows that were rejected.
+ * Demonstrates: immutable records, nested record types.
+ */
+public record BatchBookingResult(int createdCount, int failedCount,
+                                 List<Appointment> created, List<Failure> failures) {
+
+    /**
+     * A rejected row, identified by its position in the request.
+     */
+    public record Failure(int index, String doctorId, String patientId, String dateTime, String error) {
+    }
+
+    public BatchBookingResult(List<Appointment> created, List<Failure> failures) {
+        this(created.size(), failures.size(), created, failures);
+    }
+}
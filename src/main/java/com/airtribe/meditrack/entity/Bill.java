@@ -4,6 +4,7 @@ import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.interfaces.Payable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 import java.time.LocalDateTime;
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
  * JPA: @Entity persisted to 'bills' table.
  */
 @Entity
-@Table(name = "bills")
+@Table(name = "bills", indexes = @Index(name = "idx_bills_updated_at", columnList = "updated_at"))
 public class Bill extends MedicalEntity implements Payable {
 
     @Column(name = "appointment_id", nullable = false)
@@ -0,0 +1,8 @@
+package com.airtribe.meditrack.entity;
+
+/**
+ * One row of a bulk booking request, as sent by the client.
+ * dateTime is kept as the raw ISO string so a malformed value fails only its own row.
+ */
+public record BookingRequest(String doctorId, String patientId, String dateTime, String notes) {
+}
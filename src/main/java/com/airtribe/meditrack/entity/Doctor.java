@@ -1,19 +1,13 @@
 package com.airtribe.meditrack.entity;
 
 import com.airtribe.meditrack.interfaces.Searchable;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
-import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Represents a Doctor in MediTrack.
  * Demonstrates: inheritance (extends Person), interface implementation (Searchable),
@@ -21,7 +15,7 @@ import java.util.List;
  * JPA: @Entity with TABLE_PER_CLASS inheritance from Person/MedicalEntity.
  */
 @Entity
-@Table(name = "doctors")
+@Table(name = "doctors", indexes = @Index(name = "idx_doctors_updated_at", columnList = "updated_at"))
 public class Doctor extends Person implements Searchable {
 
     @Enumerated(EnumType.STRING)
@@ -31,18 +25,12 @@ public class Doctor extends Person implements Searchable {
     @Column(name = "consultation_fee")
     private double consultationFee;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "doctor_slots", joinColumns = @JoinColumn(name = "doctor_id"))
-    @Column(name = "slot")
-    private List<String> availableSlots;
-
     @Column(name = "years_of_experience")
     private int yearsOfExperience;
 
     // No-arg constructor
     public Doctor() {
         super();
-        this.availableSlots = new ArrayList<>();
     }
 
     // Constructor chaining with super()
@@ -52,7 +40,6 @@ public class Doctor extends Person implements Searchable {
         this.specialization = specialization;
         this.consultationFee = consultationFee;
         this.yearsOfExperience = yearsOfExperience;
-        this.availableSlots = new ArrayList<>();
     }
 
     // --- Overriding abstract methods from MedicalEntity ---
@@ -124,14 +111,6 @@ public class Doctor extends Person implements Searchable {
         this.consultationFee = consultationFee;
     }
 
-    public List<String> getAvailableSlots() {
-        return availableSlots;
-    }
-
-    public void setAvailableSlots(List<String> availableSlots) {
-        this.availableSlots = availableSlots;
-    }
-
     public int getYearsOfExperience() {
         return yearsOfExperience;
     }
@@ -0,0 +1,10 @@
+package com.airtribe.meditrack.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable value describing a bookable slot of a doctor.
+ * Demonstrates: Java records as immutable data carriers.
+ */
+public record FreeSlot(String doctorId, String doctorName, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,7 @@
+package com.airtribe.meditrack.entity;
+
+/**
+ * Body of a request to append one entry to a patient's medical history.
+ */
+public record HistoryEntryRequest(String entry) {
+}
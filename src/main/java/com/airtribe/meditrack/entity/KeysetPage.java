@@ -0,0 +1,24 @@
+package com.airtribe.meditrack.entity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list, ordered by ID.
+ * Demonstrates: Java records, generics, cursor (keyset) pagination.
+ *
+ * Pass {@code nextCursor} as {@code ?after=} to fetch the following page;
+ * it is null on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+
+    /**
+     * Build a page from up to {@code limit + 1} rows; the extra row only signals that more exist.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, String> idOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new KeysetPage<>(List.copyOf(items), nextCursor, hasMore);
+    }
+}
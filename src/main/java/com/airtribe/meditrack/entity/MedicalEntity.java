@@ -3,6 +3,8 @@ package com.airtribe.meditrack.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,7 +15,8 @@ import java.util.Objects;
 /**
  * Abstract base class for all medical entities in MediTrack.
  * Demonstrates: abstraction, static blocks, encapsulation, equals/hashCode.
- * JPA: @MappedSuperclass — shared columns inherited by all entity subclasses.
+ * JPA: @MappedSuperclass — shared columns inherited by all entity subclasses;
+ * @PreUpdate keeps updatedAt current on every change, except inside {@link #keepingTimestamps}.
  */
 @MappedSuperclass
 public abstract class MedicalEntity implements Serializable {
@@ -25,6 +28,9 @@ public abstract class MedicalEntity implements Serializable {
 
     private static int totalEntitiesCreated;
 
+    // Set while bulk writers store rows that carry their own timestamps
+    private static final ThreadLocal<Boolean> KEEP_TIMESTAMPS = ThreadLocal.withInitial(() -> false);
+
     static {
         totalEntitiesCreated = 0;
         log.info("[Static Block] MedicalEntity class loaded.");
@@ -84,6 +90,40 @@ public abstract class MedicalEntity implements Serializable {
         this.updatedAt = updatedAt;
     }
 
+    // --- JPA lifecycle: updatedAt follows every flushed change ---
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        if (createdAt == null) createdAt = now;
+        if (updatedAt == null) updatedAt = now;
+    }
+
+    /**
+     * Called by Hibernate before flushing a changed row, and by the in-memory repositories on
+     * re-save; delta exports select rows by this timestamp.
+     */
+    @PreUpdate
+    public void markUpdated() {
+        if (KEEP_TIMESTAMPS.get()) return;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Run {@code action} on this thread without stamping updatedAt, so rows restored from a
+     * snapshot or the journal keep the time they were last changed. The action must flush its
+     * own writes; a change flushed after it returns is stamped as usual.
+     */
+    public static void keepingTimestamps(Runnable action) {
+        boolean outer = KEEP_TIMESTAMPS.get();
+        KEEP_TIMESTAMPS.set(true);
+        try {
+            action.run();
+        } finally {
+            KEEP_TIMESTAMPS.set(outer);
+        }
+    }
+
     public static int getTotalEntitiesCreated() {
         return totalEntitiesCreated;
     }
@@ -0,0 +1,76 @@
+package com.airtribe.meditrack.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of a patient's medical history.
+ * History is append-only: entries are never updated, and adding one is a single insert.
+ * JPA: @Entity persisted to 'medical_history_entries'; the sequence id orders a patient's entries.
+ */
+@Entity
+@Table(name = "medical_history_entries",
+        indexes = {
+                @Index(name = "idx_history_patient_seq", columnList = "patient_id, id"),
+                @Index(name = "idx_history_recorded_at", columnList = "recorded_at")
+        })
+public class MedicalHistoryEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false, updatable = false)
+    private String patientId;
+
+    @Column(columnDefinition = "TEXT", nullable = false, updatable = false)
+    private String entry;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    public MedicalHistoryEntry() {
+        this.recordedAt = LocalDateTime.now();
+    }
+
+    public MedicalHistoryEntry(String patientId, String entry) {
+        this();
+        this.patientId = patientId;
+        this.entry = entry;
+    }
+
+    // Restores an entry with its original recording time
+    public MedicalHistoryEntry(String patientId, String entry, LocalDateTime recordedAt) {
+        this.patientId = patientId;
+        this.entry = entry;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getPatientId() {
+        return patientId;
+    }
+
+    public String getEntry() {
+        return entry;
+    }
+
+    public LocalDateTime getRecordedAt() {
+        return recordedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "MedicalHistoryEntry{id=" + id + ", patientId='" + patientId + "'}";
+    }
+}
@@ -0,0 +1,52 @@
+package com.airtribe.meditrack.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * High-water mark of an outbox relay: every event with an id up to lastDeliveredId has been delivered.
+ * JPA: @Entity persisted to 'outbox_relay_state' table, one row per relay.
+ */
+@Entity
+@Table(name = "outbox_relay_state")
+public class OutboxRelayState {
+
+    @Id
+    private String name;
+
+    @Column(name = "last_delivered_id", nullable = false)
+    private long lastDeliveredId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public OutboxRelayState() {
+    }
+
+    public OutboxRelayState(String name, long lastDeliveredId) {
+        this.name = name;
+        this.lastDeliveredId = lastDeliveredId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getLastDeliveredId() {
+        return lastDeliveredId;
+    }
+
+    public void setLastDeliveredId(long lastDeliveredId) {
+        this.lastDeliveredId = lastDeliveredId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
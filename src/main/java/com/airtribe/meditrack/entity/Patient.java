@@ -1,13 +1,18 @@
 package com.airtribe.meditrack.entity;
 
 import com.airtribe.meditrack.interfaces.Searchable;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -16,23 +21,27 @@ import java.util.List;
  * Represents a Patient in MediTrack.
  * Demonstrates: inheritance, Cloneable (deep vs shallow copy), interface implementation,
  * polymorphism (overloaded search methods).
- * JPA: @Entity persisted to 'patients' table.
+ * JPA: @Entity persisted to 'patients' table. Allergies are loaded with one subselect for all
+ * patients of a query (no N+1); list views use PatientSummary. Medical history lives in its own
+ * append-only table (MedicalHistoryEntry).
  */
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = @Index(name = "idx_patients_updated_at", columnList = "updated_at"))
 public class Patient extends Person implements Searchable, Cloneable {
 
     @Column(name = "blood_group")
     private String bloodGroup;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     @CollectionTable(name = "patient_allergies", joinColumns = @JoinColumn(name = "patient_id"))
     @Column(name = "allergy")
     private List<String> allergies;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "patient_medical_history", joinColumns = @JoinColumn(name = "patient_id"))
-    @Column(name = "history_entry")
+    // Stored append-only as MedicalHistoryEntry rows; filled in only for detail views. Read as
+    // input on create only: updates ignore it, history then grows through appendHistoryEntry.
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
     private List<String> medicalHistory;
 
     // No-arg constructor
@@ -0,0 +1,10 @@
+package com.airtribe.meditrack.entity;
+
+/**
+ * Lightweight, read-only view of a patient for list and search results.
+ * Demonstrates: Java records as DTO projections — selected directly by JPQL,
+ * so the allergy and medical history collections are never loaded.
+ */
+public record PatientSummary(String id, String name, int age, String gender, String phone,
+                             String email, String bloodGroup) {
+}
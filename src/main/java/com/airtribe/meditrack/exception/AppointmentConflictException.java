@@ -0,0 +1,27 @@
+package com.airtribe.meditrack.exception;
+
+import java.time.LocalDateTime;
+
+/**
+ * Custom exception thrown when a booking overlaps an existing appointment of the same doctor.
+ */
+public class AppointmentConflictException extends RuntimeException {
+
+    private final String doctorId;
+    private final String conflictingAppointmentId;
+
+    public AppointmentConflictException(String doctorId, LocalDateTime requested, String conflictingAppointmentId) {
+        super("Doctor " + doctorId + " is already booked at " + requested
+                + " (conflicts with appointment " + conflictingAppointmentId + ")");
+        this.doctorId = doctorId;
+        this.conflictingAppointmentId = conflictingAppointmentId;
+    }
+
+    public String getDoctorId() {
+        return doctorId;
+    }
+
+    public String getConflictingAppointmentId() {
+        return conflictingAppointmentId;
+    }
+}
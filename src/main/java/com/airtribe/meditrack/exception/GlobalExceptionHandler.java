@@ -27,6 +27,11 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage(), "appointmentId");
     }
 
+    @ExceptionHandler(AppointmentConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleAppointmentConflict(AppointmentConflictException ex) {
+        return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage(), "dateTime");
+    }
+
     @ExceptionHandler(NoSuchElementException.class)
     public ResponseEntity<Map<String, Object>> handleNotFound(NoSuchElementException ex) {
         return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage(), null);
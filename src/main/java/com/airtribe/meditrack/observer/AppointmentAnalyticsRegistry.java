@@ -0,0 +1,117 @@
+package com.airtribe.meditrack.observer;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory appointment counters, kept up to date through the observer hooks.
+ * Demonstrates: Observer pattern, ConcurrentHashMap + LongAdder for contended counters,
+ * EnumMap keyed by AppointmentStatus.
+ *
+ * The registry remembers the last status it saw for every appointment, so an event
+ * only moves one unit between counters. Replaying the same event is harmless.
+ */
+@Component
+public class AppointmentAnalyticsRegistry implements AppointmentObserver {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentAnalyticsRegistry.class);
+
+    private record Tracked(String doctorKey, AppointmentStatus status) {
+    }
+
+    private final Map<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> perDoctor = new ConcurrentHashMap<>();
+    private final Map<AppointmentStatus, LongAdder> perStatus = new EnumMap<>(AppointmentStatus.class);
+
+    public AppointmentAnalyticsRegistry() {
+        // All status keys are created up front, so the EnumMap itself is never modified afterwards
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            perStatus.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Discard all counters and recount from the given appointments (startup / bulk load).
+     */
+    public synchronized void rebuild(Collection<Appointment> appointments) {
+        tracked.clear();
+        perDoctor.clear();
+        perStatus.values().forEach(LongAdder::reset);
+        appointments.forEach(this::record);
+        log.info("Appointment analytics rebuilt from {} appointments.", appointments.size());
+    }
+
+    // --- AppointmentObserver ---
+
+    @Override
+    public void onAppointmentCreated(Appointment appointment) {
+        record(appointment);
+    }
+
+    @Override
+    public void onAppointmentCancelled(Appointment appointment) {
+        record(appointment);
+    }
+
+    @Override
+    public void onAppointmentStatusChanged(Appointment appointment) {
+        record(appointment);
+    }
+
+    // --- Queries: O(#keys), no database access ---
+
+    public Map<String, Long> getCountPerDoctor() {
+        Map<String, Long> result = new HashMap<>();
+        perDoctor.forEach((doctor, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                result.put(doctor, count);
+            }
+        });
+        return result;
+    }
+
+    public Map<AppointmentStatus, Long> getCountPerStatus() {
+        Map<AppointmentStatus, Long> result = new EnumMap<>(AppointmentStatus.class);
+        perStatus.forEach((status, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                result.put(status, count);
+            }
+        });
+        return result;
+    }
+
+    // --- Internal ---
+
+    private void record(Appointment appointment) {
+        if (appointment == null || appointment.getId() == null || appointment.getStatus() == null) {
+            return;
+        }
+        String doctorKey = appointment.getDoctorName() != null
+                ? appointment.getDoctorName() : appointment.getDoctorId();
+        Tracked next = new Tracked(doctorKey, appointment.getStatus());
+
+        // put() swaps atomically, so each event moves exactly the delta between what it replaced and itself
+        Tracked previous = tracked.put(appointment.getId(), next);
+        if (next.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            perDoctor.computeIfAbsent(previous.doctorKey(), k -> new LongAdder()).decrement();
+            perStatus.get(previous.status()).decrement();
+        }
+        perDoctor.computeIfAbsent(next.doctorKey(), k -> new LongAdder()).increment();
+        perStatus.get(next.status()).increment();
+    }
+}
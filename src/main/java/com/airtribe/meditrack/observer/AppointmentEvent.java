@@ -0,0 +1,43 @@
+package com.airtribe.meditrack.observer;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.Bill;
+import com.airtribe.meditrack.entity.MedicalEntity;
+
+import java.util.List;
+
+/**
+ * Immutable appointment/billing event carried by the AppointmentEventBus.
+ * The entities are the state recorded in the outbox when the change was committed.
+ */
+public record AppointmentEvent(Type type, List<? extends MedicalEntity> entities, long publishedAtNanos) {
+
+    public enum Type {
+        CREATED, BULK_CREATED, CANCELLED, STATUS_CHANGED, BILL_GENERATED;
+
+        /**
+         * Entity class carried by events of this type.
+         */
+        public Class<? extends MedicalEntity> entityClass() {
+            return this == BILL_GENERATED ? Bill.class : Appointment.class;
+        }
+    }
+
+    public static AppointmentEvent of(Type type, List<? extends MedicalEntity> entities) {
+        return new AppointmentEvent(type, List.copyOf(entities), System.nanoTime());
+    }
+
+    /**
+     * Invoke the observer callback matching this event's type.
+     */
+    @SuppressWarnings("unchecked")
+    public void dispatchTo(AppointmentObserver observer) {
+        switch (type) {
+            case CREATED -> observer.onAppointmentCreated((Appointment) entities.get(0));
+            case BULK_CREATED -> observer.onAppointmentsCreated((List<Appointment>) entities);
+            case CANCELLED -> observer.onAppointmentCancelled((Appointment) entities.get(0));
+            case STATUS_CHANGED -> observer.onAppointmentStatusChanged((Appointment) entities.get(0));
+            case BILL_GENERATED -> observer.onBillGenerated((Bill) entities.get(0));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.airtribe.meditrack.observer;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous, bounded delivery of appointment events to AppointmentObservers.
+ * Demonstrates: Observer pattern decoupled from the caller, bounded BlockingQueues,
+ * virtual threads, CompletableFuture.
+ *
+ * Every observer has its own queue and its own virtual-thread worker, so events reach
+ * each observer in publish order, and a slow or failing observer never delays the others.
+ * When a queue is full the configured OverflowPolicy decides between waiting, dropping
+ * the oldest event, or delivering on the caller's thread. Deliveries to one observer hold
+ * its delivery lock, so a caller that runs the overflow itself takes turns with the worker:
+ * it delivers queued events oldest first until its own event fits, never alongside or
+ * ahead of them.
+ *
+ * Events are fed in by the OutboxRelay, which uses the returned futures to know when it
+ * may advance its high-water mark.
+ */
+@Component
+public class AppointmentEventBus {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentEventBus.class);
+
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    public AppointmentEventBus(List<AppointmentObserver> observers,
+                               @Value("${meditrack.events.queue-capacity:10000}") int queueCapacity,
+                               @Value("${meditrack.events.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy) {
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        observers.forEach(this::subscribe);
+    }
+
+    public void subscribe(AppointmentObserver observer) {
+        Subscriber subscriber = new Subscriber(observer, new ArrayBlockingQueue<>(queueCapacity));
+        subscriber.worker = Thread.ofVirtual()
+                .name("appointment-events-" + observer.getClass().getSimpleName())
+                .start(subscriber::drain);
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Hand an event to every observer. The future completes when each observer has processed it
+     * (an observer that throws still counts as processed) and fails if any queue dropped it.
+     */
+    public CompletableFuture<Void> publish(AppointmentEvent event) {
+        CompletableFuture<?>[] done = new CompletableFuture<?>[subscribers.size()];
+        int i = 0;
+        for (Subscriber s : subscribers) {
+            done[i++] = s.enqueue(event);
+        }
+        return CompletableFuture.allOf(done);
+    }
+
+    /**
+     * Queue depth, delivery counters and lag (publish to delivery start) per observer.
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("overflowPolicy", overflowPolicy);
+        metrics.put("queueCapacity", queueCapacity);
+        Map<String, Object> perObserver = new LinkedHashMap<>();
+        for (Subscriber s : subscribers) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("queueDepth", s.queue.size());
+            m.put("delivered", s.delivered.sum());
+            m.put("failed", s.failed.sum());
+            m.put("dropped", s.dropped.sum());
+            m.put("callerRuns", s.callerRuns.sum());
+            m.put("lastLagMillis", TimeUnit.NANOSECONDS.toMillis(s.lastLagNanos.get()));
+            m.put("maxLagMillis", TimeUnit.NANOSECONDS.toMillis(s.maxLagNanos.get()));
+            perObserver.put(s.observer.getClass().getSimpleName(), m);
+        }
+        metrics.put("observers", perObserver);
+        return metrics;
+    }
+
+    /**
+     * Stop accepting work, let the workers drain what is queued, then stop them. Events
+     * published from now on are dropped.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Subscriber s : subscribers) {
+            s.ready.release();
+            s.worker.join(TimeUnit.SECONDS.toMillis(5));
+            if (s.worker.isAlive()) {
+                log.warn("Discarding {} undelivered events for {}", s.queue.size(),
+                        s.observer.getClass().getSimpleName());
+                s.worker.interrupt();
+                s.worker.join(TimeUnit.SECONDS.toMillis(1));
+            }
+            // Anything left was published after the worker's last pass
+            Delivery left;
+            while ((left = s.queue.poll()) != null) {
+                s.drop(left);
+            }
+        }
+    }
+
+    // --- Internal ---
+
+    private record Delivery(AppointmentEvent event, CompletableFuture<Void> done) {
+    }
+
+    private final class Subscriber {
+        private final AppointmentObserver observer;
+        private final BlockingQueue<Delivery> queue;
+        private final LongAdder delivered = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder callerRuns = new LongAdder();
+        private final AtomicLong lastLagNanos = new AtomicLong();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+        // Held for every delivery, by the worker or by a caller running the overflow; fair, so
+        // a waiting caller gets its turn between two of the worker's deliveries
+        private final ReentrantLock deliveryLock = new ReentrantLock(true);
+        // One permit per enqueued event; wakes the worker without publishers taking the lock
+        private final Semaphore ready = new Semaphore(0);
+        private Thread worker;
+
+        private Subscriber(AppointmentObserver observer, BlockingQueue<Delivery> queue) {
+            this.observer = observer;
+            this.queue = queue;
+        }
+
+        private CompletableFuture<Void> enqueue(AppointmentEvent event) {
+            Delivery delivery = new Delivery(event, new CompletableFuture<>());
+            if (!running) {
+                drop(delivery);
+                return delivery.done();
+            }
+            switch (overflowPolicy) {
+                case BLOCK -> {
+                    try {
+                        queue.put(delivery);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        drop(delivery);
+                        return delivery.done();
+                    }
+                }
+                case DROP_OLDEST -> {
+                    while (!queue.offer(delivery)) {
+                        Delivery oldest = queue.poll();
+                        if (oldest != null) {
+                            drop(oldest);
+                        }
+                    }
+                }
+                case CALLER_RUNS -> {
+                    if (!queue.offer(delivery)) {
+                        runOverflow(delivery);
+                    }
+                }
+            }
+            ready.release();
+            return delivery.done();
+        }
+
+        /**
+         * Deliver queued events on the caller's thread, oldest first, until the new one fits.
+         * Holding the delivery lock keeps the worker out, so order and one-at-a-time delivery
+         * are the same as if the worker had done it.
+         */
+        private void runOverflow(Delivery delivery) {
+            deliveryLock.lock();
+            try {
+                while (!queue.offer(delivery)) {
+                    Delivery oldest = queue.poll();
+                    if (oldest != null) {
+                        callerRuns.increment();
+                        deliver(oldest);
+                    }
+                }
+            } finally {
+                deliveryLock.unlock();
+            }
+        }
+
+        private void drop(Delivery delivery) {
+            dropped.increment();
+            delivery.done().completeExceptionally(new CancellationException(
+                    "Event dropped by " + observer.getClass().getSimpleName() + " queue"));
+        }
+
+        private void drain() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    if (!deliverNext() && ready.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                        // One look at the queue covers every event enqueued so far
+                        ready.drainPermits();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Take the oldest event and deliver it under the delivery lock, so a caller running the
+         * overflow never overtakes an event the worker has already taken off the queue.
+         */
+        private boolean deliverNext() throws InterruptedException {
+            deliveryLock.lockInterruptibly();
+            try {
+                Delivery delivery = queue.poll();
+                if (delivery == null) {
+                    return false;
+                }
+                deliver(delivery);
+                return true;
+            } finally {
+                deliveryLock.unlock();
+            }
+        }
+
+        private void deliver(Delivery delivery) {
+            AppointmentEvent event = delivery.event();
+            long lag = System.nanoTime() - event.publishedAtNanos();
+            lastLagNanos.set(lag);
+            maxLagNanos.accumulateAndGet(lag, Math::max);
+            try {
+                event.dispatchTo(observer);
+                delivered.increment();
+            } catch (RuntimeException e) {
+                // Failure isolation: one observer's exception never reaches the caller or other observers
+                failed.increment();
+                log.error("Observer {} failed on {} event", observer.getClass().getSimpleName(), event.type(), e);
+            }
+            delivery.done().complete(null);
+        }
+    }
+}
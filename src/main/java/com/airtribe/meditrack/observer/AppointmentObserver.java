@@ -1,10 +1,15 @@
 package com.airtribe.meditrack.observer;
 
 import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.Bill;
+
+import java.util.List;
 
 /**
  * Observer interface for appointment events.
  * Demonstrates: Observer design pattern.
+ * Events are delivered at least once (via the transactional outbox), so implementations
+ * should tolerate seeing the same event twice.
  */
 public interface AppointmentObserver {
 
@@ -13,4 +18,17 @@ public interface AppointmentObserver {
     void onAppointmentCancelled(Appointment appointment);
 
     void onAppointmentStatusChanged(Appointment appointment);
+
+    /**
+     * Called once for a bulk booking. Defaults to one onAppointmentCreated call per appointment.
+     */
+    default void onAppointmentsCreated(List<Appointment> appointments) {
+        appointments.forEach(this::onAppointmentCreated);
+    }
+
+    /**
+     * Called when a bill is generated for an appointment. Ignored by default.
+     */
+    default void onBillGenerated(Bill bill) {
+    }
 }
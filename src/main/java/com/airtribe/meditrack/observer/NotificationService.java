@@ -1,11 +1,14 @@
 package com.airtribe.meditrack.observer;
 
 import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.Bill;
 import com.airtribe.meditrack.util.DateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Concrete observer — logs appointment notifications to console.
  * Demonstrates: Observer pattern implementation.
@@ -22,6 +25,11 @@ public class NotificationService implements AppointmentObserver {
                 DateUtil.formatForDisplay(appointment.getAppointmentDateTime()));
     }
 
+    @Override
+    public void onAppointmentsCreated(List<Appointment> appointments) {
+        log.info("[NOTIFICATION] {} appointments created in bulk.", appointments.size());
+    }
+
     @Override
     public void onAppointmentCancelled(Appointment appointment) {
         log.info("[NOTIFICATION] Appointment CANCELLED: {} with Dr. {} (ID: {})",
@@ -33,4 +41,10 @@ public class NotificationService implements AppointmentObserver {
         log.info("[NOTIFICATION] Appointment status changed to {} for {} (ID: {})",
                 appointment.getStatus(), appointment.getPatientName(), appointment.getId());
     }
+
+    @Override
+    public void onBillGenerated(Bill bill) {
+        log.info("[NOTIFICATION] Bill {} generated for {}: ${}",
+                bill.getId(), bill.getPatientName(), String.format("%.2f", bill.getTotalAmount()));
+    }
 }
@@ -0,0 +1,51 @@
+package com.airtribe.meditrack.observer;
+
+import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.entity.OutboxEvent;
+import com.airtribe.meditrack.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+/**
+ * Records appointment and billing events in the outbox table.
+ * Demonstrates: transactional outbox — the event row joins the caller's transaction,
+ * so it commits or rolls back together with the change it describes.
+ */
+@Component
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxRelay relay;
+    private final ObjectMapper objectMapper;
+
+    public OutboxPublisher(OutboxEventRepository outboxRepository, OutboxRelay relay, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.relay = relay;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write an event for the given entities. Must run inside the transaction that changed them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(AppointmentEvent.Type type, List<? extends MedicalEntity> entities) {
+        MedicalEntity first = entities.get(0);
+        String aggregateId = entities.size() == 1 ? first.getId() : null;
+        outboxRepository.save(new OutboxEvent(first.getEntityType(), aggregateId, type.name(),
+                objectMapper.writeValueAsString(entities)));
+
+        // Let the relay pick the event up right after commit instead of at its next poll
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
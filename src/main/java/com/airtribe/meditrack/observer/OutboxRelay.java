@@ -0,0 +1,297 @@
+package com.airtribe.meditrack.observer;
+
+import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.entity.OutboxEvent;
+import com.airtribe.meditrack.entity.OutboxRelayState;
+import com.airtribe.meditrack.repository.OutboxEventRepository;
+import com.airtribe.meditrack.repository.OutboxRelayStateRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background relay that drains the outbox into the AppointmentEventBus (at-least-once).
+ * Demonstrates: transactional outbox relay, persisted high-water mark, virtual threads.
+ *
+ * The relay reads events above its high-water mark in id order, publishes them, waits until
+ * every observer has processed them, and only then moves the mark forward and deletes the
+ * delivered rows. A crash in between only causes re-delivery.
+ *
+ * Ids are allocated before commit, so a row with a smaller id can become visible after a larger
+ * one. When the relay meets such a hole it holds back everything behind it for up to
+ * gap-wait-ms, so events are normally delivered in id order. A hole still empty after that
+ * almost always belongs to a rolled-back transaction and is skipped. Its id is still re-checked
+ * every gap-wait-ms for gap-retention-seconds. A commit slower than gap-wait-ms is therefore
+ * delivered late, after events with larger ids, rather than lost. At most MAX_TRACKED_GAPS
+ * holes are remembered; when full, the oldest skipped hole is given up first.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final String RELAY_NAME = "appointment-observers";
+    private static final int MAX_TRACKED_GAPS = 1_000;
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxRelayStateRepository stateRepository;
+    private final AppointmentEventBus eventBus;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final Duration gapWait;
+    private final Duration gapRetention;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    // Hole id -> when it was first seen; ids below the mark are skipped holes awaiting a late commit
+    private final TreeMap<Long, Instant> pendingGaps = new TreeMap<>();
+    private Instant lastLateCheck = Instant.EPOCH;
+    private volatile boolean running;
+    private volatile long highWaterMark;
+    private Thread worker;
+
+    public OutboxRelay(OutboxEventRepository outboxRepository, OutboxRelayStateRepository stateRepository,
+                       AppointmentEventBus eventBus, ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${meditrack.outbox.batch-size:500}") int batchSize,
+                       @Value("${meditrack.outbox.poll-interval-ms:500}") long pollIntervalMillis,
+                       @Value("${meditrack.outbox.gap-wait-ms:1000}") long gapWaitMillis,
+                       @Value("${meditrack.outbox.gap-retention-seconds:300}") long gapRetentionSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.stateRepository = stateRepository;
+        this.eventBus = eventBus;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.gapWait = Duration.ofMillis(gapWaitMillis);
+        this.gapRetention = Duration.ofSeconds(gapRetentionSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        highWaterMark = stateRepository.findById(RELAY_NAME)
+                .map(OutboxRelayState::getLastDeliveredId)
+                .orElse(0L);
+        running = true;
+        worker = Thread.ofVirtual().name("outbox-relay").start(this::run);
+        log.info("Outbox relay started at high-water mark {}.", highWaterMark);
+    }
+
+    /**
+     * Ask the relay to poll now (called after a transaction that wrote events commits).
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("highWaterMark", highWaterMark);
+        synchronized (pendingGaps) {
+            metrics.put("pendingGaps", pendingGaps.size());
+        }
+        return metrics;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    // --- Relay loop ---
+
+    private void run() {
+        while (running) {
+            try {
+                wakeUps.drainPermits();
+                if (relayOnce() == 0) {
+                    wakeUps.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Outbox relay cycle failed; retrying", e);
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * One relay cycle: late rows in known gaps first, then the next batch above the mark.
+     *
+     * @return number of events delivered
+     */
+    int relayOnce() throws InterruptedException {
+        int delivered = relayLateEvents();
+
+        long mark = highWaterMark;
+        List<OutboxEvent> batch = transactionTemplate.execute(status ->
+                outboxRepository.findByIdGreaterThanOrderByIdAsc(mark, Limit.of(batchSize)));
+        if (batch == null || batch.isEmpty()) {
+            return delivered;
+        }
+
+        int ready = readyPrefix(mark, batch);
+        if (ready == 0) {
+            return delivered;
+        }
+        int ok = deliverInOrder(batch.subList(0, ready));
+        if (ok == 0) {
+            return delivered;
+        }
+        synchronized (pendingGaps) {
+            batch.subList(0, ok).forEach(e -> pendingGaps.remove(e.getId()));
+        }
+        advanceMark(batch.get(ok - 1).getId());
+        return delivered + ok;
+    }
+
+    /**
+     * Number of leading events that can go out without overtaking a hole younger than gap-wait-ms.
+     */
+    private int readyPrefix(long mark, List<OutboxEvent> batch) {
+        Instant now = Instant.now();
+        synchronized (pendingGaps) {
+            long expected = mark + 1;
+            for (int i = 0; i < batch.size(); i++) {
+                long id = batch.get(i).getId();
+                for (long gap = expected; gap < id; gap++) {
+                    Instant seen = trackGap(gap, now);
+                    if (seen != null && Duration.between(seen, now).compareTo(gapWait) < 0) {
+                        return i;
+                    }
+                }
+                expected = id + 1;
+            }
+            return batch.size();
+        }
+    }
+
+    /**
+     * When the hole was first seen, or null if it cannot be tracked (it is then skipped at once).
+     */
+    private Instant trackGap(long id, Instant now) {
+        Instant seen = pendingGaps.get(id);
+        if (seen != null) {
+            return seen;
+        }
+        if (pendingGaps.size() >= MAX_TRACKED_GAPS) {
+            Long oldest = pendingGaps.firstKey();
+            if (oldest >= highWaterMark) {
+                return null;
+            }
+            pendingGaps.remove(oldest);
+        }
+        pendingGaps.put(id, now);
+        return now;
+    }
+
+    private int relayLateEvents() throws InterruptedException {
+        List<Long> gapIds;
+        synchronized (pendingGaps) {
+            Instant now = Instant.now();
+            if (Duration.between(lastLateCheck, now).compareTo(gapWait) < 0) {
+                return 0;
+            }
+            lastLateCheck = now;
+            Instant expiry = now.minus(gapRetention);
+            pendingGaps.values().removeIf(seen -> seen.isBefore(expiry));
+            // Holes above the mark are still being waited for by the main pass
+            gapIds = new ArrayList<>(pendingGaps.headMap(highWaterMark).keySet());
+            if (gapIds.isEmpty()) {
+                return 0;
+            }
+        }
+        List<OutboxEvent> late = transactionTemplate.execute(status -> outboxRepository.findAllById(gapIds));
+        if (late == null || late.isEmpty()) {
+            return 0;
+        }
+        late = new ArrayList<>(late);
+        late.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        int ok = deliverInOrder(late);
+        synchronized (pendingGaps) {
+            late.subList(0, ok).forEach(e -> pendingGaps.remove(e.getId()));
+        }
+        return ok;
+    }
+
+    /**
+     * Publish events in order and wait for all observers.
+     *
+     * @return length of the prefix that was fully delivered
+     */
+    private int deliverInOrder(List<OutboxEvent> events) throws InterruptedException {
+        List<CompletableFuture<Void>> done = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            done.add(eventBus.publish(toEvent(event)));
+        }
+        int ok = 0;
+        for (CompletableFuture<Void> future : done) {
+            try {
+                future.get();
+                ok++;
+            } catch (java.util.concurrent.ExecutionException e) {
+                log.warn("Outbox event {} was not delivered ({}); will retry", events.get(ok).getId(),
+                        e.getCause().getMessage());
+                break;
+            }
+        }
+        return ok;
+    }
+
+    private AppointmentEvent toEvent(OutboxEvent row) {
+        AppointmentEvent.Type type = AppointmentEvent.Type.valueOf(row.getEventType());
+        Class<? extends MedicalEntity> entityClass = type.entityClass();
+        MedicalEntity[] entities = objectMapper.readValue(row.getPayload(),
+                objectMapper.getTypeFactory().constructArrayType(entityClass));
+        return AppointmentEvent.of(type, Arrays.asList(entities));
+    }
+
+    private void advanceMark(long newMark) {
+        long purgeUpTo;
+        synchronized (pendingGaps) {
+            // Keep rows that may still show up in a gap
+            purgeUpTo = pendingGaps.isEmpty() ? newMark : Math.min(newMark, pendingGaps.firstKey() - 1);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            OutboxRelayState state = stateRepository.findById(RELAY_NAME)
+                    .orElseGet(() -> new OutboxRelayState(RELAY_NAME, 0L));
+            state.setLastDeliveredId(newMark);
+            stateRepository.save(state);
+            outboxRepository.deleteUpTo(purgeUpTo);
+        });
+        highWaterMark = newMark;
+    }
+}
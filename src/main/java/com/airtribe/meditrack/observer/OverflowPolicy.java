@@ -0,0 +1,16 @@
+package com.airtribe.meditrack.observer;
+
+/**
+ * What the AppointmentEventBus does when an observer's queue is full.
+ */
+public enum OverflowPolicy {
+
+    /** Wait until the observer has made room. */
+    BLOCK,
+
+    /** Discard the oldest queued event and enqueue the new one. */
+    DROP_OLDEST,
+
+    /** Deliver queued events on the publishing thread, oldest first, until the new event fits. */
+    CALLER_RUNS
+}
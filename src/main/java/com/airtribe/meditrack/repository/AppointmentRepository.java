@@ -1,19 +1,26 @@
 package com.airtribe.meditrack.repository;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Appointment;
 import com.airtribe.meditrack.entity.AppointmentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for Appointment entity.
  * Demonstrates: derived query methods with enum parameters and date comparisons.
  */
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, String> {
+public interface AppointmentRepository extends JpaRepository<Appointment, String>, AppointmentRepositoryCustom,
+        BatchUpsert<Appointment> {
 
     List<Appointment> findByDoctorId(String doctorId);
 
@@ -23,4 +30,22 @@ public interface AppointmentRepository extends JpaRepository<Appointment, String
 
     List<Appointment> findByAppointmentDateTimeAfterAndStatusNotOrderByAppointmentDateTimeAsc(
             LocalDateTime dateTime, AppointmentStatus excludedStatus);
+
+    // --- Keyset pagination and streaming, ordered by ID ---
+
+    List<Appointment> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Appointment> streamByIdGreaterThanOrderByIdAsc(String after);
+
+    // --- Delta export: rows changed in (after, upTo], served by the updated_at index ---
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Appointment> streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(LocalDateTime after, LocalDateTime upTo);
 }
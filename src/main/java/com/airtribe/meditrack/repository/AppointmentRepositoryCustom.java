@@ -0,0 +1,17 @@
+package com.airtribe.meditrack.repository;
+
+import com.airtribe.meditrack.entity.Appointment;
+
+import java.util.Collection;
+
+/**
+ * Custom repository fragment for bulk appointment writes.
+ */
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * Insert new appointments with JDBC batching. Unlike saveAll(), no SELECT is issued per row
+     * to decide between insert and merge, so the ids must not exist yet.
+     */
+    void persistAll(Collection<Appointment> appointments);
+}
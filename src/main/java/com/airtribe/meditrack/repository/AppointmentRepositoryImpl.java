@@ -0,0 +1,44 @@
+package com.airtribe.meditrack.repository;
+
+import com.airtribe.meditrack.entity.Appointment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JPA implementation of {@link AppointmentRepositoryCustom}, picked up by Spring Data
+ * through the "Impl" naming convention.
+ * Demonstrates: EntityManager.persist with a flush per batch so Hibernate sends inserts
+ * in JDBC batches. Each flushed batch is detached so the persistence context stays small;
+ * the rest of the caller's persistence context is left alone.
+ */
+public class AppointmentRepositoryImpl implements AppointmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void persistAll(Collection<Appointment> appointments) {
+        List<Appointment> batch = new ArrayList<>(batchSize);
+        for (Appointment appointment : appointments) {
+            entityManager.persist(appointment);
+            batch.add(appointment);
+            if (batch.size() == batchSize) {
+                entityManager.flush();
+                // clear() would also detach what the caller loaded earlier in the transaction
+                batch.forEach(entityManager::detach);
+                batch.clear();
+            }
+        }
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,15 @@
+package com.airtribe.meditrack.repository;
+
+import java.util.Collection;
+
+/**
+ * Repository fragment for writing batches of entities that carry their own ids.
+ */
+public interface BatchUpsert<T> {
+
+    /**
+     * Insert the entities whose ids are new and merge the rest, keeping the updatedAt each one
+     * arrives with. Ids must be unique within the batch.
+     */
+    void upsertAll(Collection<T> entities);
+}
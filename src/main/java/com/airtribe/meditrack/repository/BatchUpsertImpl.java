@@ -0,0 +1,60 @@
+package com.airtribe.meditrack.repository;
+
+import com.airtribe.meditrack.entity.MedicalEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.repository.core.RepositoryMethodContext;
+import org.springframework.data.repository.core.support.RepositoryMetadataAccess;
+import org.springframework.data.repository.core.support.RepositoryMetadataAccess;
+import org.springframework.data.repository.core.RepositoryMethodContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JPA implementation of {@link BatchUpsert}, shared by every repository that extends it and
+ * picked up by Spring Data through the "Impl" naming convention.
+ * Demonstrates: EntityManager.persist/merge with one flush so Hibernate sends JDBC batches.
+ *
+ * One {@code id IN (...)} query finds the rows that already exist; new rows are persisted and
+ * existing ones merged, so writing the same data twice upserts like saveAll() without a SELECT
+ * per row. The written rows are detached after the flush; the rest of the caller's persistence
+ * context is left alone.
+ */
+public class BatchUpsertImpl<T extends MedicalEntity> implements BatchUpsert<T>, RepositoryMetadataAccess {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void upsertAll(Collection<T> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        Class<?> type = RepositoryMethodContext.getContext().getMetadata().getDomainType();
+        String entityName = entityManager.getMetamodel().entity(type).getName();
+        List<String> ids = entities.stream().map(MedicalEntity::getId).toList();
+        MedicalEntity.keepingTimestamps(() -> {
+            Set<String> existing = new HashSet<>(entityManager
+                    .createQuery("select e.id from " + entityName + " e where e.id in :ids", String.class)
+                    .setParameter("ids", ids)
+                    .getResultList());
+            List<Object> written = new ArrayList<>(entities.size());
+            for (T entity : entities) {
+                if (existing.contains(entity.getId())) {
+                    written.add(entityManager.merge(entity));
+                } else {
+                    entityManager.persist(entity);
+                    written.add(entity);
+                }
+            }
+            entityManager.flush();
+            written.forEach(entityManager::detach);
+        });
+    }
+}
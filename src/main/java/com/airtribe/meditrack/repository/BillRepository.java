@@ -1,20 +1,45 @@
 package com.airtribe.meditrack.repository;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Bill;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for Bill entity.
  */
 @Repository
-public interface BillRepository extends JpaRepository<Bill, String> {
+public interface BillRepository extends JpaRepository<Bill, String>, BatchUpsert<Bill> {
 
     List<Bill> findByPatientId(String patientId);
 
     List<Bill> findByBillType(String billType);
 
     List<Bill> findByAppointmentId(String appointmentId);
+
+    // --- Keyset pagination and streaming, ordered by ID ---
+
+    List<Bill> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Bill> streamByIdGreaterThanOrderByIdAsc(String after);
+
+    // --- Delta export: rows changed in (after, upTo], served by the updated_at index ---
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Bill> streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(LocalDateTime after, LocalDateTime upTo);
 }
@@ -1,20 +1,25 @@
 package com.airtribe.meditrack.repository;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Doctor;
 import com.airtribe.meditrack.entity.Specialization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for Doctor entity.
- * Demonstrates: JpaRepository with custom query methods, @Query JPQL.
+ * Demonstrates: JpaRepository with custom query methods, query hints.
  */
 @Repository
-public interface DoctorRepository extends JpaRepository<Doctor, String> {
+public interface DoctorRepository extends JpaRepository<Doctor, String>, BatchUpsert<Doctor> {
 
     List<Doctor> findBySpecialization(Specialization specialization);
 
@@ -24,9 +29,23 @@ public interface DoctorRepository extends JpaRepository<Doctor, String> {
 
     List<Doctor> findByYearsOfExperienceGreaterThanEqual(int minYears);
 
-    @Query("SELECT d FROM Doctor d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(CAST(d.specialization AS string)) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Doctor> searchByKeyword(@Param("keyword") String keyword);
-
     List<Doctor> findAllByOrderByConsultationFeeAsc();
+
+    // --- Keyset pagination and streaming, ordered by ID ---
+
+    List<Doctor> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Doctor> streamByIdGreaterThanOrderByIdAsc(String after);
+
+    // --- Delta export: rows changed in (after, upTo], served by the updated_at index ---
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Doctor> streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(LocalDateTime after, LocalDateTime upTo);
 }
@@ -0,0 +1,89 @@
+package com.airtribe.meditrack.repository;
+
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Spring Data JPA repository for append-only medical history entries.
+ * All reads are served by the (patient_id, id) index.
+ */
+@Repository
+public interface MedicalHistoryRepository extends JpaRepository<MedicalHistoryEntry, Long> {
+
+    List<MedicalHistoryEntry> findByPatientIdOrderByIdAsc(String patientId);
+
+    List<MedicalHistoryEntry> findByPatientIdAndIdGreaterThanOrderByIdAsc(String patientId, Long after, Limit limit);
+
+    /**
+     * Every entry grouped by patient in recording order; scrolled, so it must be consumed in a transaction.
+     */
+    Stream<MedicalHistoryEntry> streamAllByOrderByPatientIdAscIdAsc();
+
+    /**
+     * Entries recorded in (after, upTo], grouped by patient; served by the recorded_at index.
+     */
+    Stream<MedicalHistoryEntry> streamByRecordedAtGreaterThanAndRecordedAtLessThanEqualOrderByPatientIdAscIdAsc(
+            LocalDateTime after, LocalDateTime upTo);
+
+    /**
+     * The given patients' entries recorded within [from, to]; used to skip entries already restored.
+     */
+    List<MedicalHistoryEntry> findByPatientIdInAndRecordedAtBetween(
+            Collection<String> patientIds, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * The entries not yet recorded: no entry of the same patient with the same text at the same
+     * time. The database keeps microseconds, so the time matches within one either way.
+     * One query covers the whole batch, bounded by its patients and its time range.
+     */
+    default List<MedicalHistoryEntry> missingEntries(Collection<MedicalHistoryEntry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        record Key(String patientId, String entry) {
+        }
+        Set<String> patientIds = new HashSet<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (MedicalHistoryEntry e : entries) {
+            patientIds.add(e.getPatientId());
+            from = from == null || e.getRecordedAt().isBefore(from) ? e.getRecordedAt() : from;
+            to = to == null || e.getRecordedAt().isAfter(to) ? e.getRecordedAt() : to;
+        }
+        Map<Key, List<LocalDateTime>> recorded = new HashMap<>();
+        for (MedicalHistoryEntry e : findByPatientIdInAndRecordedAtBetween(
+                patientIds, from.minusNanos(1_000), to.plusNanos(1_000))) {
+            recorded.computeIfAbsent(new Key(e.getPatientId(), e.getEntry()), k -> new ArrayList<>())
+                    .add(e.getRecordedAt());
+        }
+        return entries.stream()
+                .filter(entry -> recorded.getOrDefault(new Key(entry.getPatientId(), entry.getEntry()), List.of())
+                        .stream()
+                        .noneMatch(at -> Math.abs(Duration.between(at, entry.getRecordedAt()).toNanos()) <= 1_000))
+                .toList();
+    }
+
+    @Modifying
+    @Query("DELETE FROM MedicalHistoryEntry e WHERE e.patientId = :patientId")
+    int deleteByPatientId(@Param("patientId") String patientId);
+
+    @Modifying
+    @Query("DELETE FROM MedicalHistoryEntry e WHERE e.patientId IN :patientIds")
+    int deleteByPatientIdIn(@Param("patientIds") Collection<String> patientIds);
+}
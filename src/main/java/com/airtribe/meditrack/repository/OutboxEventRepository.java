@@ -0,0 +1,27 @@
+package com.airtribe.meditrack.repository;
+
+import com.airtribe.meditrack.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the transactional outbox.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Next events above the relay's high-water mark, oldest first (served by the primary key index).
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :id")
+    int deleteUpTo(@Param("id") Long id);
+}
@@ -0,0 +1,12 @@
+package com.airtribe.meditrack.repository;
+
+import com.airtribe.meditrack.entity.OutboxRelayState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for outbox relay high-water marks.
+ */
+@Repository
+public interface OutboxRelayStateRepository extends JpaRepository<OutboxRelayState, String> {
+}
@@ -1,28 +1,57 @@
 package com.airtribe.meditrack.repository;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.PatientSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for Patient entity.
- * Demonstrates: derived query methods, @Query with JPQL.
+ * Demonstrates: derived query methods, @Query with JPQL, DTO projections (constructor expressions).
  */
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, String> {
+public interface PatientRepository extends JpaRepository<Patient, String>, BatchUpsert<Patient> {
 
-    List<Patient> findByNameContainingIgnoreCase(String name);
-
-    List<Patient> findByAge(int age);
+    String SELECT_SUMMARY = "SELECT new com.airtribe.meditrack.entity.PatientSummary("
+            + "p.id, p.name, p.age, p.gender, p.phone, p.email, p.bloodGroup) FROM Patient p ";
 
     List<Patient> findByBloodGroup(String bloodGroup);
 
-    @Query("SELECT p FROM Patient p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(p.bloodGroup) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR p.id LIKE CONCAT('%', :keyword, '%')")
-    List<Patient> searchByKeyword(@Param("keyword") String keyword);
+    // --- Summary projections: one query, no collection loading ---
+
+    @Query(SELECT_SUMMARY + "ORDER BY p.id")
+    List<PatientSummary> findAllSummaries();
+
+    @Query(SELECT_SUMMARY + "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY p.id")
+    List<PatientSummary> findSummariesByName(@Param("name") String name);
+
+    @Query(SELECT_SUMMARY + "WHERE p.age = :age ORDER BY p.id")
+    List<PatientSummary> findSummariesByAge(@Param("age") int age);
+
+    @Query(SELECT_SUMMARY + "WHERE p.id IN :ids")
+    List<PatientSummary> findSummariesByIds(@Param("ids") Collection<String> ids);
+
+    // --- Keyset pagination, ordered by ID (also how patients are streamed) ---
+
+    List<Patient> findByIdGreaterThanOrderByIdAsc(String after, Limit limit);
+
+    // --- Delta export: rows changed in (after, upTo], served by the updated_at index ---
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Constants.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Patient> streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(LocalDateTime after, LocalDateTime upTo);
 }
@@ -0,0 +1,126 @@
+package com.airtribe.meditrack.repository.inmemory;
+
+import jakarta.persistence.Transient;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.support.ExampleMatcherAccessor;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Query-by-example matching for the in-memory repositories, following the JPA implementation.
+ * Demonstrates: Spring Data ExampleMatcher, BeanWrapper property access.
+ *
+ * Like Spring Data JPA, every singular persistent property of the probe takes part, primitives
+ * and the createdAt/updatedAt timestamps included; collections and transient fields do not.
+ * Null probe values are skipped unless the matcher includes nulls. Strings honour the matcher's
+ * string matcher and case setting; all other values must be equal.
+ */
+final class ExamplePredicate<T> implements Predicate<T> {
+
+    private record Criterion(String path, Object value, ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase) {
+    }
+
+    private final Class<?> probeType;
+    private final boolean anyMatching;
+    private final List<Criterion> criteria = new ArrayList<>();
+
+    ExamplePredicate(Example<?> example) {
+        Object probe = example.getProbe();
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(example.getMatcher());
+        this.probeType = example.getProbeType();
+        this.anyMatching = example.getMatcher().isAnyMatching();
+
+        BeanWrapper wrapper = new BeanWrapperImpl(probe);
+        for (PropertyDescriptor property : wrapper.getPropertyDescriptors()) {
+            String path = property.getName();
+            if (!isPersistent(property) || accessor.isIgnoredPath(path)) {
+                continue;
+            }
+            Object value = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(wrapper.getPropertyValue(path)))
+                    .orElse(null);
+            if (value == null && accessor.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            criteria.add(new Criterion(path, value, accessor.getStringMatcherForPath(path),
+                    accessor.isIgnoreCaseForPath(path)));
+        }
+    }
+
+    @Override
+    public boolean test(T candidate) {
+        if (!probeType.isInstance(candidate)) {
+            return false;
+        }
+        if (criteria.isEmpty()) {
+            return true;
+        }
+        BeanWrapper wrapper = new BeanWrapperImpl(candidate);
+        for (Criterion criterion : criteria) {
+            boolean matches = matches(criterion, wrapper.getPropertyValue(criterion.path()));
+            if (anyMatching && matches) {
+                return true;
+            }
+            if (!anyMatching && !matches) {
+                return false;
+            }
+        }
+        return !anyMatching;
+    }
+
+    private static boolean matches(Criterion criterion, Object actual) {
+        Object expected = criterion.value();
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        if (!(expected instanceof String probe) || !(actual instanceof String value)) {
+            return Objects.equals(expected, actual);
+        }
+        if (criterion.stringMatcher() == ExampleMatcher.StringMatcher.REGEX) {
+            int flags = criterion.ignoreCase() ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+            return Pattern.compile(probe, flags).matcher(value).matches();
+        }
+        if (criterion.ignoreCase()) {
+            probe = probe.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (criterion.stringMatcher()) {
+            case STARTING -> value.startsWith(probe);
+            case ENDING -> value.endsWith(probe);
+            case CONTAINING -> value.contains(probe);
+            default -> value.equals(probe);
+        };
+    }
+
+    /**
+     * A readable and writable property backed by a non-transient field, and not a collection.
+     */
+    private boolean isPersistent(PropertyDescriptor property) {
+        if (property.getReadMethod() == null || property.getWriteMethod() == null) {
+            return false;
+        }
+        Class<?> type = property.getPropertyType();
+        if (Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type) || type.isArray()) {
+            return false;
+        }
+        Field field = ReflectionUtils.findField(probeType, property.getName());
+        return field != null && !Modifier.isTransient(field.getModifiers())
+                && !Modifier.isStatic(field.getModifiers())
+                && !field.isAnnotationPresent(Transient.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.airtribe.meditrack.repository.inmemory;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.repository.AppointmentRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * AppointmentRepository backed by DataStore, active with the "inmemory" profile.
+ */
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryAppointmentRepository extends InMemoryRepository<Appointment> implements AppointmentRepository {
+
+    private static final String DOCTOR = "doctorId";
+    private static final String PATIENT = "patientId";
+    private static final String STATUS = "status";
+    private static final String DATE_TIME = "appointmentDateTime";
+
+    public InMemoryAppointmentRepository() {
+        addIndex(DOCTOR, Appointment::getDoctorId);
+        addIndex(PATIENT, Appointment::getPatientId);
+        addIndex(STATUS, Appointment::getStatus);
+        addSortedIndex(DATE_TIME, Appointment::getAppointmentDateTime);
+    }
+
+    @Override
+    public List<Appointment> findByDoctorId(String doctorId) {
+        return copies(filter(DOCTOR, doctorId));
+    }
+
+    @Override
+    public List<Appointment> findByPatientId(String patientId) {
+        return copies(filter(PATIENT, patientId));
+    }
+
+    @Override
+    public List<Appointment> findByStatus(AppointmentStatus status) {
+        return copies(filter(STATUS, status));
+    }
+
+    @Override
+    public List<Appointment> findByAppointmentDateTimeAfterAndStatusNotOrderByAppointmentDateTimeAsc(
+            LocalDateTime dateTime, AppointmentStatus excludedStatus) {
+        List<Appointment> result = new ArrayList<>();
+        for (Appointment a : after(DATE_TIME, dateTime, Integer.MAX_VALUE)) {
+            if (a.getStatus() != excludedStatus) {
+                result.add(copy(a));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void persistAll(Collection<Appointment> appointments) {
+        saveAll(appointments);
+    }
+}
@@ -0,0 +1,43 @@
+package com.airtribe.meditrack.repository.inmemory;
+
+import com.airtribe.meditrack.entity.Bill;
+import com.airtribe.meditrack.repository.BillRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * BillRepository backed by DataStore, active with the "inmemory" profile.
+ */
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryBillRepository extends InMemoryRepository<Bill> implements BillRepository {
+
+    private static final String PATIENT = "patientId";
+    private static final String BILL_TYPE = "billType";
+    private static final String APPOINTMENT = "appointmentId";
+
+    public InMemoryBillRepository() {
+        addIndex(PATIENT, Bill::getPatientId);
+        addIndex(BILL_TYPE, Bill::getBillType);
+        addIndex(APPOINTMENT, Bill::getAppointmentId);
+    }
+
+    @Override
+    public List<Bill> findByPatientId(String patientId) {
+        return copies(filter(PATIENT, patientId));
+    }
+
+    @Override
+    public List<Bill> findByBillType(String billType) {
+        return copies(filter(BILL_TYPE, billType));
+    }
+
+    @Override
+    public List<Bill> findByAppointmentId(String appointmentId) {
+        return copies(filter(APPOINTMENT, appointmentId));
+    }
+}
@@ -0,0 +1,56 @@
+package com.airtribe.meditrack.repository.inmemory;
+
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.repository.DoctorRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * DoctorRepository backed by DataStore, active with the "inmemory" profile.
+ */
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryDoctorRepository extends InMemoryRepository<Doctor> implements DoctorRepository {
+
+    private static final String SPECIALIZATION = "specialization";
+    private static final String FEE = "consultationFee";
+    private static final String EXPERIENCE = "yearsOfExperience";
+
+    public InMemoryDoctorRepository() {
+        addIndex(SPECIALIZATION, Doctor::getSpecialization);
+        addSortedIndex(FEE, Doctor::getConsultationFee);
+        addSortedIndex(EXPERIENCE, Doctor::getYearsOfExperience);
+    }
+
+    @Override
+    public List<Doctor> findBySpecialization(Specialization specialization) {
+        return copies(filter(SPECIALIZATION, specialization));
+    }
+
+    @Override
+    public List<Doctor> findByNameContainingIgnoreCase(String name) {
+        String needle = name.toLowerCase(Locale.ROOT);
+        return copies(filter(d -> d.getName() != null && d.getName().toLowerCase(Locale.ROOT).contains(needle)));
+    }
+
+    @Override
+    public List<Doctor> findByConsultationFeeLessThanEqual(double maxFee) {
+        return copies(range(FEE, Double.NEGATIVE_INFINITY, maxFee));
+    }
+
+    @Override
+    public List<Doctor> findByYearsOfExperienceGreaterThanEqual(int minYears) {
+        return copies(range(EXPERIENCE, minYears, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<Doctor> findAllByOrderByConsultationFeeAsc() {
+        return copies(range(FEE, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+    }
+}
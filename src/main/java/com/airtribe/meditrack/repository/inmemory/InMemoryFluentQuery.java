@@ -0,0 +1,222 @@
+package com.airtribe.meditrack.repository.inmemory;
+
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * The fluent query API of {@code findBy(Example, ...)} over matches that are already in memory.
+ * Demonstrates: immutable builder, offset and keyset scrolling, interface projections.
+ *
+ * Projections through {@link #project} are a fetch hint and are ignored, since every property is
+ * in memory anyway. Scrolling always orders by id last, as the JPA implementation does, so keyset
+ * positions are unique.
+ *
+ * @param <S> the entity type being matched
+ * @param <R> the result type
+ */
+final class InMemoryFluentQuery<S, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final Supplier<List<S>> matches;
+    private final Class<?> domainType;
+    private final Sort sort;
+    private final int limit;
+    private final Function<S, R> mapper;
+
+    @SuppressWarnings("unchecked")
+    InMemoryFluentQuery(Supplier<List<S>> matches, Class<S> domainType) {
+        this(matches, domainType, Sort.unsorted(), 0, s -> (R) s);
+    }
+
+    private InMemoryFluentQuery(Supplier<List<S>> matches, Class<?> domainType, Sort sort, int limit,
+                                Function<S, R> mapper) {
+        this.matches = matches;
+        this.domainType = domainType;
+        this.sort = sort;
+        this.limit = limit;
+        this.mapper = mapper;
+    }
+
+    // --- Builder ---
+
+    @Override
+    public FetchableFluentQuery<R> sortBy(Sort sort) {
+        return new InMemoryFluentQuery<>(matches, domainType, this.sort.and(sort), limit, mapper);
+    }
+
+    @Override
+    public FetchableFluentQuery<R> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        return new InMemoryFluentQuery<>(matches, domainType, sort, limit, mapper);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> FetchableFluentQuery<X> as(Class<X> resultType) {
+        Function<S, X> projection;
+        if (resultType.isAssignableFrom(domainType)) {
+            projection = s -> (X) s;
+        } else if (resultType.isInterface()) {
+            projection = s -> PROJECTIONS.createProjection(resultType, s);
+        } else {
+            throw new IllegalArgumentException("In-memory queries support the entity type and interface projections, not "
+                    + resultType.getName());
+        }
+        return new InMemoryFluentQuery<>(matches, domainType, sort, limit, projection);
+    }
+
+    @Override
+    public FetchableFluentQuery<R> project(Collection<String> properties) {
+        return this;
+    }
+
+    // --- Terminal operations ---
+
+    @Override
+    public R oneValue() {
+        List<S> found = sorted(sort);
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, found.size());
+        }
+        return found.isEmpty() ? null : mapper.apply(found.get(0));
+    }
+
+    @Override
+    public R firstValue() {
+        List<S> found = sorted(sort);
+        return found.isEmpty() ? null : mapper.apply(found.get(0));
+    }
+
+    @Override
+    public List<R> all() {
+        List<S> found = sorted(sort);
+        return map(limit > 0 && found.size() > limit ? found.subList(0, limit) : found);
+    }
+
+    @Override
+    public Page<R> page(Pageable pageable) {
+        List<S> found = sorted(pageable.getSort().isSorted() ? pageable.getSort() : sort);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(map(found));
+        }
+        int from = (int) Math.min(pageable.getOffset(), found.size());
+        int to = Math.min(from + pageable.getPageSize(), found.size());
+        return new PageImpl<>(map(found.subList(from, to)), pageable, found.size());
+    }
+
+    @Override
+    public Window<R> scroll(ScrollPosition position) {
+        Sort order = sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+        List<S> found = sorted(order);
+        int size = limit > 0 ? limit : Integer.MAX_VALUE;
+
+        if (position instanceof OffsetScrollPosition offset) {
+            int from = offset.isInitial() ? 0 : (int) Math.min(offset.getOffset() + 1, found.size());
+            int to = (int) Math.min((long) from + size, found.size());
+            return Window.from(map(found.subList(from, to)), OffsetScrollPosition.positionFunction(from),
+                    to < found.size());
+        }
+
+        KeysetScrollPosition keyset = (KeysetScrollPosition) position;
+        List<S> candidates = new ArrayList<>();
+        for (S s : found) {
+            int cmp = keyset.isInitial() ? 1 : compareToKeys(s, keyset.getKeys(), order);
+            if (keyset.scrollsForward() ? cmp > 0 : cmp < 0) {
+                candidates.add(s);
+            }
+        }
+        List<S> window;
+        if (candidates.size() <= size) {
+            window = candidates;
+        } else if (keyset.scrollsForward()) {
+            window = candidates.subList(0, size);
+        } else {
+            window = candidates.subList(candidates.size() - size, candidates.size());
+        }
+        List<S> content = new ArrayList<>(window);
+        return Window.from(map(content),
+                i -> ScrollPosition.of(keysOf(content.get(i), order), keyset.getDirection()),
+                candidates.size() > size);
+    }
+
+    @Override
+    public Stream<R> stream() {
+        return all().stream();
+    }
+
+    @Override
+    public long count() {
+        return matches.get().size();
+    }
+
+    @Override
+    public boolean exists() {
+        return !matches.get().isEmpty();
+    }
+
+    // --- Helpers ---
+
+    private List<S> sorted(Sort order) {
+        List<S> found = new ArrayList<>(matches.get());
+        if (order.isSorted()) {
+            found.sort(InMemoryRepository.comparator(order));
+        }
+        return found;
+    }
+
+    private List<R> map(List<S> found) {
+        List<R> result = new ArrayList<>(found.size());
+        found.forEach(s -> result.add(mapper.apply(s)));
+        return result;
+    }
+
+    private static Map<String, Object> keysOf(Object entity, Sort order) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(entity);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order o : order) {
+            keys.put(o.getProperty(), wrapper.getPropertyValue(o.getProperty()));
+        }
+        return keys;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareToKeys(Object entity, Map<String, Object> keys, Sort order) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(entity);
+        for (Sort.Order o : order) {
+            if (!keys.containsKey(o.getProperty())) {
+                throw new IllegalArgumentException("Keyset position has no value for sort property " + o.getProperty());
+            }
+            Comparable value = (Comparable) wrapper.getPropertyValue(o.getProperty());
+            Comparable key = (Comparable) keys.get(o.getProperty());
+            int cmp = value == null || key == null
+                    ? Boolean.compare(value == null, key == null)
+                    : value.compareTo(key);
+            if (cmp != 0) {
+                return o.isDescending() ? -cmp : cmp;
+            }
+        }
+        return 0;
+    }
+}
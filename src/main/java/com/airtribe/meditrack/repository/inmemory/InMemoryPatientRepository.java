@@ -0,0 +1,68 @@
+package com.airtribe.meditrack.repository.inmemory;
+
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.PatientSummary;
+import com.airtribe.meditrack.repository.PatientRepository;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PatientRepository backed by DataStore, active with the "inmemory" profile.
+ * Summary projections are built from the stored patients.
+ */
+@Repository
+@Primary
+@Profile("inmemory")
+public class InMemoryPatientRepository extends InMemoryRepository<Patient> implements PatientRepository {
+
+    private static final String BLOOD_GROUP = "bloodGroup";
+    private static final String AGE = "age";
+
+    public InMemoryPatientRepository() {
+        addIndex(BLOOD_GROUP, Patient::getBloodGroup);
+        addIndex(AGE, Patient::getAge);
+    }
+
+    @Override
+    public List<Patient> findByBloodGroup(String bloodGroup) {
+        return copies(filter(BLOOD_GROUP, bloodGroup));
+    }
+
+    @Override
+    public List<PatientSummary> findAllSummaries() {
+        return summaries(after(ID, "", Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<PatientSummary> findSummariesByName(String name) {
+        String needle = name.toLowerCase(Locale.ROOT);
+        return summaries(after(ID, "", Integer.MAX_VALUE).stream()
+                .filter(p -> p.getName() != null && p.getName().toLowerCase(Locale.ROOT).contains(needle))
+                .toList());
+    }
+
+    @Override
+    public List<PatientSummary> findSummariesByAge(int age) {
+        List<Patient> patients = new ArrayList<>(filter(AGE, age));
+        patients.sort((a, b) -> a.getId().compareTo(b.getId()));
+        return summaries(patients);
+    }
+
+    @Override
+    public List<PatientSummary> findSummariesByIds(Collection<String> ids) {
+        return summaries(findAllById(ids));
+    }
+
+    private static List<PatientSummary> summaries(List<Patient> patients) {
+        return patients.stream()
+                .map(p -> new PatientSummary(p.getId(), p.getName(), p.getAge(), p.getGender(),
+                        p.getPhone(), p.getEmail(), p.getBloodGroup()))
+                .toList();
+    }
+}
@@ -0,0 +1,555 @@
+package com.airtribe.meditrack.repository.inmemory;
+
+import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.repository.BatchUpsert;
+import com.airtribe.meditrack.util.DataStore;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * JpaRepository contract implemented over a {@link DataStore} instead of a database.
+ * Demonstrates: programming to the repository interface, generics, DataStore secondary indexes,
+ * transaction-scoped write buffering.
+ *
+ * Every store gets a sorted "id" index for the keyset pagination and streaming finders;
+ * subclasses register the indexes their derived finders need through {@link #addIndex} and
+ * {@link #addSortedIndex}, and read through the finder helpers below rather than the store.
+ *
+ * Behaves like a database table behind JPA. Inside a transaction, writes are buffered and reach
+ * the store in one {@link DataStore#apply} when it commits, so a rollback leaves nothing behind
+ * and other readers never see half a transaction. Every finder overlays the transaction's own
+ * buffered writes on the committed data, so a transaction reads its own writes. Entities are
+ * copied on the way in and out, so changing a returned entity without save() is never stored,
+ * just as with a detached JPA entity.
+ *
+ * @param <T> the entity type
+ */
+public abstract class InMemoryRepository<T extends MedicalEntity> implements JpaRepository<T, String>, BatchUpsert<T> {
+
+    protected static final String ID = "id";
+    protected static final String UPDATED_AT = "updatedAt";
+
+    protected final DataStore<T> store = new DataStore<>();
+
+    // Index name -> key function, to match the transaction's own writes against index queries
+    private final Map<String, Function<? super T, ?>> keyFunctions = new HashMap<>();
+
+    protected InMemoryRepository() {
+        addSortedIndex(ID, MedicalEntity::getId);
+        addSortedIndex(UPDATED_AT, MedicalEntity::getUpdatedAt);
+    }
+
+    protected void addIndex(String name, Function<? super T, ?> keyFunction) {
+        store.addIndex(name, keyFunction);
+        keyFunctions.put(name, keyFunction);
+    }
+
+    protected <K extends Comparable<? super K>> void addSortedIndex(String name, Function<? super T, K> keyFunction) {
+        store.addSortedIndex(name, keyFunction);
+        keyFunctions.put(name, keyFunction);
+    }
+
+    // --- Keyset pagination and streaming, ordered by ID ---
+
+    public List<T> findByIdGreaterThanOrderByIdAsc(String after, Limit limit) {
+        return copies(after(ID, after, limit.isLimited() ? limit.max() : Integer.MAX_VALUE));
+    }
+
+    public Stream<T> streamByIdGreaterThanOrderByIdAsc(String after) {
+        return after(ID, after, Integer.MAX_VALUE).stream().map(this::copy);
+    }
+
+    // --- Delta export, ordered by updatedAt ---
+
+    public Stream<T> streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(LocalDateTime after, LocalDateTime upTo) {
+        return range(UPDATED_AT, after, upTo).stream()
+                .filter(e -> e.getUpdatedAt().isAfter(after))
+                .map(this::copy);
+    }
+
+    // --- CrudRepository ---
+
+    @Override
+    public <S extends T> S save(S entity) {
+        // No flush to detect changes, so every re-save counts as an update
+        if (entity.getId() != null && existsById(entity.getId())) {
+            entity.markUpdated();
+        }
+        write(entity.getId(), copy(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        List<T> stored = new ArrayList<>();
+        entities.forEach(entity -> {
+            if (entity.getId() != null && existsById(entity.getId())) {
+                entity.markUpdated();
+            }
+            saved.add(entity);
+            stored.add(copy(entity));
+        });
+        PendingWrites pending = pending(true);
+        if (pending == null) {
+            store.addAll(stored);
+        } else {
+            stored.forEach(e -> pending.writes.put(e.getId(), e));
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        PendingWrites pending = pending(false);
+        if (pending != null && (pending.cleared || pending.writes.containsKey(id))) {
+            return Optional.ofNullable(pending.writes.get(id)).map(this::copy);
+        }
+        return store.getById(id).map(this::copy);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        PendingWrites pending = pending(false);
+        if (pending != null && (pending.cleared || pending.writes.containsKey(id))) {
+            return pending.writes.get(id) != null;
+        }
+        return store.exists(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return copies(overlay(store.getAll(), e -> true, null));
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        PendingWrites pending = pending(false);
+        if (pending == null) {
+            return store.size();
+        }
+        long count = pending.cleared ? 0 : store.size();
+        for (Map.Entry<String, T> write : pending.writes.entrySet()) {
+            boolean committed = !pending.cleared && store.exists(write.getKey());
+            if (write.getValue() == null && committed) {
+                count--;
+            } else if (write.getValue() != null && !committed) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        write(id, null);
+    }
+
+    @Override
+    public void delete(T entity) {
+        write(entity.getId(), null);
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        PendingWrites pending = pending(true);
+        if (pending == null) {
+            store.clear();
+            return;
+        }
+        pending.cleared = true;
+        pending.writes.clear();
+    }
+
+    // --- Paging and sorting ---
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        if (!sort.isSorted()) {
+            return findAll();
+        }
+        Comparator<T> comparator = comparator(sort);
+        return copies(overlay(store.getAllSorted(comparator), e -> true, comparator));
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> all = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(new ArrayList<>(all.subList(from, to)), pageable, all.size());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<T> next = Comparator.comparing(
+                    e -> (Comparable) new BeanWrapperImpl(e).getPropertyValue(order.getProperty()),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = result == null ? next : result.thenComparing(next);
+        }
+        return result;
+    }
+
+    // --- JpaRepository ---
+
+    @Override
+    public void flush() {
+        // Buffered writes are applied at commit; there is no earlier point to push them to
+    }
+
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public void upsertAll(Collection<T> entities) {
+        // The store replaces by id either way; only the timestamps need keeping
+        MedicalEntity.keepingTimestamps(() -> saveAll(entities));
+    }
+
+    @Override
+    public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<String> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public T getOne(String id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public T getById(String id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public T getReferenceById(String id) {
+        return findById(id).orElseThrow(() ->
+                new EntityNotFoundException("No entity with id " + id));
+    }
+
+    // --- Query by example (see ExamplePredicate) ---
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> found = matching(example);
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, found.size());
+        }
+        return found.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return matching(example);
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return findBy(example, query -> query.sortBy(sort).all());
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return findBy(example, query -> query.page(pageable));
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return filter(new ExamplePredicate<>(example)).size();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return count(example) > 0;
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new InMemoryFluentQuery<S, S>(() -> matching(example), example.getProbeType()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends T> List<S> matching(Example<S> example) {
+        return (List<S>) copies(filter(new ExamplePredicate<>(example)));
+    }
+
+    // --- Transaction buffering ---
+
+    /**
+     * One transaction's writes, keyed by id; a null value is a delete. Applied to the store on
+     * commit, dropped on rollback.
+     */
+    private final class PendingWrites implements TransactionSynchronization {
+
+        private final Map<String, T> writes = new LinkedHashMap<>();
+        private boolean cleared;
+
+        @Override
+        public void afterCommit() {
+            List<String> removals = new ArrayList<>();
+            List<T> upserts = new ArrayList<>();
+            writes.forEach((id, entity) -> {
+                if (entity == null) {
+                    removals.add(id);
+                } else {
+                    upserts.add(entity);
+                }
+            });
+            store.apply(cleared, removals, upserts);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryRepository.this);
+        }
+    }
+
+    /**
+     * The current transaction's buffer, created on first write; null outside a transaction,
+     * where writes go straight to the store.
+     */
+    @SuppressWarnings("unchecked")
+    private PendingWrites pending(boolean create) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingWrites pending = (PendingWrites) TransactionSynchronizationManager.getResource(this);
+        if (pending == null && create) {
+            pending = new PendingWrites();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void write(String id, T entity) {
+        PendingWrites pending = pending(true);
+        if (pending != null) {
+            pending.writes.put(id, entity);
+        } else if (entity != null) {
+            store.add(entity);
+        } else {
+            store.remove(id);
+        }
+    }
+
+    // --- Finders over committed data plus the transaction's own writes ---
+
+    protected List<T> filter(Predicate<? super T> predicate) {
+        return overlay(store.filter(predicate::test), predicate, null);
+    }
+
+    /**
+     * Entities whose index key equals {@code key}, in insertion order.
+     */
+    protected List<T> filter(String indexName, Object key) {
+        Function<? super T, ?> keyFunction = keyFunctions.get(indexName);
+        return overlay(store.filter(indexName, key), e -> key != null && key.equals(keyFunction.apply(e)), null);
+    }
+
+    /**
+     * Entities whose sorted-index key lies in [{@code from}, {@code to}], ordered by key.
+     */
+    protected <K extends Comparable<? super K>> List<T> range(String indexName, K from, K to) {
+        Function<? super T, K> key = sortKey(indexName);
+        return overlay(store.range(indexName, from, to), e -> {
+            K k = key.apply(e);
+            return k != null && k.compareTo(from) >= 0 && k.compareTo(to) <= 0;
+        }, Comparator.comparing(key));
+    }
+
+    /**
+     * At most {@code limit} entities whose sorted-index key is greater than {@code after}, ordered by key.
+     */
+    protected <K extends Comparable<? super K>> List<T> after(String indexName, K after, int limit) {
+        Function<? super T, K> key = sortKey(indexName);
+        PendingWrites pending = pending(false);
+        if (pending == null) {
+            return store.after(indexName, after, limit);
+        }
+        // Each buffered write hides at most one committed row, so fetch that many extra
+        int fetch = (int) Math.min(Integer.MAX_VALUE, (long) limit + pending.writes.size());
+        List<T> result = overlay(store.after(indexName, after, fetch), e -> {
+            K k = key.apply(e);
+            return k != null && k.compareTo(after) > 0;
+        }, Comparator.comparing(key));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K extends Comparable<? super K>> Function<? super T, K> sortKey(String indexName) {
+        return (Function<? super T, K>) keyFunctions.get(indexName);
+    }
+
+    /**
+     * The committed rows as the current transaction sees them: rows it deleted or changed are
+     * dropped, and its own writes that match are put back, in place of the committed version
+     * or, with an {@code order}, wherever they sort. Outside a transaction or before its first
+     * write the committed rows are returned as they are.
+     */
+    private List<T> overlay(List<T> committed, Predicate<? super T> matches, Comparator<? super T> order) {
+        PendingWrites pending = pending(false);
+        if (pending == null) {
+            return committed;
+        }
+        Map<String, T> own = new LinkedHashMap<>();
+        pending.writes.forEach((id, entity) -> {
+            if (entity != null && matches.test(entity)) {
+                own.put(id, entity);
+            }
+        });
+        List<T> result = new ArrayList<>(committed.size() + own.size());
+        if (!pending.cleared) {
+            for (T entity : committed) {
+                if (!pending.writes.containsKey(entity.getId())) {
+                    result.add(entity);
+                } else if (order == null && own.containsKey(entity.getId())) {
+                    result.add(own.remove(entity.getId()));   // an update keeps its position
+                }
+            }
+        }
+        result.addAll(own.values());
+        if (order != null) {
+            result.sort(order);
+        }
+        return result;
+    }
+
+    // --- Copies ---
+
+    // Constructor and copyable fields per entity class, looked up once instead of on every read
+    private static final ClassValue<Copier> COPIERS = new ClassValue<>() {
+        @Override
+        protected Copier computeValue(Class<?> type) {
+            return new Copier(type);
+        }
+    };
+
+    /**
+     * Field-by-field copy with fresh lists, so callers and the store never share state.
+     */
+    @SuppressWarnings("unchecked")
+    protected T copy(T source) {
+        return (T) COPIERS.get(source.getClass()).copy(source);
+    }
+
+    protected List<T> copies(List<T> entities) {
+        List<T> result = new ArrayList<>(entities.size());
+        entities.forEach(e -> result.add(copy(e)));
+        return result;
+    }
+
+    /**
+     * Copies instances of one class: the no-arg constructor and every non-static, non-final
+     * field up the hierarchy, with List fields copied into a new ArrayList.
+     */
+    private static final class Copier {
+
+        private final Constructor<?> constructor;
+        private final Field[] fields;
+        private final boolean[] lists;
+
+        private Copier(Class<?> type) {
+            try {
+                constructor = ReflectionUtils.accessibleConstructor(type);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("No default constructor on " + type.getName(), e);
+            }
+            List<Field> found = new ArrayList<>();
+            ReflectionUtils.doWithFields(type, field -> {
+                ReflectionUtils.makeAccessible(field);
+                found.add(field);
+            }, ReflectionUtils.COPYABLE_FIELDS);
+            fields = found.toArray(new Field[0]);
+            lists = new boolean[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                lists[i] = List.class.isAssignableFrom(fields[i].getType());
+            }
+        }
+
+        private Object copy(Object source) {
+            try {
+                Object copy = constructor.newInstance();
+                for (int i = 0; i < fields.length; i++) {
+                    Object value = fields[i].get(source);
+                    fields[i].set(copy, lists[i] && value != null ? new ArrayList<>((List<?>) value) : value);
+                }
+                return copy;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot copy " + source.getClass().getName(), e);
+            }
+        }
+    }
+}
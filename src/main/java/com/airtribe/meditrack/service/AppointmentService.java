@@ -2,25 +2,42 @@ package com.airtribe.meditrack.service;
 
 import com.airtribe.meditrack.entity.Appointment;
 import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.BatchBookingResult;
+import com.airtribe.meditrack.entity.BookingRequest;
 import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.KeysetPage;
 import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.exception.AppointmentConflictException;
 import com.airtribe.meditrack.exception.AppointmentNotFoundException;
 import com.airtribe.meditrack.exception.InvalidDataException;
+import com.airtribe.meditrack.observer.AppointmentAnalyticsRegistry;
+import com.airtribe.meditrack.observer.AppointmentEvent;
+import com.airtribe.meditrack.observer.AppointmentEventBus;
 import com.airtribe.meditrack.observer.AppointmentObserver;
+import com.airtribe.meditrack.observer.OutboxPublisher;
 import com.airtribe.meditrack.repository.AppointmentRepository;
 import com.airtribe.meditrack.util.IdGenerator;
+import com.airtribe.meditrack.util.Validator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * Service for managing appointments.
- * Demonstrates: Observer pattern (notifies observers on changes),
+ * Demonstrates: Observer pattern (changes are recorded in the transactional outbox and
+ * relayed to observers asynchronously after commit),
  * JPA repository, enum usage, streams & lambdas, exception handling.
  */
 @Service
@@ -30,55 +47,194 @@ public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final DoctorService doctorService;
     private final PatientService patientService;
-    private final List<AppointmentObserver> observers;
+    private final AppointmentEventBus eventBus;
+    private final OutboxPublisher outboxPublisher;
+    private final AppointmentAnalyticsRegistry analyticsRegistry;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final DoctorLoadTable loadTable;
+    private final DoctorRecommendationIndex recommendationIndex;
+    private final EntityStreamer entityStreamer;
+    private final WriteAheadJournal journal;
 
     public AppointmentService(AppointmentRepository appointmentRepository,
                               DoctorService doctorService, PatientService patientService,
-                              List<AppointmentObserver> observers) {
+                              AppointmentEventBus eventBus, OutboxPublisher outboxPublisher,
+                              AppointmentAnalyticsRegistry analyticsRegistry,
+                              DoctorScheduleIndex scheduleIndex, DoctorLoadTable loadTable,
+                              DoctorRecommendationIndex recommendationIndex,
+                              EntityStreamer entityStreamer, WriteAheadJournal journal) {
         this.appointmentRepository = appointmentRepository;
         this.doctorService = doctorService;
         this.patientService = patientService;
-        this.observers = observers != null ? observers : new ArrayList<>();
+        this.eventBus = eventBus;
+        this.outboxPublisher = outboxPublisher;
+        this.analyticsRegistry = analyticsRegistry;
+        this.scheduleIndex = scheduleIndex;
+        this.loadTable = loadTable;
+        this.recommendationIndex = recommendationIndex;
+        this.entityStreamer = entityStreamer;
+        this.journal = journal;
     }
 
-    // --- Observer management ---
+    // --- In-memory indexes ---
+
+    /**
+     * Rebuild in-memory indexes from the database. Runs once at startup and after
+     * bulk loads that bypass the observer hooks.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndexes() {
+        List<Appointment> all = appointmentRepository.findAll();
+        analyticsRegistry.rebuild(all);
+        scheduleIndex.rebuild(all);
+        loadTable.rebuild(all);
+        recommendationIndex.refreshAllLoads();
+    }
+
+    /**
+     * Reserve the doctor's slot now and give it back if the surrounding transaction rolls back.
+     * A refresh may have seen the reservation meanwhile, so the load table hears about the release.
+     */
+    private void reserveSlot(Appointment appointment) {
+        scheduleIndex.reserve(appointment.getDoctorId(), appointment.getId(),
+                appointment.getAppointmentDateTime());
+        TransactionHooks.afterRollback(() -> {
+            scheduleIndex.release(appointment.getDoctorId(), appointment.getId(), appointment.getAppointmentDateTime());
+            loadTable.scheduleChanged(appointment.getDoctorId(), appointment.getAppointmentDateTime());
+        });
+    }
+
+    /**
+     * Free the doctor's slot once the surrounding transaction has committed.
+     */
+    private void releaseSlot(Appointment appointment) {
+        TransactionHooks.afterCompletion(true, () -> scheduleIndex.release(appointment.getDoctorId(),
+                appointment.getId(), appointment.getAppointmentDateTime()));
+    }
+
+    /**
+     * Once committed, record the appointments' new state in the load table and re-rank their doctors.
+     * Registered after reserveSlot/releaseSlot, so the free-slot lookup already sees the change.
+     */
+    private void trackLoad(List<Appointment> appointments) {
+        TransactionHooks.afterCompletion(true, () -> {
+            appointments.forEach(loadTable::track);
+            appointments.stream().map(Appointment::getDoctorId).distinct()
+                    .forEach(recommendationIndex::refreshLoad);
+        });
+    }
+
+    // --- Observer management (delivered asynchronously after commit by the event bus) ---
 
     public void addObserver(AppointmentObserver observer) {
-        observers.add(observer);
+        eventBus.subscribe(observer);
     }
 
     private void notifyCreated(Appointment appointment) {
-        observers.forEach(o -> o.onAppointmentCreated(appointment));
+        outboxPublisher.record(AppointmentEvent.Type.CREATED, List.of(appointment));
+    }
+
+    private void notifyCreated(List<Appointment> appointments) {
+        outboxPublisher.record(AppointmentEvent.Type.BULK_CREATED, appointments);
     }
 
     private void notifyCancelled(Appointment appointment) {
-        observers.forEach(o -> o.onAppointmentCancelled(appointment));
+        outboxPublisher.record(AppointmentEvent.Type.CANCELLED, List.of(appointment));
     }
 
     private void notifyStatusChanged(Appointment appointment) {
-        observers.forEach(o -> o.onAppointmentStatusChanged(appointment));
+        outboxPublisher.record(AppointmentEvent.Type.STATUS_CHANGED, List.of(appointment));
     }
 
     // --- CRUD ---
 
     public Appointment createAppointment(String doctorId, String patientId,
                                          LocalDateTime dateTime, String notes) {
+        Validator.validateNotNull(dateTime, "dateTime");
         Doctor doctor = doctorService.getDoctorById(doctorId)
                 .orElseThrow(() -> new InvalidDataException("doctorId", "Doctor not found: " + doctorId));
         Patient patient = patientService.getPatientById(patientId)
                 .orElseThrow(() -> new InvalidDataException("patientId", "Patient not found: " + patientId));
 
+        Appointment appointment = newConfirmedAppointment(doctor, patient, dateTime, notes);
+        reserveSlot(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        journal.recordUpsert(saved);
+        trackLoad(List.of(saved));
+
+        notifyCreated(saved);
+        return saved;
+    }
+
+    /**
+     * Book many appointments in one transaction. Doctors and patients are resolved with a single
+     * findAllById each, rows are inserted with JDBC batching, and observers are notified once.
+     * Rows with an unknown doctor/patient, a bad date or a slot conflict are reported, not fatal.
+     */
+    public BatchBookingResult createAppointments(List<BookingRequest> requests) {
+        Map<String, Doctor> doctors = doctorService.getDoctorsByIds(requests.stream()
+                .filter(Objects::nonNull).map(BookingRequest::doctorId)
+                .filter(Objects::nonNull).collect(Collectors.toSet()));
+        Map<String, Patient> patients = patientService.getPatientsByIds(requests.stream()
+                .filter(Objects::nonNull).map(BookingRequest::patientId)
+                .filter(Objects::nonNull).collect(Collectors.toSet()));
+
+        List<Appointment> created = new ArrayList<>();
+        List<BatchBookingResult.Failure> failures = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            if (request == null) {
+                failures.add(new BatchBookingResult.Failure(i, null, null, null, "Empty booking row"));
+                continue;
+            }
+            try {
+                Doctor doctor = doctors.get(request.doctorId());
+                if (doctor == null) {
+                    throw new InvalidDataException("doctorId", "Doctor not found: " + request.doctorId());
+                }
+                Patient patient = patients.get(request.patientId());
+                if (patient == null) {
+                    throw new InvalidDataException("patientId", "Patient not found: " + request.patientId());
+                }
+                Appointment appointment = newConfirmedAppointment(doctor, patient,
+                        parseDateTime(request.dateTime()), request.notes() != null ? request.notes() : "");
+                reserveSlot(appointment);
+                created.add(appointment);
+            } catch (InvalidDataException | AppointmentConflictException e) {
+                failures.add(new BatchBookingResult.Failure(i, request.doctorId(), request.patientId(),
+                        request.dateTime(), e.getMessage()));
+            }
+        }
+
+        appointmentRepository.persistAll(created);
+        journal.recordUpserts(created);
+        if (!created.isEmpty()) {
+            trackLoad(created);
+            notifyCreated(created);
+        }
+        return new BatchBookingResult(created, failures);
+    }
+
+    private Appointment newConfirmedAppointment(Doctor doctor, Patient patient,
+                                                LocalDateTime dateTime, String notes) {
         Appointment appointment = new Appointment(
                 IdGenerator.getInstance().nextAppointmentId(),
-                doctorId, patientId,
+                doctor.getId(), patient.getId(),
                 doctor.getName(), patient.getName(),
                 dateTime, notes
         );
         appointment.setStatus(AppointmentStatus.CONFIRMED);
-        Appointment saved = appointmentRepository.save(appointment);
+        return appointment;
+    }
 
-        notifyCreated(saved);
-        return saved;
+    private static LocalDateTime parseDateTime(String dateTime) {
+        Validator.validateNotEmpty(dateTime, "dateTime");
+        try {
+            return LocalDateTime.parse(dateTime.trim());
+        } catch (DateTimeParseException e) {
+            throw new InvalidDataException("dateTime", "Invalid dateTime: " + dateTime, e);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -92,10 +248,33 @@ public class AppointmentService {
         return appointmentRepository.findAll();
     }
 
+    /**
+     * Page of appointments with an ID greater than {@code after}, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Appointment> getAppointmentsPage(String after, int limit) {
+        Validator.validatePageSize(limit);
+        List<Appointment> rows = appointmentRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after : "", Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Appointment::getId);
+    }
+
+    /**
+     * Hand every appointment with an ID greater than {@code after} to {@code action}, in ID order,
+     * without materialising the full list.
+     */
+    @Transactional(readOnly = true)
+    public void streamAppointments(String after, Consumer<? super Appointment> action) {
+        entityStreamer.forEach(appointmentRepository.streamByIdGreaterThanOrderByIdAsc(after != null ? after : ""), action);
+    }
+
     public Appointment cancelAppointment(String id) {
         Appointment appointment = getAppointmentById(id);
         appointment.setStatus(AppointmentStatus.CANCELLED);
+        releaseSlot(appointment);
         Appointment saved = appointmentRepository.save(appointment);
+        journal.recordUpsert(saved);
+        trackLoad(List.of(saved));
 
         notifyCancelled(saved);
         return saved;
@@ -103,8 +282,17 @@ public class AppointmentService {
 
     public Appointment updateStatus(String id, AppointmentStatus status) {
         Appointment appointment = getAppointmentById(id);
+        boolean wasBooked = DoctorScheduleIndex.occupiesSlot(appointment);
         appointment.setStatus(status);
+        boolean isBooked = DoctorScheduleIndex.occupiesSlot(appointment);
+        if (isBooked && !wasBooked) {
+            reserveSlot(appointment);
+        } else if (wasBooked && !isBooked) {
+            releaseSlot(appointment);
+        }
         Appointment saved = appointmentRepository.save(appointment);
+        journal.recordUpsert(saved);
+        trackLoad(List.of(saved));
 
         notifyStatusChanged(saved);
         return saved;
@@ -134,24 +322,22 @@ public class AppointmentService {
                         LocalDateTime.now(), AppointmentStatus.CANCELLED);
     }
 
-    // --- Analytics using streams ---
+    // --- Analytics (served from incrementally maintained counters) ---
 
     /**
      * Count appointments per doctor.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<String, Long> getAppointmentsCountPerDoctor() {
-        return appointmentRepository.findAll().stream()
-                .collect(Collectors.groupingBy(Appointment::getDoctorName, Collectors.counting()));
+        return analyticsRegistry.getCountPerDoctor();
     }
 
     /**
      * Count appointments per status.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<AppointmentStatus, Long> getAppointmentsCountPerStatus() {
-        return appointmentRepository.findAll().stream()
-                .collect(Collectors.groupingBy(Appointment::getStatus, Collectors.counting()));
+        return analyticsRegistry.getCountPerStatus();
     }
 
     public AppointmentRepository getRepository() {
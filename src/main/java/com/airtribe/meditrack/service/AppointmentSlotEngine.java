@@ -0,0 +1,128 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.constants.Constants;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.FreeSlot;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.exception.InvalidDataException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Free-slot search over the per-day occupancy bitmaps kept by DoctorScheduleIndex.
+ * Demonstrates: bit manipulation (word-level AND/shift over a working day), overloaded search methods.
+ *
+ * A day is one {@code long}, bit i = i-th SLOT_MINUTES slot after WORKDAY_START_HOUR. A slot can
+ * start at bit i when the next APPOINTMENT_DURATION_MINUTES worth of bits are all free, which is
+ * computed for the whole day at once as {@code free & free>>>1 & ...}.
+ */
+@Component
+public class AppointmentSlotEngine {
+
+    private static final int SLOTS_PER_BOOKING =
+            (Constants.APPOINTMENT_DURATION_MINUTES + Constants.SLOT_MINUTES - 1) / Constants.SLOT_MINUTES;
+
+    private final DoctorScheduleIndex scheduleIndex;
+    private final DoctorDirectory doctorDirectory;
+
+    public AppointmentSlotEngine(DoctorScheduleIndex scheduleIndex, DoctorDirectory doctorDirectory) {
+        this.scheduleIndex = scheduleIndex;
+        this.doctorDirectory = doctorDirectory;
+    }
+
+    /**
+     * Next {@code count} free slots of one doctor within {@code days} days from {@code from}.
+     */
+    public List<FreeSlot> nextFreeSlots(String doctorId, LocalDateTime from, int count, int days) {
+        Doctor doctor = doctorDirectory.get(doctorId)
+                .orElseThrow(() -> new InvalidDataException("doctorId", "Doctor not found: " + doctorId));
+        return search(List.of(doctor), from, count, days);
+    }
+
+    /**
+     * Next {@code count} free slots across all doctors of a specialization (overloaded),
+     * earliest first; slots at the same time are ordered by doctor ID.
+     */
+    public List<FreeSlot> nextFreeSlots(Specialization specialization, LocalDateTime from, int count, int days) {
+        return search(doctorDirectory.getBySpecialization(specialization), from, count, days);
+    }
+
+    /**
+     * Bitmap of slot positions at which a full appointment fits into the free part of the day.
+     */
+    public static long startMask(long occupied) {
+        long free = DoctorScheduleIndex.WORKDAY_MASK & ~occupied;
+        long starts = free;
+        for (int i = 1; i < SLOTS_PER_BOOKING; i++) {
+            starts &= free >>> i;
+        }
+        return starts;
+    }
+
+    // --- Internal ---
+
+    private List<FreeSlot> search(List<Doctor> doctors, LocalDateTime from, int count, int days) {
+        if (count <= 0) {
+            throw new InvalidDataException("count", "count must be positive");
+        }
+        if (days <= 0 || days > Constants.MAX_SLOT_SEARCH_DAYS) {
+            throw new InvalidDataException("days", "days must be between 1 and " + Constants.MAX_SLOT_SEARCH_DAYS);
+        }
+        List<FreeSlot> result = new ArrayList<>(count);
+        if (doctors.isEmpty()) {
+            return result;
+        }
+
+        LocalDate firstDay = from.toLocalDate();
+        long[][] occupied = new long[doctors.size()][];
+        for (int d = 0; d < doctors.size(); d++) {
+            occupied[d] = scheduleIndex.occupiedMasks(doctors.get(d).getId(), firstDay, days);
+        }
+
+        long[] starts = new long[doctors.size()];
+        for (int day = 0; day < days && result.size() < count; day++) {
+            long notBefore = day == 0 ? notBeforeMask(from.toLocalTime()) : -1L;
+            long union = 0L;
+            for (int d = 0; d < doctors.size(); d++) {
+                starts[d] = startMask(occupied[d][day]) & notBefore;
+                union |= starts[d];
+            }
+            LocalDate date = firstDay.plusDays(day);
+            // Walk set bits in time order; each bit is checked against every doctor with one AND
+            while (union != 0L && result.size() < count) {
+                int slot = Long.numberOfTrailingZeros(union);
+                long bit = 1L << slot;
+                for (int d = 0; d < doctors.size() && result.size() < count; d++) {
+                    if ((starts[d] & bit) != 0L) {
+                        result.add(toFreeSlot(doctors.get(d), date, slot));
+                    }
+                }
+                union &= union - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mask of slot positions starting at or after {@code time} on the same day.
+     */
+    private static long notBeforeMask(LocalTime time) {
+        int minutesIntoDay = time.getHour() * 60 + time.getMinute() + (time.getSecond() > 0 || time.getNano() > 0 ? 1 : 0);
+        int firstSlot = Math.ceilDiv(minutesIntoDay - Constants.WORKDAY_START_HOUR * 60, Constants.SLOT_MINUTES);
+        if (firstSlot <= 0) return -1L;
+        if (firstSlot >= Long.SIZE) return 0L;
+        return -1L << firstSlot;
+    }
+
+    private static FreeSlot toFreeSlot(Doctor doctor, LocalDate date, int slot) {
+        LocalDateTime start = date.atTime(Constants.WORKDAY_START_HOUR, 0)
+                .plusMinutes((long) slot * Constants.SLOT_MINUTES);
+        return new FreeSlot(doctor.getId(), doctor.getName(), start,
+                start.plusMinutes(Constants.APPOINTMENT_DURATION_MINUTES));
+    }
+}
@@ -4,16 +4,22 @@ import com.airtribe.meditrack.entity.Appointment;
 import com.airtribe.meditrack.entity.Bill;
 import com.airtribe.meditrack.entity.BillSummary;
 import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.KeysetPage;
 import com.airtribe.meditrack.entity.Patient;
 import com.airtribe.meditrack.exception.InvalidDataException;
 import com.airtribe.meditrack.factory.BillFactory;
+import com.airtribe.meditrack.observer.AppointmentEvent;
+import com.airtribe.meditrack.observer.OutboxPublisher;
 import com.airtribe.meditrack.repository.BillRepository;
+import com.airtribe.meditrack.util.Validator;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -30,16 +36,25 @@ public class BillingService {
     private final DoctorService doctorService;
     private final PatientService patientService;
     private final Map<String, BillingStrategy> strategyMap;
+    private final OutboxPublisher outboxPublisher;
+    private final EntityStreamer entityStreamer;
+    private final WriteAheadJournal journal;
 
     public BillingService(BillRepository billRepository,
                           AppointmentService appointmentService,
                           DoctorService doctorService,
                           PatientService patientService,
-                          List<BillingStrategy> strategies) {
+                          List<BillingStrategy> strategies,
+                          OutboxPublisher outboxPublisher,
+                          EntityStreamer entityStreamer,
+                          WriteAheadJournal journal) {
         this.billRepository = billRepository;
         this.appointmentService = appointmentService;
         this.doctorService = doctorService;
         this.patientService = patientService;
+        this.outboxPublisher = outboxPublisher;
+        this.entityStreamer = entityStreamer;
+        this.journal = journal;
 
         // Build strategy map from injected strategies — demonstrates dynamic dispatch
         this.strategyMap = strategies.stream()
@@ -67,7 +82,10 @@ public class BillingService {
             strategy.calculate(bill);
         }
 
-        return billRepository.save(bill);
+        Bill saved = billRepository.save(bill);
+        journal.recordUpsert(saved);
+        outboxPublisher.record(AppointmentEvent.Type.BILL_GENERATED, List.of(saved));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -80,6 +98,26 @@ public class BillingService {
         return billRepository.findAll();
     }
 
+    /**
+     * Page of bills with an ID greater than {@code after}, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Bill> getBillsPage(String after, int limit) {
+        Validator.validatePageSize(limit);
+        List<Bill> rows = billRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after : "", Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Bill::getId);
+    }
+
+    /**
+     * Hand every bill with an ID greater than {@code after} to {@code action}, in ID order,
+     * without materialising the full list.
+     */
+    @Transactional(readOnly = true)
+    public void streamBills(String after, Consumer<? super Bill> action) {
+        entityStreamer.forEach(billRepository.streamByIdGreaterThanOrderByIdAsc(after != null ? after : ""), action);
+    }
+
     @Transactional(readOnly = true)
     public List<Bill> getBillsByPatient(String patientId) {
         return billRepository.findByPatientId(patientId);
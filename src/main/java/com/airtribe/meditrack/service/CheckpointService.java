@@ -0,0 +1,305 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
+import com.airtribe.meditrack.repository.AppointmentRepository;
+import com.airtribe.meditrack.repository.BatchUpsert;
+import com.airtribe.meditrack.repository.BillRepository;
+import com.airtribe.meditrack.repository.DoctorRepository;
+import com.airtribe.meditrack.repository.MedicalHistoryRepository;
+import com.airtribe.meditrack.repository.PatientRepository;
+import com.airtribe.meditrack.service.WriteAheadJournal.Entry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Recovers the database from the latest checkpoint snapshot plus the journal tail, and takes
+ * checkpoints so the tail stays short.
+ * Demonstrates: crash recovery by redo replay, checkpointing, log truncation.
+ *
+ * A checkpoint rotates the journal to a new segment N, writes a snapshot, then records
+ * "snapshot + segments from N" in the CHECKPOINT file (replaced atomically) and deletes older
+ * segments. Every record before the rotation committed before the snapshot started, so the
+ * snapshot holds it. Records from N onward may already be in the snapshot too. Replaying an
+ * entity again just upserts it. A history entry already present (same patient, time and text)
+ * is skipped.
+ *
+ * Recovery runs once all beans exist, which is before the web server accepts requests and before
+ * the services build their in-memory indexes on ApplicationReadyEvent.
+ */
+@Service
+public class CheckpointService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointService.class);
+
+    private static final String CHECKPOINT = "CHECKPOINT";
+
+    private final WriteAheadJournal journal;
+    private final SnapshotService snapshotService;
+    private final DoctorRepository doctorRepository;
+    private final PatientRepository patientRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final BillRepository billRepository;
+    private final MedicalHistoryRepository historyRepository;
+    private final EntityBatchWriter batchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchRows;
+    private final long checkpointBytes;
+
+    public CheckpointService(WriteAheadJournal journal, SnapshotService snapshotService,
+                             DoctorRepository doctorRepository, PatientRepository patientRepository,
+                             AppointmentRepository appointmentRepository, BillRepository billRepository,
+                             MedicalHistoryRepository historyRepository, EntityBatchWriter batchWriter,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${meditrack.import.batch-rows:1000}") int batchRows,
+                             @Value("${meditrack.journal.checkpoint-mb:256}") int checkpointMegabytes) {
+        this.journal = journal;
+        this.snapshotService = snapshotService;
+        this.doctorRepository = doctorRepository;
+        this.patientRepository = patientRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.billRepository = billRepository;
+        this.historyRepository = historyRepository;
+        this.batchWriter = batchWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchRows = batchRows;
+        this.checkpointBytes = checkpointMegabytes * 1024L * 1024L;
+    }
+
+    public boolean isEnabled() {
+        return journal.isEnabled();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        try {
+            Map<String, Long> counts = recover();
+            List<Integer> segments = journal.listSegments();
+            journal.start(segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1);
+            log.info("Recovered from {}: {}", journal.getDirectory(), counts);
+        } catch (IOException e) {
+            // Serving requests on top of a partial recovery would lose or fork data
+            throw new UncheckedIOException("Journal recovery from " + journal.getDirectory() + " failed", e);
+        }
+    }
+
+    // ==================== RECOVERY ====================
+
+    /**
+     * Restore the checkpoint snapshot, if any, then replay every later journal segment in order.
+     * Callers other than startup rebuild the in-memory indexes afterwards.
+     */
+    public synchronized Map<String, Long> recover() throws IOException {
+        long started = System.currentTimeMillis();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Properties checkpoint = readCheckpoint();
+        int firstSegment = 0;
+        if (checkpoint != null) {
+            firstSegment = Integer.parseInt(checkpoint.getProperty("firstSegment"));
+            counts.putAll(snapshotService.restore(
+                    journal.getDirectory().resolve(checkpoint.getProperty("snapshot")).toString()));
+        }
+        long records = 0;
+        for (int segment : journal.listSegments()) {
+            if (segment >= firstSegment) {
+                records += replay(segment);
+            }
+        }
+        counts.put("journalRecords", records);
+        log.info("Recovery took {} ms: {}", System.currentTimeMillis() - started, counts);
+        return counts;
+    }
+
+    private long replay(int segment) throws IOException {
+        Replayer replayer = new Replayer();
+        boolean torn = journal.read(segment, replayer::apply);
+        replayer.flush();
+        if (torn) {
+            log.warn("Journal segment {} ends in a torn frame (crash during a write that was never acknowledged); "
+                    + "replayed the {} records before it", segment, replayer.records);
+        }
+        return replayer.records;
+    }
+
+    /**
+     * Applies records in order, batching runs of upserts of the same type.
+     */
+    private final class Replayer {
+
+        private WriteAheadJournal.Type pendingType;
+        private final List<Object> pending = new ArrayList<>();
+        private long records;
+
+        void apply(Entry entry) {
+            records++;
+            if (entry.op() == WriteAheadJournal.Op.UPSERT && entry.type() == pendingType && pending.size() < batchRows) {
+                pending.add(entry.value());
+                return;
+            }
+            flush();
+            if (entry.op() == WriteAheadJournal.Op.DELETE) {
+                delete(entry.type(), (String) entry.value());
+            } else {
+                pendingType = entry.type();
+                pending.add(entry.value());
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            switch (pendingType) {
+                case DOCTOR -> upsert(doctorRepository);
+                case PATIENT -> upsert(patientRepository);
+                case APPOINTMENT -> upsert(appointmentRepository);
+                case BILL -> upsert(billRepository);
+                case HISTORY -> appendHistory();
+            }
+            pending.clear();
+            pendingType = null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T extends MedicalEntity> void upsert(BatchUpsert<T> repository) {
+            batchWriter.upsert((List<T>) (List<?>) pending, repository);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void appendHistory() {
+            List<MedicalHistoryEntry> entries = (List<MedicalHistoryEntry>) (List<?>) pending;
+            transactionTemplate.executeWithoutResult(status ->
+                    historyRepository.saveAll(historyRepository.missingEntries(entries)));
+        }
+
+        private void delete(WriteAheadJournal.Type type, String id) {
+            transactionTemplate.executeWithoutResult(status -> {
+                switch (type) {
+                    case DOCTOR -> doctorRepository.findById(id).ifPresent(doctorRepository::delete);
+                    case PATIENT -> {
+                        historyRepository.deleteByPatientId(id);
+                        patientRepository.findById(id).ifPresent(patientRepository::delete);
+                    }
+                    case APPOINTMENT -> appointmentRepository.findById(id).ifPresent(appointmentRepository::delete);
+                    case BILL -> billRepository.findById(id).ifPresent(billRepository::delete);
+                    case HISTORY -> throw new IllegalStateException("History entries are never deleted on their own");
+                }
+            });
+        }
+    }
+
+    // ==================== CHECKPOINT ====================
+
+    /**
+     * Snapshot the database and drop the journal segments the snapshot has made redundant.
+     *
+     * @return records written to the snapshot per section
+     */
+    public synchronized Map<String, Long> checkpoint() throws IOException {
+        if (!journal.isRunning()) {
+            throw new IOException("The write-ahead journal is not enabled");
+        }
+        long started = System.currentTimeMillis();
+        int firstSegment = journal.rotate();
+        String snapshot = String.format("checkpoint-%08d.snapshot", firstSegment);
+        Map<String, Long> counts = snapshotService.save(journal.getDirectory().resolve(snapshot).toString());
+        writeCheckpoint(firstSegment, snapshot);
+
+        for (int segment : journal.listSegments()) {
+            if (segment < firstSegment) {
+                Files.deleteIfExists(journal.segmentPath(segment));
+            }
+        }
+        try (Stream<Path> files = Files.list(journal.getDirectory())) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("checkpoint-") && name.endsWith(".snapshot") && !name.equals(snapshot)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        log.info("Checkpoint {} taken in {} ms: {}", snapshot, System.currentTimeMillis() - started, counts);
+        return counts;
+    }
+
+    /**
+     * Checkpoint after a bulk load or restore, which writes through the repositories and so
+     * leaves no journal records; a no-op while the journal is disabled.
+     */
+    public void checkpointIfEnabled() throws IOException {
+        if (journal.isRunning()) {
+            checkpoint();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${meditrack.journal.checkpoint-check-ms:60000}",
+            initialDelayString = "${meditrack.journal.checkpoint-check-ms:60000}")
+    public void checkpointIfNeeded() {
+        if (!journal.isRunning()) {
+            return;
+        }
+        try {
+            Properties checkpoint = readCheckpoint();
+            int firstSegment = checkpoint != null ? Integer.parseInt(checkpoint.getProperty("firstSegment")) : 0;
+            long tailBytes = 0;
+            for (int segment : journal.listSegments()) {
+                if (segment >= firstSegment) {
+                    tailBytes += Files.size(journal.segmentPath(segment));
+                }
+            }
+            if (tailBytes >= checkpointBytes) {
+                checkpoint();
+            }
+        } catch (IOException e) {
+            log.warn("Scheduled checkpoint failed: {}", e.getMessage());
+        }
+    }
+
+    private Properties readCheckpoint() throws IOException {
+        Path file = journal.getDirectory().resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    private void writeCheckpoint(int firstSegment, String snapshot) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("firstSegment", String.valueOf(firstSegment));
+        properties.setProperty("snapshot", snapshot);
+        Path temp = journal.getDirectory().resolve(CHECKPOINT + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "MediTrack journal checkpoint: replay the snapshot, then segments from firstSegment");
+        }
+        Files.move(temp, journal.getDirectory().resolve(CHECKPOINT),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
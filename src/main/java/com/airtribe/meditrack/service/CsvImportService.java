@@ -0,0 +1,229 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.repository.BatchUpsert;
+import com.airtribe.meditrack.util.CsvChunker;
+import com.airtribe.meditrack.util.CsvReader;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel CSV import: memory-mapped chunks parsed on a worker pool, written in JDBC batches.
+ * Demonstrates: producer/consumer pipeline over a bounded BlockingQueue, memory-mapped I/O.
+ *
+ * The file is split into record-aligned chunks by {@link CsvChunker}; each worker parses one
+ * chunk at a time with {@link CsvReader} and hands fixed-size row batches to that chunk's bounded
+ * queue. The calling thread drains the queues in chunk order and upserts each batch through
+ * {@link EntityBatchWriter}. Rows are therefore written in file order: when an id appears twice,
+ * the later row wins, and loading the same file twice behaves like saveAll() did. A full queue
+ * blocks its parser, so memory stays bounded no matter how large the file is.
+ *
+ * Each batch commits on its own. If an import fails, the rows written so far stay in place.
+ * They are always a prefix of the file, and the error message says how far the import got.
+ */
+@Service
+public class CsvImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvImportService.class);
+
+    // Identity-compared marker a worker enqueues after its last batch
+    private static final List<?> END_OF_CHUNK = new ArrayList<>(0);
+
+    /**
+     * Outcome of one file import.
+     */
+    public record ImportResult(String file, long rows, int chunks, long millis) {
+
+        public long rowsPerSecond() {
+            return millis == 0 ? rows : rows * 1000 / millis;
+        }
+    }
+
+    /**
+     * Progress callbacks, invoked on the importing thread; throwing from one aborts the import.
+     */
+    public interface Progress {
+
+        Progress NONE = rows -> { };
+
+        void batchWritten(int rows);
+
+        /**
+         * Bytes of the file whose chunks have been fully parsed since the previous call.
+         */
+        default void bytesParsed(long bytes) {
+        }
+    }
+
+    private final EntityBatchWriter batchWriter;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final long chunkBytes;
+    private final int batchRows;
+    private final int queueBatches;
+
+    public CsvImportService(EntityBatchWriter batchWriter,
+                            @Value("${meditrack.import.workers:0}") int workers,
+                            @Value("${meditrack.import.chunk-mb:16}") int chunkMegabytes,
+                            @Value("${meditrack.import.batch-rows:1000}") int batchRows,
+                            @Value("${meditrack.import.queue-batches:16}") int queueBatches) {
+        this.batchWriter = batchWriter;
+        this.workerCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.chunkBytes = chunkMegabytes * 1024L * 1024L;
+        this.batchRows = batchRows;
+        this.queueBatches = queueBatches;
+        // Parsing is CPU-bound, so platform threads sized to the cores
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "csv-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Import every data row of a CSV file with a header; a missing file imports nothing.
+     */
+    public <T extends MedicalEntity> ImportResult importFile(String filePath, Class<T> type,
+                                                             CsvReader.RowMapper<T> mapper,
+                                                             BatchUpsert<T> repository) throws IOException {
+        return importFile(filePath, type, mapper, repository, Progress.NONE);
+    }
+
+    public <T extends MedicalEntity> ImportResult importFile(String filePath, Class<T> type,
+                                                             CsvReader.RowMapper<T> mapper,
+                                                             BatchUpsert<T> repository,
+                                                             Progress progress) throws IOException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            return new ImportResult(filePath, 0, 0, 0);
+        }
+        long started = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<CsvChunker.Chunk> chunks = CsvChunker.split(channel, chunkBytes, workers);
+            // Only the chunks being parsed hold batches, so split the budget across the workers
+            int perChunk = Math.max(1, queueBatches / workerCount);
+            List<BlockingQueue<List<T>>> queues = new ArrayList<>(chunks.size());
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            AtomicLong parsedBytes = new AtomicLong();
+            List<Future<?>> parsers = new ArrayList<>(chunks.size());
+            for (CsvChunker.Chunk chunk : chunks) {
+                BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(perChunk);
+                queues.add(queue);
+                parsers.add(workers.submit(() -> parseChunk(channel, chunk, mapper, queue, failure, parsedBytes)));
+            }
+
+            long rows = 0;
+            long reportedBytes = 0;
+            int finished = 0;
+            try {
+                while (finished < chunks.size()) {
+                    List<T> batch = queues.get(finished).take();
+                    if (batch == END_OF_CHUNK) {
+                        queues.set(finished, null);
+                        finished++;
+                        long parsed = parsedBytes.get();
+                        progress.bytesParsed(parsed - reportedBytes);
+                        reportedBytes = parsed;
+                    } else if (failure.get() == null) {
+                        // After a failure keep draining so blocked workers can finish
+                        batchWriter.upsert(batch, repository);
+                        rows += batch.size();
+                        progress.batchWritten(batch.size());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                parsers.forEach(p -> p.cancel(true));
+                throw new IOException("Import of " + filePath + " interrupted", e);
+            } catch (RuntimeException e) {
+                parsers.forEach(p -> p.cancel(true));
+                throw new IOException(partial(filePath, rows, finished, chunks.size(), e), e);
+            }
+            if (failure.get() != null) {
+                throw new IOException(partial(filePath, rows, finished, chunks.size(), failure.get()), failure.get());
+            }
+            ImportResult result = new ImportResult(filePath, rows, chunks.size(), System.currentTimeMillis() - started);
+            log.info("Imported {} rows from {} in {} ms ({} chunks, {} workers, {} rows/s).",
+                    rows, filePath, result.millis(), chunks.size(), workerCount, result.rowsPerSecond());
+            return result;
+        }
+    }
+
+    private static String partial(String filePath, long rows, int finishedChunks, int chunks, Throwable cause) {
+        return "Import of " + filePath + " failed: " + cause.getMessage() + ". The import is partial: "
+                + rows + " rows, the file up to chunk " + finishedChunks + " of " + chunks
+                + ", were committed and stay in place; importing the file again upserts them";
+    }
+
+    // --- Pipeline stages ---
+
+    @SuppressWarnings("unchecked")
+    private <T> void parseChunk(FileChannel channel, CsvChunker.Chunk chunk, CsvReader.RowMapper<T> mapper,
+                                BlockingQueue<List<T>> queue, AtomicReference<Throwable> failure,
+                                AtomicLong parsedBytes) {
+        try (CsvReader reader = new CsvReader(CsvChunker.open(channel, chunk))) {
+            if (chunk.index() == 0) {
+                reader.skipHeader();
+            }
+            List<T> batch = new ArrayList<>(batchRows);
+            while (reader.next() && failure.get() == null) {
+                T row;
+                try {
+                    row = mapper.map(reader);
+                } catch (RuntimeException e) {
+                    throw new IOException("Chunk " + chunk.index() + ", record ending on line "
+                            + reader.lineNumber() + " of the chunk: " + e.getMessage(), e);
+                }
+                if (row == null) {
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchRows) {
+                    queue.put(batch);
+                    batch = new ArrayList<>(batchRows);
+                }
+            }
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+            }
+            parsedBytes.addAndGet(chunk.length());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (Exception e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            try {
+                queue.put((List<T>) END_OF_CHUNK);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
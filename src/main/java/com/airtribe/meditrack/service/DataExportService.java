@@ -0,0 +1,159 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.exception.InvalidDataException;
+import com.airtribe.meditrack.util.CSVUtil;
+import com.airtribe.meditrack.util.CsvWriter;
+import com.airtribe.meditrack.util.NdjsonWriter;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Streams a whole table to an HTTP response as CSV or NDJSON.
+ * Demonstrates: cursor-backed streaming (via the services' stream methods), strategy by enum.
+ *
+ * Rows come from each service's Stream finder, which Hibernate runs as a forward-only scroll
+ * with a bounded fetch size; each row is written and detached before the next is read, so
+ * memory use does not depend on the table size. CSV columns match the files written by
+ * {@link CSVUtil}.
+ */
+@Service
+public class DataExportService {
+
+    public static final List<String> ENTITIES = List.of("doctors", "patients", "appointments", "bills");
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    public enum Format {
+        CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8")),
+        NDJSON("ndjson", NdjsonWriter.MEDIA_TYPE);
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new InvalidDataException("format", "Unknown export format: " + name + " (expected csv or ndjson)");
+        }
+    }
+
+    private final DoctorService doctorService;
+    private final PatientService patientService;
+    private final AppointmentService appointmentService;
+    private final BillingService billingService;
+    private final ObjectMapper objectMapper;
+
+    public DataExportService(DoctorService doctorService, PatientService patientService,
+                             AppointmentService appointmentService, BillingService billingService,
+                             ObjectMapper objectMapper) {
+        this.doctorService = doctorService;
+        this.patientService = patientService;
+        this.appointmentService = appointmentService;
+        this.billingService = billingService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Validates the entity name up front, so a bad request fails before any body is written.
+     */
+    public String checkEntity(String entity) {
+        String name = entity.toLowerCase(Locale.ROOT);
+        if (!ENTITIES.contains(name)) {
+            throw new InvalidDataException("entity", "Unknown entity: " + entity + " (expected one of " + ENTITIES + ")");
+        }
+        return name;
+    }
+
+    /**
+     * Write every row of the entity to {@code out}; the stream is flushed but not closed.
+     */
+    public void export(String entity, Format format, OutputStream out) throws IOException {
+        String name = checkEntity(entity);
+        try {
+            if (format == Format.NDJSON) {
+                NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+                stream(name, writer::write);
+                writer.flush();
+            } else {
+                CsvWriter writer = new CsvWriter(new BufferedWriter(
+                        new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS));
+                writeCsv(name, writer);
+                writer.flush();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeCsv(String entity, CsvWriter writer) throws IOException {
+        switch (entity) {
+            case "doctors" -> {
+                writer.row(CSVUtil.DOCTOR_HEADER);
+                doctorService.streamDoctors(null, unchecked(d -> CSVUtil.writeDoctor(writer, d)));
+            }
+            case "patients" -> {
+                writer.row(CSVUtil.PATIENT_HEADER);
+                patientService.streamPatients(null, unchecked(p -> CSVUtil.writePatient(writer, p)));
+            }
+            case "appointments" -> {
+                writer.row(CSVUtil.APPOINTMENT_HEADER);
+                appointmentService.streamAppointments(null, unchecked(a -> CSVUtil.writeAppointment(writer, a)));
+            }
+            default -> {
+                writer.row(CSVUtil.BILL_HEADER);
+                billingService.streamBills(null, unchecked(b -> CSVUtil.writeBill(writer, b)));
+            }
+        }
+    }
+
+    private void stream(String entity, Consumer<Object> sink) {
+        switch (entity) {
+            case "doctors" -> doctorService.streamDoctors(null, sink);
+            case "patients" -> patientService.streamPatients(null, sink);
+            case "appointments" -> appointmentService.streamAppointments(null, sink);
+            default -> billingService.streamBills(null, sink);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+
+    private static <T> Consumer<T> unchecked(RowWriter<T> writer) {
+        return row -> {
+            try {
+                writer.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,202 @@
+package com.airtribe.meditrack.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A background save/load job run by {@link DataJobService}, with live progress.
+ * Demonstrates: lock-free progress counters read by other threads, cooperative cancellation.
+ *
+ * Progress is tracked in two ways. Rows are what the job has written. Work units are the job's
+ * own measure of how far it has got (bytes parsed for a load, rows for a save). The ETA is
+ * derived from the work units.
+ */
+public class DataJob {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private static final int MAX_ERRORS = 20;
+
+    private final String id;
+    private final String type;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong workDone = new AtomicLong();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long workTotal;
+    private volatile String phase;
+    private volatile Object result;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    DataJob(String id, String type) {
+        this.id = id;
+        this.type = type;
+    }
+
+    // --- Progress (called by the job's own thread) ---
+
+    public void setPhase(String phase) {
+        checkCancelled();
+        this.phase = phase;
+    }
+
+    public void addWorkTotal(long units) {
+        workTotal += units;
+    }
+
+    public void addWorkDone(long units) {
+        workDone.addAndGet(units);
+    }
+
+    /**
+     * Count written rows; also the job's cancellation point, so long loops stop promptly.
+     */
+    public void addRows(long rows) {
+        checkCancelled();
+        rowsProcessed.addAndGet(rows);
+    }
+
+    public void addError(String error) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    public void checkCancelled() {
+        if (cancelRequested || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Job " + id + " was cancelled");
+        }
+    }
+
+    // --- Lifecycle (called by DataJobService) ---
+
+    void started(Future<?> future) {
+        this.future = future;
+    }
+
+    void running() {
+        startedAt = LocalDateTime.now();
+        startedNanos = System.nanoTime();
+        status = Status.RUNNING;
+    }
+
+    void finished(Status status, Object result) {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        this.result = result;
+        this.status = status;
+    }
+
+    boolean requestCancel() {
+        if (isDone()) {
+            return false;
+        }
+        cancelRequested = true;
+        Future<?> running = future;
+        if (running != null && running.cancel(true) && status == Status.QUEUED) {
+            // Never started, so no worker will record the outcome
+            finished(Status.CANCELLED, null);
+        }
+        return true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public boolean isDone() {
+        return status == Status.SUCCEEDED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    // --- Reporting ---
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed.get();
+    }
+
+    public List<String> getErrors() {
+        return List.copyOf(errors);
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public long getElapsedMillis() {
+        if (startedAt == null) {
+            return 0;
+        }
+        long end = finishedAt != null ? finishedNanos : System.nanoTime();
+        return Duration.ofNanos(end - startedNanos).toMillis();
+    }
+
+    public long getRowsPerSecond() {
+        long millis = getElapsedMillis();
+        return millis == 0 ? 0 : getRowsProcessed() * 1000 / millis;
+    }
+
+    /**
+     * Fraction of the work done, 0..1; null until the job knows its total.
+     */
+    public Double getProgress() {
+        if (status == Status.SUCCEEDED) {
+            return 1.0;
+        }
+        long total = workTotal;
+        return total <= 0 ? null : Math.min(1.0, (double) workDone.get() / total);
+    }
+
+    /**
+     * Remaining time extrapolated from the rate so far; null while unknown.
+     */
+    public Long getEtaMillis() {
+        Double progress = getProgress();
+        if (isDone()) {
+            return 0L;
+        }
+        if (progress == null || progress == 0) {
+            return null;
+        }
+        return (long) (getElapsedMillis() * (1 - progress) / progress);
+    }
+}
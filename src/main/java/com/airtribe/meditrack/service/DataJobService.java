@@ -0,0 +1,125 @@
+package com.airtribe.meditrack.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs long save/load operations as background jobs that clients poll for progress.
+ * Demonstrates: dedicated ExecutorService, Future-based cancellation, bounded job registry.
+ *
+ * Jobs run on their own small pool rather than on Tomcat's request threads, so a large import
+ * no longer holds a request open or takes serving capacity. Finished jobs are kept for polling
+ * until the registry exceeds its retention limit, then the oldest finished ones are evicted.
+ */
+@Service
+public class DataJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataJobService.class);
+
+    /**
+     * The body of a job; reports progress and checks for cancellation through the job.
+     */
+    @FunctionalInterface
+    public interface Work {
+        Object run(DataJob job) throws Exception;
+    }
+
+    private final Map<String, DataJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final int retainedJobs;
+
+    public DataJobService(@Value("${meditrack.jobs.workers:2}") int workers,
+                          @Value("${meditrack.jobs.retained:100}") int retainedJobs) {
+        this.retainedJobs = retainedJobs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "data-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public DataJob submit(String type, Work work) {
+        DataJob job = new DataJob(UUID.randomUUID().toString(), type);
+        jobs.put(job.getId(), job);
+        evictFinished();
+        job.started(executor.submit(() -> execute(job, work)));
+        return job;
+    }
+
+    public Optional<DataJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public List<DataJob> getJobs() {
+        List<DataJob> all = new ArrayList<>(jobs.values());
+        all.sort(Comparator.comparing(DataJob::getSubmittedAt).reversed());
+        return all;
+    }
+
+    /**
+     * Request cancellation; false if the job is unknown or already finished.
+     */
+    public boolean cancel(String id) {
+        DataJob job = jobs.get(id);
+        return job != null && job.requestCancel();
+    }
+
+    // --- Execution ---
+
+    private void execute(DataJob job, Work work) {
+        try {
+            job.checkCancelled();
+            job.running();
+            Object result = work.run(job);
+            job.checkCancelled();
+            job.finished(DataJob.Status.SUCCEEDED, result);
+            log.info("Job {} ({}) finished: {} rows in {} ms.", job.getId(), job.getType(),
+                    job.getRowsProcessed(), job.getElapsedMillis());
+        } catch (CancellationException e) {
+            job.finished(DataJob.Status.CANCELLED, null);
+            log.info("Job {} ({}) cancelled after {} rows.", job.getId(), job.getType(), job.getRowsProcessed());
+        } catch (Exception e) {
+            if (job.isCancelRequested()) {
+                // Interrupting a blocked job surfaces as an I/O or interrupt error
+                job.finished(DataJob.Status.CANCELLED, null);
+                return;
+            }
+            job.addError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            job.finished(DataJob.Status.FAILED, null);
+            log.warn("Job {} ({}) failed: {}", job.getId(), job.getType(), e.getMessage());
+        }
+    }
+
+    private void evictFinished() {
+        int excess = jobs.size() - retainedJobs;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(DataJob::isDone)
+                .sorted(Comparator.comparing(DataJob::getSubmittedAt))
+                .limit(excess)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+}
@@ -0,0 +1,203 @@
+package com.airtribe.meditrack.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Incremental export: each run writes only the rows changed since the last watermark into a new
+ * append-only segment file, and compaction periodically merges the segments into one.
+ * Demonstrates: watermark-based change capture, write-ahead manifest, log compaction.
+ *
+ * Segments are DELTA files in the {@link SnapshotService} format. The MANIFEST (a properties
+ * file replaced atomically) is the commit point: it records the watermark, the live segments
+ * in order and the next segment number, so a crash mid-export or mid-compaction leaves at most
+ * an orphan file that the next run overwrites or deletes.
+ *
+ * The window closes at now minus a safety lag, and the next window starts exactly there. A row is
+ * therefore captured only if its transaction committed within the safety lag of stamping
+ * updatedAt: a longer transaction commits a timestamp that lies below the stored watermark and
+ * no delta ever exports it. Keep the lag above the longest write transaction; a full save always
+ * has every row. Deletions leave no row behind and are not captured either.
+ */
+@Service
+public class DeltaExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeltaExportService.class);
+
+    private static final String MANIFEST = "MANIFEST";
+    private static final LocalDateTime INITIAL_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Outcome of one export; {@code segment} is null when nothing changed in the window.
+     */
+    public record DeltaResult(String segment, LocalDateTime after, LocalDateTime upTo, Map<String, Long> records) {
+    }
+
+    private record Manifest(LocalDateTime watermark, int nextSegment, List<String> segments) {
+    }
+
+    private final SnapshotService snapshotService;
+    private final Path directory;
+    private final Duration safetyLag;
+    private final int compactMinSegments;
+
+    public DeltaExportService(SnapshotService snapshotService,
+                              @Value("${meditrack.delta.directory:data/delta}") String directory,
+                              @Value("${meditrack.delta.safety-lag-ms:5000}") long safetyLagMillis,
+                              @Value("${meditrack.delta.compact-min-segments:8}") int compactMinSegments) {
+        this.snapshotService = snapshotService;
+        this.directory = Paths.get(directory);
+        this.safetyLag = Duration.ofMillis(safetyLagMillis);
+        this.compactMinSegments = compactMinSegments;
+    }
+
+    // --- Export ---
+
+    public synchronized DeltaResult exportChanges() throws IOException {
+        Manifest manifest = readManifest();
+        // Stored timestamps have microsecond precision
+        LocalDateTime upTo = LocalDateTime.now().minus(safetyLag).truncatedTo(ChronoUnit.MICROS);
+        if (!upTo.isAfter(manifest.watermark())) {
+            return new DeltaResult(null, manifest.watermark(), manifest.watermark(), Map.of());
+        }
+        String segment = segmentName(manifest.nextSegment());
+        Path file = directory.resolve(segment);
+        Map<String, Long> records = snapshotService.saveChanges(file.toString(), manifest.watermark(), upTo);
+
+        List<String> segments = new ArrayList<>(manifest.segments());
+        if (records.values().stream().mapToLong(Long::longValue).sum() == 0) {
+            Files.deleteIfExists(file);
+            segment = null;
+        } else {
+            segments.add(segment);
+        }
+        writeManifest(new Manifest(upTo, manifest.nextSegment() + 1, segments));
+        log.info("Delta export ({}, {}]: {} -> {}", manifest.watermark(), upTo, records, segment);
+        return new DeltaResult(segment, manifest.watermark(), upTo, records);
+    }
+
+    // --- Compaction ---
+
+    /**
+     * Merge all live segments into one; the newest version of each row wins.
+     */
+    public synchronized Map<String, Object> compact() throws IOException {
+        Manifest manifest = readManifest();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("segmentsBefore", manifest.segments().size());
+        if (manifest.segments().size() < 2) {
+            result.put("segmentsAfter", manifest.segments().size());
+            return result;
+        }
+        String merged = segmentName(manifest.nextSegment());
+        Map<String, Long> records = snapshotService.merge(
+                manifest.segments().stream().map(s -> directory.resolve(s).toString()).toList(),
+                directory.resolve(merged).toString());
+        writeManifest(new Manifest(manifest.watermark(), manifest.nextSegment() + 1, List.of(merged)));
+        for (String old : manifest.segments()) {
+            Files.deleteIfExists(directory.resolve(old));
+        }
+        log.info("Compacted {} delta segments into {}: {}", manifest.segments().size(), merged, records);
+        result.put("segmentsAfter", 1);
+        result.put("segment", merged);
+        result.put("records", records);
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${meditrack.delta.compact-interval-ms:3600000}",
+            initialDelayString = "${meditrack.delta.compact-interval-ms:3600000}")
+    public void compactIfNeeded() {
+        try {
+            if (readManifest().segments().size() >= compactMinSegments) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("Delta compaction failed: {}", e.getMessage());
+        }
+    }
+
+    // --- Replay ---
+
+    /**
+     * Apply every live segment in order (on top of a restored full snapshot or CSV load).
+     * Callers rebuild the in-memory indexes afterwards.
+     */
+    public synchronized Map<String, Long> restore() throws IOException {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (String segment : readManifest().segments()) {
+            snapshotService.restore(directory.resolve(segment).toString())
+                    .forEach((section, count) -> totals.merge(section, count, Long::sum));
+        }
+        return totals;
+    }
+
+    public synchronized Map<String, Object> getStatus() throws IOException {
+        Manifest manifest = readManifest();
+        long bytes = 0;
+        for (String segment : manifest.segments()) {
+            Path file = directory.resolve(segment);
+            bytes += Files.exists(file) ? Files.size(file) : 0;
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("watermark", manifest.watermark());
+        status.put("segments", manifest.segments());
+        status.put("segmentBytes", bytes);
+        return status;
+    }
+
+    // --- Manifest ---
+
+    private static String segmentName(int number) {
+        return String.format("segment-%06d.delta", number);
+    }
+
+    private Manifest readManifest() throws IOException {
+        Path file = directory.resolve(MANIFEST);
+        if (!Files.exists(file)) {
+            return new Manifest(INITIAL_WATERMARK, 1, List.of());
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        String segments = properties.getProperty("segments", "");
+        return new Manifest(
+                LocalDateTime.parse(properties.getProperty("watermark")),
+                Integer.parseInt(properties.getProperty("nextSegment")),
+                segments.isEmpty() ? List.of() : Arrays.asList(segments.split(",")));
+    }
+
+    private void writeManifest(Manifest manifest) throws IOException {
+        Files.createDirectories(directory);
+        Properties properties = new Properties();
+        properties.setProperty("watermark", manifest.watermark().toString());
+        properties.setProperty("nextSegment", String.valueOf(manifest.nextSegment()));
+        properties.setProperty("segments", String.join(",", manifest.segments()));
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "MediTrack delta export manifest");
+        }
+        Files.move(temp, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
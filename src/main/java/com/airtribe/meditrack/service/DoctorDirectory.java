@@ -0,0 +1,107 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory roster of doctors, bucketed by specialization and indexed for keyword search.
+ * Demonstrates: EnumMap, concurrent collections, trigram index, read-mostly data kept in sync
+ * by the service layer.
+ *
+ * Reads are lock-free; writes are serialized so a doctor never sits in two buckets at once.
+ * DoctorService keeps it current on add/update/delete and rebuilds it at startup.
+ */
+@Component
+public class DoctorDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorDirectory.class);
+
+    private final Map<String, Doctor> byId = new ConcurrentHashMap<>();
+    private final Map<Specialization, Set<String>> bySpecialization = new EnumMap<>(Specialization.class);
+    private final TrigramIndex searchIndex = new TrigramIndex();
+
+    public DoctorDirectory() {
+        for (Specialization spec : Specialization.values()) {
+            bySpecialization.put(spec, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public synchronized void put(Doctor doctor) {
+        Doctor previous = byId.put(doctor.getId(), doctor);
+        if (previous != null && previous.getSpecialization() != null
+                && previous.getSpecialization() != doctor.getSpecialization()) {
+            bySpecialization.get(previous.getSpecialization()).remove(doctor.getId());
+        }
+        if (doctor.getSpecialization() != null) {
+            bySpecialization.get(doctor.getSpecialization()).add(doctor.getId());
+        }
+        searchIndex.put(doctor.getId(), searchableFields(doctor));
+    }
+
+    public synchronized void remove(String doctorId) {
+        Doctor previous = byId.remove(doctorId);
+        if (previous != null && previous.getSpecialization() != null) {
+            bySpecialization.get(previous.getSpecialization()).remove(doctorId);
+        }
+        searchIndex.remove(doctorId);
+    }
+
+    public synchronized void rebuild(Collection<Doctor> doctors) {
+        byId.clear();
+        bySpecialization.values().forEach(Set::clear);
+        searchIndex.clear();
+        doctors.forEach(this::put);
+        log.info("Doctor directory rebuilt with {} doctors.", byId.size());
+    }
+
+    public Optional<Doctor> get(String doctorId) {
+        return Optional.ofNullable(byId.get(doctorId));
+    }
+
+    /**
+     * Doctors of a specialization, ordered by ID.
+     */
+    public List<Doctor> getBySpecialization(Specialization specialization) {
+        return bySpecialization.get(specialization).stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(Doctor::getId))
+                .toList();
+    }
+
+    /**
+     * Doctors whose name, ID or specialization contains the keyword, best matches first.
+     */
+    public List<Doctor> search(String keyword, int limit) {
+        return searchIndex.search(keyword, limit).stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    // Same fields as Doctor.matchesSearchCriteria
+    private static List<String> searchableFields(Doctor doctor) {
+        Specialization spec = doctor.getSpecialization();
+        return Arrays.asList(doctor.getName(), doctor.getId(),
+                spec != null ? spec.name() : null, spec != null ? spec.getDisplayName() : null);
+    }
+}
@@ -0,0 +1,174 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.constants.Constants;
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.FreeSlot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live per-doctor load: number of upcoming confirmed appointments and the next free slot.
+ * Demonstrates: incrementally maintained materialized view, TreeSet range views, immutable records.
+ *
+ * AppointmentService feeds every committed booking change through {@link #track(Appointment)};
+ * {@link #refresh(String)} then recomputes the doctor's {@link DoctorLoad} from the confirmed
+ * bookings and the occupancy bitmaps. Readers get the last computed record without touching
+ * the database or the schedule.
+ *
+ * Each doctor's bookings, pending changes and load sit in one {@link Bookings} object and are
+ * only changed under its monitor. The next free slot is kept from one refresh to the next:
+ * every slot before it was taken, so only a change at or before it, or the slot passing, makes
+ * a new search necessary, and that search starts where the change can first matter.
+ */
+@Component
+public class DoctorLoadTable {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorLoadTable.class);
+
+    /**
+     * Load of one doctor; {@code nextFreeSlot} is null when nothing is free within SLOT_SEARCH_DAYS.
+     */
+    public record DoctorLoad(int upcomingConfirmed, LocalDateTime nextFreeSlot) {
+
+        public static final DoctorLoad IDLE = new DoctorLoad(0, null);
+    }
+
+    private record Booking(LocalDateTime start, String appointmentId) {
+    }
+
+    // Appointments at the same start are distinct entries; "" sorts before every id
+    private static final Comparator<Booking> BY_START =
+            Comparator.comparing(Booking::start).thenComparing(Booking::appointmentId);
+
+    /**
+     * One doctor's confirmed bookings and cached load; guarded by its own monitor.
+     */
+    private static final class Bookings {
+        private final NavigableSet<Booking> confirmed = new TreeSet<>(BY_START);
+        private LocalDateTime changedFrom;   // earliest schedule change since the last refresh
+        private volatile DoctorLoad load;    // null until the first refresh
+
+        private void changed(LocalDateTime start) {
+            if (changedFrom == null || start.isBefore(changedFrom)) {
+                changedFrom = start;
+            }
+        }
+    }
+
+    private final AppointmentSlotEngine slotEngine;
+    private final Map<String, Bookings> byDoctor = new ConcurrentHashMap<>();
+
+    public DoctorLoadTable(AppointmentSlotEngine slotEngine) {
+        this.slotEngine = slotEngine;
+    }
+
+    // --- Maintenance ---
+
+    /**
+     * Record the committed state of an appointment; only confirmed ones count as load.
+     * Call {@link #refresh(String)} for the doctor afterwards.
+     */
+    public void track(Appointment appointment) {
+        if (appointment.getDoctorId() == null || appointment.getAppointmentDateTime() == null) {
+            return;
+        }
+        // An appointment never changes doctor or start time, so its entry only comes and goes
+        Booking booking = new Booking(appointment.getAppointmentDateTime(), appointment.getId());
+        Bookings bookings = byDoctor.computeIfAbsent(appointment.getDoctorId(), id -> new Bookings());
+        synchronized (bookings) {
+            if (appointment.getStatus() == AppointmentStatus.CONFIRMED) {
+                bookings.confirmed.add(booking);
+            } else {
+                bookings.confirmed.remove(booking);
+            }
+            bookings.changed(booking.start());
+        }
+    }
+
+    /**
+     * Note a schedule change that did not come through {@link #track}, such as a reservation
+     * given back on rollback, so the next refresh searches for a free slot from there.
+     */
+    public void scheduleChanged(String doctorId, LocalDateTime start) {
+        Bookings bookings = byDoctor.get(doctorId);
+        if (bookings == null || start == null) {
+            return;
+        }
+        synchronized (bookings) {
+            bookings.changed(start);
+        }
+    }
+
+    /**
+     * Recompute a doctor's load from their confirmed bookings and free slots as of now.
+     */
+    public DoctorLoad refresh(String doctorId) {
+        LocalDateTime now = LocalDateTime.now();
+        Bookings bookings = byDoctor.computeIfAbsent(doctorId, id -> new Bookings());
+        synchronized (bookings) {
+            // Past appointments no longer count
+            bookings.confirmed.headSet(new Booking(now, ""), false).clear();
+            DoctorLoad load = new DoctorLoad(bookings.confirmed.size(), nextFreeSlot(doctorId, bookings, now));
+            bookings.changedFrom = null;
+            bookings.load = load;
+            return load;
+        }
+    }
+
+    public void remove(String doctorId) {
+        byDoctor.remove(doctorId);
+    }
+
+    public synchronized void rebuild(Collection<Appointment> appointments) {
+        byDoctor.clear();
+        LocalDateTime now = LocalDateTime.now();
+        for (Appointment a : appointments) {
+            if (a.getAppointmentDateTime() != null && a.getAppointmentDateTime().isAfter(now)) {
+                track(a);
+            }
+        }
+        int upcoming = byDoctor.values().stream().mapToInt(b -> b.confirmed.size()).sum();
+        log.info("Doctor load table rebuilt with {} upcoming confirmed appointments.", upcoming);
+    }
+
+    // --- Queries ---
+
+    public DoctorLoad get(String doctorId) {
+        Bookings bookings = byDoctor.get(doctorId);
+        DoctorLoad load = bookings == null ? null : bookings.load;
+        return load == null ? DoctorLoad.IDLE : load;
+    }
+
+    // Caller holds the doctor's monitor
+    private LocalDateTime nextFreeSlot(String doctorId, Bookings bookings, LocalDateTime now) {
+        DoctorLoad previous = bookings.load;
+        LocalDateTime cached = previous == null ? null : previous.nextFreeSlot();
+        LocalDateTime from = now;
+        if (cached != null && !cached.isBefore(now)) {
+            LocalDateTime changed = bookings.changedFrom;
+            if (changed == null || !changed.isBefore(cached.plusMinutes(Constants.APPOINTMENT_DURATION_MINUTES))) {
+                return cached;
+            }
+            // A change frees or takes at most the slots overlapping it; earlier ones were all taken
+            LocalDateTime affected = changed.minusMinutes(Constants.APPOINTMENT_DURATION_MINUTES);
+            if (affected.isAfter(now)) {
+                from = affected;
+            }
+        }
+        long days = ChronoUnit.DAYS.between(from.toLocalDate(), now.toLocalDate().plusDays(Constants.SLOT_SEARCH_DAYS));
+        List<FreeSlot> next = slotEngine.nextFreeSlots(doctorId, from, 1, (int) Math.max(1, days));
+        return next.isEmpty() ? null : next.get(0).start();
+    }
+}
@@ -0,0 +1,153 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.constants.Constants;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Specialization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Doctors bucketed by specialization and kept sorted by a recommendation score.
+ * Demonstrates: EnumMap of sorted sets, k-way merge with a bounded PriorityQueue.
+ *
+ * score = experience * W_EXPERIENCE - fee / 100 * W_FEE
+ *         - upcoming confirmed appointments * W_LOAD - days until the next free slot * W_WAIT
+ *
+ * The load terms come from DoctorLoadTable, so ranking never queries appointments. A request
+ * walks only the buckets of the matched specializations and merges their heads, so it costs
+ * O(k log b) for the top k of b buckets. Entries are refreshed when a doctor is added, updated
+ * or deleted, when one of their bookings changes, and periodically as time moves on.
+ */
+@Component
+public class DoctorRecommendationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorRecommendationIndex.class);
+
+    private record Ranked(String doctorId, double score) {
+    }
+
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble(Ranked::score).reversed()
+            .thenComparing(Ranked::doctorId);
+
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorLoadTable loadTable;
+    private final Map<Specialization, NavigableSet<Ranked>> buckets = new EnumMap<>(Specialization.class);
+    private final Map<String, Ranked> current = new ConcurrentHashMap<>();
+    private final Map<String, Specialization> bucketOf = new ConcurrentHashMap<>();
+
+    public DoctorRecommendationIndex(DoctorDirectory doctorDirectory, DoctorLoadTable loadTable) {
+        this.doctorDirectory = doctorDirectory;
+        this.loadTable = loadTable;
+        for (Specialization spec : Specialization.values()) {
+            buckets.put(spec, new ConcurrentSkipListSet<>(BEST_FIRST));
+        }
+    }
+
+    // --- Maintenance ---
+
+    public synchronized void put(Doctor doctor) {
+        removeRanking(doctor.getId());
+        if (doctor.getSpecialization() == null) {
+            return;
+        }
+        Ranked ranked = new Ranked(doctor.getId(), score(doctor, loadTable.refresh(doctor.getId())));
+        buckets.get(doctor.getSpecialization()).add(ranked);
+        current.put(doctor.getId(), ranked);
+        bucketOf.put(doctor.getId(), doctor.getSpecialization());
+    }
+
+    public synchronized void remove(String doctorId) {
+        removeRanking(doctorId);
+        loadTable.remove(doctorId);
+    }
+
+    private void removeRanking(String doctorId) {
+        Ranked previous = current.remove(doctorId);
+        Specialization spec = bucketOf.remove(doctorId);
+        if (previous != null && spec != null) {
+            buckets.get(spec).remove(previous);
+        }
+    }
+
+    /**
+     * Recompute a doctor's load and re-score them after their bookings changed.
+     */
+    public void refreshLoad(String doctorId) {
+        doctorDirectory.get(doctorId).ifPresent(this::put);
+    }
+
+    /**
+     * Re-score every doctor: after the schedule was rebuilt, and periodically because
+     * appointments pass and the next free slot moves even without booking changes.
+     */
+    @Scheduled(fixedDelayString = "${meditrack.recommend.load-refresh-ms:300000}",
+            initialDelayString = "${meditrack.recommend.load-refresh-ms:300000}")
+    public void refreshAllLoads() {
+        List.copyOf(current.keySet()).forEach(this::refreshLoad);
+    }
+
+    public synchronized void rebuild(Collection<Doctor> doctors) {
+        current.clear();
+        bucketOf.clear();
+        buckets.values().forEach(NavigableSet::clear);
+        doctors.forEach(this::put);
+        log.info("Doctor recommendation index rebuilt with {} doctors.", current.size());
+    }
+
+    // --- Queries ---
+
+    /**
+     * Top {@code k} doctors of the given specializations. Doctors of specializations with more
+     * symptom hits come first; within equal hits, the higher score wins.
+     */
+    public List<Doctor> topK(Map<Specialization, Integer> hitsBySpecialization, int k) {
+        record Cursor(int hits, Ranked head, Iterator<Ranked> rest) {
+        }
+        Comparator<Cursor> bestCursorFirst = Comparator.comparingInt(Cursor::hits).reversed()
+                .thenComparing(Cursor::head, BEST_FIRST);
+
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(bestCursorFirst);
+        hitsBySpecialization.forEach((spec, hits) -> {
+            Iterator<Ranked> it = buckets.get(spec).iterator();
+            if (it.hasNext()) {
+                heads.add(new Cursor(hits, it.next(), it));
+            }
+        });
+
+        List<Doctor> result = new ArrayList<>(k);
+        while (result.size() < k && !heads.isEmpty()) {
+            Cursor best = heads.poll();
+            doctorDirectory.get(best.head().doctorId()).ifPresent(result::add);
+            if (best.rest().hasNext()) {
+                heads.add(new Cursor(best.hits(), best.rest().next(), best.rest()));
+            }
+        }
+        return result;
+    }
+
+    private static double score(Doctor doctor, DoctorLoadTable.DoctorLoad load) {
+        double waitDays = load.nextFreeSlot() == null
+                ? Constants.SLOT_SEARCH_DAYS
+                : Math.max(0, Duration.between(LocalDateTime.now(), load.nextFreeSlot()).toMinutes() / 1440.0);
+        return doctor.getYearsOfExperience() * Constants.RECOMMEND_WEIGHT_EXPERIENCE
+                - doctor.getConsultationFee() / 100.0 * Constants.RECOMMEND_WEIGHT_FEE
+                - load.upcomingConfirmed() * Constants.RECOMMEND_WEIGHT_LOAD
+                - waitDays * Constants.RECOMMEND_WEIGHT_WAIT;
+    }
+}
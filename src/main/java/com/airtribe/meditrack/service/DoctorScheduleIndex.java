@@ -0,0 +1,200 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.constants.Constants;
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.exception.AppointmentConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-doctor in-memory index of booked (non-cancelled) appointment intervals.
+ * Demonstrates: TreeMap range queries (O(log n) overlap checks), per-key locking
+ * on top of ConcurrentHashMap, bitmaps.
+ *
+ * Every appointment occupies [start, start + APPOINTMENT_DURATION_MINUTES). Two bookings of the
+ * same doctor overlap when their start times are less than one duration apart.
+ *
+ * Alongside the bookings, each doctor keeps one {@code long} per day with a bit per
+ * SLOT_MINUTES of working time that is (partly) booked. AppointmentSlotEngine searches these.
+ */
+@Component
+public class DoctorScheduleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorScheduleIndex.class);
+
+    private static final Duration SLOT = Duration.ofMinutes(Constants.APPOINTMENT_DURATION_MINUTES);
+
+    private static final int WORKDAY_START_MINUTE = Constants.WORKDAY_START_HOUR * 60;
+
+    public static final int SLOTS_PER_DAY =
+            (Constants.WORKDAY_END_HOUR - Constants.WORKDAY_START_HOUR) * 60 / Constants.SLOT_MINUTES;
+
+    public static final long WORKDAY_MASK = SLOTS_PER_DAY >= Long.SIZE ? -1L : (1L << SLOTS_PER_DAY) - 1;
+
+    /**
+     * Bookings of a single doctor, keyed by start time, plus the per-day occupancy bitmaps
+     * derived from them. Guarded by its own monitor.
+     */
+    private static final class DoctorCalendar {
+        private final NavigableMap<LocalDateTime, String> bookings = new TreeMap<>();
+        private final Map<LocalDate, Long> dayMasks = new HashMap<>();
+    }
+
+    private final Map<String, DoctorCalendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * Reserve the interval starting at {@code start} for the given appointment.
+     * Re-reserving the same appointment at the same start time is a no-op.
+     *
+     * @throws AppointmentConflictException if the interval overlaps another booking of the doctor
+     */
+    public void reserve(String doctorId, String appointmentId, LocalDateTime start) {
+        DoctorCalendar calendar = calendars.computeIfAbsent(doctorId, id -> new DoctorCalendar());
+        synchronized (calendar) {
+            Optional<String> conflict = findConflict(calendar, appointmentId, start);
+            if (conflict.isPresent()) {
+                throw new AppointmentConflictException(doctorId, start, conflict.get());
+            }
+            calendar.bookings.put(start, appointmentId);
+            refreshDayMasks(calendar, start);
+        }
+    }
+
+    /**
+     * Release the interval held by the given appointment. Unknown bookings are ignored.
+     */
+    public void release(String doctorId, String appointmentId, LocalDateTime start) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null || start == null) {
+            return;
+        }
+        synchronized (calendar) {
+            if (calendar.bookings.remove(start, appointmentId)) {
+                refreshDayMasks(calendar, start);
+            }
+        }
+    }
+
+    public boolean isAvailable(String doctorId, LocalDateTime start) {
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            return true;
+        }
+        synchronized (calendar) {
+            return findConflict(calendar, null, start).isEmpty();
+        }
+    }
+
+    /**
+     * Occupancy bitmaps for {@code days} consecutive days starting at {@code from}.
+     * Bit i of a day is set when the i-th working slot of that day is (partly) booked.
+     */
+    public long[] occupiedMasks(String doctorId, LocalDate from, int days) {
+        long[] masks = new long[days];
+        DoctorCalendar calendar = calendars.get(doctorId);
+        if (calendar == null) {
+            return masks;
+        }
+        synchronized (calendar) {
+            if (calendar.dayMasks.isEmpty()) {
+                return masks;
+            }
+            for (int d = 0; d < days; d++) {
+                masks[d] = calendar.dayMasks.getOrDefault(from.plusDays(d), 0L);
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Discard the index and re-add every non-cancelled appointment (startup / bulk load).
+     * Overlapping rows already in the database are kept as-is and only logged.
+     */
+    public synchronized void rebuild(Collection<Appointment> appointments) {
+        calendars.clear();
+        int indexed = 0;
+        for (Appointment a : appointments) {
+            if (!occupiesSlot(a)) continue;
+            DoctorCalendar calendar = calendars.computeIfAbsent(a.getDoctorId(), id -> new DoctorCalendar());
+            synchronized (calendar) {
+                findConflict(calendar, a.getId(), a.getAppointmentDateTime()).ifPresent(other ->
+                        log.warn("Existing appointment {} overlaps {} for doctor {}", a.getId(), other, a.getDoctorId()));
+                calendar.bookings.put(a.getAppointmentDateTime(), a.getId());
+                refreshDayMasks(calendar, a.getAppointmentDateTime());
+            }
+            indexed++;
+        }
+        log.info("Doctor schedule index rebuilt with {} bookings for {} doctors.", indexed, calendars.size());
+    }
+
+    /**
+     * Whether an appointment blocks its doctor's calendar.
+     */
+    public static boolean occupiesSlot(Appointment appointment) {
+        return appointment.getStatus() != AppointmentStatus.CANCELLED
+                && appointment.getAppointmentDateTime() != null
+                && appointment.getDoctorId() != null;
+    }
+
+    // Caller must hold the calendar monitor
+    private static void refreshDayMasks(DoctorCalendar calendar, LocalDateTime start) {
+        refreshDayMask(calendar, start.toLocalDate());
+        LocalDate endDay = start.plus(SLOT).toLocalDate();
+        if (!endDay.equals(start.toLocalDate())) {
+            refreshDayMask(calendar, endDay);
+        }
+    }
+
+    // Recomputed from the bookings rather than toggled, so an overlap kept by rebuild() cannot clear a neighbour's bits
+    private static void refreshDayMask(DoctorCalendar calendar, LocalDate day) {
+        LocalDateTime dayStart = day.atStartOfDay();
+        long mask = 0L;
+        for (LocalDateTime start : calendar.bookings
+                .subMap(dayStart.minus(SLOT), false, dayStart.plusDays(1), false).keySet()) {
+            mask |= bookingMask(dayStart, start);
+        }
+        if (mask == 0L) {
+            calendar.dayMasks.remove(day);
+        } else {
+            calendar.dayMasks.put(day, mask);
+        }
+    }
+
+    /**
+     * Bits of the working day starting at {@code dayStart} touched by a booking starting at {@code start}.
+     */
+    private static long bookingMask(LocalDateTime dayStart, LocalDateTime start) {
+        long startMinute = Duration.between(dayStart, start).toMinutes() - WORKDAY_START_MINUTE;
+        long endMinute = startMinute + SLOT.toMinutes();
+        long first = Math.max(0, Math.floorDiv(startMinute, Constants.SLOT_MINUTES));
+        long last = Math.min(SLOTS_PER_DAY - 1, Math.floorDiv(endMinute - 1, Constants.SLOT_MINUTES));
+        if (first > last) {
+            return 0L;
+        }
+        long width = last - first + 1;
+        long bits = width >= Long.SIZE ? -1L : (1L << width) - 1;
+        return (bits << first) & WORKDAY_MASK;
+    }
+
+    // Caller must hold the calendar monitor
+    private Optional<String> findConflict(DoctorCalendar calendar, String appointmentId, LocalDateTime start) {
+        // Any booking starting strictly within one slot length of 'start' overlaps it
+        return calendar.bookings.subMap(start.minus(SLOT), false, start.plus(SLOT), false)
+                .values().stream()
+                .filter(id -> !id.equals(appointmentId))
+                .findFirst();
+    }
+}
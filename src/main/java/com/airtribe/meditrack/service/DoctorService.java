@@ -1,17 +1,25 @@
 package com.airtribe.meditrack.service;
 
+import com.airtribe.meditrack.constants.Constants;
 import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.KeysetPage;
 import com.airtribe.meditrack.entity.Specialization;
 import com.airtribe.meditrack.exception.InvalidDataException;
 import com.airtribe.meditrack.repository.DoctorRepository;
 import com.airtribe.meditrack.util.IdGenerator;
 import com.airtribe.meditrack.util.Validator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -25,9 +33,35 @@ import java.util.stream.Collectors;
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
-
-    public DoctorService(DoctorRepository doctorRepository) {
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorRecommendationIndex recommendationIndex;
+    private final SymptomDictionary symptomDictionary;
+    private final EntityStreamer entityStreamer;
+    private final WriteAheadJournal journal;
+
+    public DoctorService(DoctorRepository doctorRepository, DoctorDirectory doctorDirectory,
+                         DoctorRecommendationIndex recommendationIndex, SymptomDictionary symptomDictionary,
+                         EntityStreamer entityStreamer, WriteAheadJournal journal) {
         this.doctorRepository = doctorRepository;
+        this.doctorDirectory = doctorDirectory;
+        this.recommendationIndex = recommendationIndex;
+        this.symptomDictionary = symptomDictionary;
+        this.entityStreamer = entityStreamer;
+        this.journal = journal;
+    }
+
+    // --- In-memory indexes ---
+
+    /**
+     * Rebuild in-memory indexes from the database. Runs once at startup and after
+     * bulk loads that bypass the service.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndexes() {
+        List<Doctor> all = doctorRepository.findAll();
+        doctorDirectory.rebuild(all);
+        recommendationIndex.rebuild(all);
     }
 
     // --- CRUD ---
@@ -41,7 +75,13 @@ public class DoctorService {
         if (doctor.getId() == null || doctor.getId().isEmpty()) {
             doctor.setId(IdGenerator.getInstance().nextDoctorId());
         }
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        journal.recordUpsert(saved);
+        TransactionHooks.afterCommit(() -> {
+            doctorDirectory.put(saved);
+            recommendationIndex.put(saved);
+        });
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -49,11 +89,40 @@ public class DoctorService {
         return doctorRepository.findById(id);
     }
 
+    /**
+     * Resolve many doctors with a single query, keyed by ID. Unknown IDs are simply absent.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Doctor> getDoctorsByIds(Collection<String> ids) {
+        return doctorRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Doctor::getId, d -> d));
+    }
+
     @Transactional(readOnly = true)
     public List<Doctor> getAllDoctors() {
         return doctorRepository.findAll();
     }
 
+    /**
+     * Page of doctors with an ID greater than {@code after}, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Doctor> getDoctorsPage(String after, int limit) {
+        Validator.validatePageSize(limit);
+        List<Doctor> rows = doctorRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after : "", Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Doctor::getId);
+    }
+
+    /**
+     * Hand every doctor with an ID greater than {@code after} to {@code action}, in ID order,
+     * without materialising the full list.
+     */
+    @Transactional(readOnly = true)
+    public void streamDoctors(String after, Consumer<? super Doctor> action) {
+        entityStreamer.forEach(doctorRepository.streamByIdGreaterThanOrderByIdAsc(after != null ? after : ""), action);
+    }
+
     public Doctor updateDoctor(String id, Doctor updated) {
         Doctor existing = doctorRepository.findById(id)
                 .orElseThrow(() -> new InvalidDataException("id", "Doctor not found: " + id));
@@ -67,12 +136,23 @@ public class DoctorService {
         if (updated.getConsultationFee() > 0) existing.setConsultationFee(updated.getConsultationFee());
         if (updated.getYearsOfExperience() > 0) existing.setYearsOfExperience(updated.getYearsOfExperience());
 
-        return doctorRepository.save(existing);
+        Doctor saved = doctorRepository.save(existing);
+        journal.recordUpsert(saved);
+        TransactionHooks.afterCommit(() -> {
+            doctorDirectory.put(saved);
+            recommendationIndex.put(saved);
+        });
+        return saved;
     }
 
     public boolean deleteDoctor(String id) {
         if (doctorRepository.existsById(id)) {
             doctorRepository.deleteById(id);
+            journal.recordDelete(Doctor.class, id);
+            TransactionHooks.afterCommit(() -> {
+                doctorDirectory.remove(id);
+                recommendationIndex.remove(id);
+            });
             return true;
         }
         return false;
@@ -81,11 +161,26 @@ public class DoctorService {
     // --- Polymorphism: overloaded search methods ---
 
     /**
-     * Search doctors by keyword (name, specialization, id).
+     * Search doctors by keyword (name, specialization, id), ranked, from the in-memory trigram index.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Doctor> searchDoctors(String keyword) {
-        return doctorRepository.searchByKeyword(keyword);
+        return doctorDirectory.search(keyword, Constants.MAX_SEARCH_RESULTS);
+    }
+
+    /**
+     * Top {@code limit} doctors for free-text symptoms: specializations with more symptom hits first,
+     * then by recommendation score. Falls back to General Medicine when no symptom is recognised.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Doctor> recommendDoctors(String symptoms, int limit) {
+        Validator.validateNotEmpty(symptoms, "symptoms");
+        Validator.validatePageSize(limit);
+        Map<Specialization, Integer> hits = symptomDictionary.matchSpecializations(symptoms);
+        if (hits.isEmpty()) {
+            hits.put(Specialization.GENERAL, 1);
+        }
+        return recommendationIndex.topK(hits, limit);
     }
 
     /**
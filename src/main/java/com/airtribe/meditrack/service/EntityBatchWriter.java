@@ -0,0 +1,64 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.repository.BatchUpsert;
+import com.airtribe.meditrack.util.IdGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes batches of entities with assigned ids as inserts or merges, without a SELECT per row.
+ * Demonstrates: programming to the {@link BatchUpsert} repository fragment, EntityManager.persist
+ * with flush/clear so Hibernate sends JDBC batches.
+ *
+ * The repository decides how a batch is upserted, so writing the same data twice upserts like
+ * saveAll() whichever profile is active. Each batch is its own transaction unless the caller
+ * already has one open. Every bulk path (CSV import, snapshot restore, journal replay) goes
+ * through here, so this is also where {@link IdGenerator} learns about ids it did not hand out.
+ * Rows keep the updatedAt they arrive with, so a restore or replay does not make the next delta
+ * export everything again.
+ */
+@Component
+public class EntityBatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public EntityBatchWriter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public <T extends MedicalEntity> void upsert(Collection<T> batch, BatchUpsert<T> repository) {
+        // Later rows with the same id win within the batch; callers pass batches in file order
+        Map<String, T> byId = new LinkedHashMap<>();
+        batch.forEach(entity -> byId.put(entity.getId(), entity));
+        if (byId.isEmpty()) {
+            return;
+        }
+        byId.keySet().forEach(IdGenerator.getInstance()::reserve);
+        repository.upsertAll(byId.values());
+    }
+
+    /**
+     * Insert entities with generated ids, such as medical history entries, in one flushed batch.
+     */
+    public <T> void insert(Collection<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            batch.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.airtribe.meditrack.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Feeds rows of a repository Stream, or of consecutive keyset pages, to a consumer one at a time.
+ * Demonstrates: Hibernate scrolling via Spring Data Stream results, keyset pagination, bounded memory.
+ *
+ * Each entity is detached once consumed, so the persistence context does not grow with the
+ * result and the full list is never materialised. Must run inside a transaction.
+ */
+@Component
+public class EntityStreamer {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> void forEach(Stream<T> rows, Consumer<? super T> action) {
+        try (rows) {
+            rows.forEach(row -> {
+                action.accept(row);
+                entityManager.detach(row);
+            });
+        }
+    }
+
+    /**
+     * Like {@link #forEach(Stream, Consumer)}, but reads {@code pageSize} rows per query from
+     * {@code page} (rows after the given key, in key order). For entities with collections
+     * fetched per query, such as Patient's SUBSELECT allergies, a page then costs two statements
+     * where a scroll would load each row's collection on its own.
+     */
+    public <T> void forEachPage(String after, int pageSize, BiFunction<String, Limit, List<T>> page,
+                                Function<T, String> key, Consumer<? super T> action) {
+        String cursor = after;
+        List<T> rows;
+        do {
+            rows = page.apply(cursor, Limit.of(pageSize));
+            for (T row : rows) {
+                action.accept(row);
+                entityManager.detach(row);
+            }
+            if (!rows.isEmpty()) {
+                cursor = key.apply(rows.get(rows.size() - 1));
+            }
+        } while (rows.size() == pageSize);
+    }
+}
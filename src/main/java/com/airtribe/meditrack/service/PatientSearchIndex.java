@@ -0,0 +1,48 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.PatientSummary;
+import com.airtribe.meditrack.util.TrigramIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keyword search index over patients (name, ID, blood group — the fields of
+ * Patient.matchesSearchCriteria).
+ * Demonstrates: trigram inverted index kept in sync by the service layer.
+ *
+ * Only IDs are returned; PatientService loads the matching rows by primary key.
+ */
+@Component
+public class PatientSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    public void put(Patient patient) {
+        index.put(patient.getId(), Arrays.asList(patient.getName(), patient.getId(), patient.getBloodGroup()));
+    }
+
+    public void remove(String patientId) {
+        index.remove(patientId);
+    }
+
+    public synchronized void rebuild(Collection<PatientSummary> patients) {
+        index.clear();
+        patients.forEach(p -> index.put(p.id(), Arrays.asList(p.name(), p.id(), p.bloodGroup())));
+        log.info("Patient search index rebuilt with {} patients.", index.size());
+    }
+
+    /**
+     * IDs of matching patients, best matches first.
+     */
+    public List<String> search(String keyword, int limit) {
+        return index.search(keyword, limit);
+    }
+}
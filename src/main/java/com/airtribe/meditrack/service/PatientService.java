@@ -1,16 +1,29 @@
 package com.airtribe.meditrack.service;
 
+import com.airtribe.meditrack.constants.Constants;
+import com.airtribe.meditrack.entity.KeysetPage;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
 import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.PatientSummary;
 import com.airtribe.meditrack.exception.InvalidDataException;
+import com.airtribe.meditrack.repository.MedicalHistoryRepository;
 import com.airtribe.meditrack.repository.PatientRepository;
 import com.airtribe.meditrack.util.IdGenerator;
 import com.airtribe.meditrack.util.Validator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for Patient CRUD and search operations.
@@ -23,9 +36,31 @@ import java.util.Optional;
 public class PatientService {
 
     private final PatientRepository patientRepository;
+    private final MedicalHistoryRepository historyRepository;
+    private final PatientSearchIndex searchIndex;
+    private final EntityStreamer entityStreamer;
+    private final WriteAheadJournal journal;
 
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository, MedicalHistoryRepository historyRepository,
+                          PatientSearchIndex searchIndex, EntityStreamer entityStreamer,
+                          WriteAheadJournal journal) {
         this.patientRepository = patientRepository;
+        this.historyRepository = historyRepository;
+        this.searchIndex = searchIndex;
+        this.entityStreamer = entityStreamer;
+        this.journal = journal;
+    }
+
+    // --- In-memory indexes ---
+
+    /**
+     * Rebuild the keyword search index from the database. Runs once at startup and after
+     * bulk loads that bypass the service.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndexes() {
+        searchIndex.rebuild(patientRepository.findAllSummaries());
     }
 
     // --- CRUD ---
@@ -37,7 +72,11 @@ public class PatientService {
         if (patient.getId() == null || patient.getId().isEmpty()) {
             patient.setId(IdGenerator.getInstance().nextPatientId());
         }
-        return patientRepository.save(patient);
+        Patient saved = patientRepository.save(patient);
+        journal.recordUpsert(saved);
+        appendHistory(saved.getId(), patient.getMedicalHistory());
+        TransactionHooks.afterCommit(() -> searchIndex.put(saved));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -45,11 +84,63 @@ public class PatientService {
         return patientRepository.findById(id);
     }
 
+    /**
+     * Patient with its full medical history, for detail views.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Patient> getPatientDetails(String id) {
+        return patientRepository.findById(id).map(patient -> {
+            patient.setMedicalHistory(historyRepository.findByPatientIdOrderByIdAsc(id).stream()
+                    .map(MedicalHistoryEntry::getEntry)
+                    .collect(Collectors.toCollection(ArrayList::new)));
+            return patient;
+        });
+    }
+
+    /**
+     * Resolve many patients with a single query, keyed by ID. Unknown IDs are simply absent.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Patient> getPatientsByIds(Collection<String> ids) {
+        return patientRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Patient::getId, p -> p));
+    }
+
     @Transactional(readOnly = true)
     public List<Patient> getAllPatients() {
         return patientRepository.findAll();
     }
 
+    /**
+     * All patients without their collections — what list views need, in a single query.
+     */
+    @Transactional(readOnly = true)
+    public List<PatientSummary> getPatientSummaries() {
+        return patientRepository.findAllSummaries();
+    }
+
+    /**
+     * Page of patients with an ID greater than {@code after}, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Patient> getPatientsPage(String after, int limit) {
+        Validator.validatePageSize(limit);
+        List<Patient> rows = patientRepository.findByIdGreaterThanOrderByIdAsc(
+                after != null ? after : "", Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, Patient::getId);
+    }
+
+    /**
+     * Hand every patient with an ID greater than {@code after} to {@code action}, in ID order,
+     * without materialising the full list.
+     */
+    @Transactional(readOnly = true)
+    public void streamPatients(String after, Consumer<? super Patient> action) {
+        // Keyset pages rather than a scroll: a scrolled row loads its EAGER allergies on its own
+        entityStreamer.forEachPage(after != null ? after : "", Constants.STREAM_FETCH_SIZE,
+                patientRepository::findByIdGreaterThanOrderByIdAsc, Patient::getId, action);
+    }
+
     public Patient updatePatient(String id, Patient updated) {
         Patient existing = patientRepository.findById(id)
                 .orElseThrow(() -> new InvalidDataException("id", "Patient not found: " + id));
@@ -61,14 +152,21 @@ public class PatientService {
         if (updated.getEmail() != null) existing.setEmail(updated.getEmail());
         if (updated.getBloodGroup() != null) existing.setBloodGroup(updated.getBloodGroup());
         if (updated.getAllergies() != null) existing.setAllergies(updated.getAllergies());
-        if (updated.getMedicalHistory() != null) existing.setMedicalHistory(updated.getMedicalHistory());
+        // medicalHistory is ignored: a client echoing a fetched patient would duplicate every entry.
+        // History only grows through appendHistoryEntry (POST /api/patients/{id}/history).
 
-        return patientRepository.save(existing);
+        Patient saved = patientRepository.save(existing);
+        journal.recordUpsert(saved);
+        TransactionHooks.afterCommit(() -> searchIndex.put(saved));
+        return saved;
     }
 
     public boolean deletePatient(String id) {
         if (patientRepository.existsById(id)) {
+            historyRepository.deleteByPatientId(id);
             patientRepository.deleteById(id);
+            journal.recordDelete(Patient.class, id);
+            TransactionHooks.afterCommit(() -> searchIndex.remove(id));
             return true;
         }
         return false;
@@ -77,27 +175,34 @@ public class PatientService {
     // --- Polymorphism: overloaded search methods ---
 
     /**
-     * Search by keyword (name, id, blood group).
+     * Search by keyword (name, id, blood group), ranked. Matching IDs come from the in-memory
+     * trigram index; only those rows are read, by primary key.
      */
     @Transactional(readOnly = true)
-    public List<Patient> searchPatients(String keyword) {
-        return patientRepository.searchByKeyword(keyword);
+    public List<PatientSummary> searchPatients(String keyword) {
+        List<String> ids = searchIndex.search(keyword, Constants.MAX_SEARCH_RESULTS);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, PatientSummary> byId = patientRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(PatientSummary::id, p -> p));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     /**
      * Search by name (overloaded).
      */
     @Transactional(readOnly = true)
-    public List<Patient> searchPatientsByName(String name) {
-        return patientRepository.findByNameContainingIgnoreCase(name);
+    public List<PatientSummary> searchPatientsByName(String name) {
+        return patientRepository.findSummariesByName(name);
     }
 
     /**
      * Search by age (overloaded).
      */
     @Transactional(readOnly = true)
-    public List<Patient> searchPatientsByAge(int age) {
-        return patientRepository.findByAge(age);
+    public List<PatientSummary> searchPatientsByAge(int age) {
+        return patientRepository.findSummariesByAge(age);
     }
 
     /**
@@ -111,8 +216,49 @@ public class PatientService {
         cloned.setName(original.getName() + " (Copy)");
         // Deep-copied lists need fresh ArrayList to avoid JPA managed collection issues
         cloned.setAllergies(new ArrayList<>(cloned.getAllergies()));
-        cloned.setMedicalHistory(new ArrayList<>(cloned.getMedicalHistory()));
-        return patientRepository.save(cloned);
+        Patient saved = patientRepository.save(cloned);
+        journal.recordUpsert(saved);
+        TransactionHooks.afterCommit(() -> searchIndex.put(saved));
+        appendHistory(saved.getId(), historyRepository.findByPatientIdOrderByIdAsc(id).stream()
+                .map(MedicalHistoryEntry::getEntry)
+                .toList());
+        return saved;
+    }
+
+    // --- Medical history (append-only) ---
+
+    /**
+     * Append one entry without loading the patient or its existing history: a single insert.
+     */
+    public MedicalHistoryEntry appendHistoryEntry(String patientId, String entry) {
+        Validator.validateNotEmpty(entry, "entry");
+        if (!patientRepository.existsById(patientId)) {
+            throw new InvalidDataException("id", "Patient not found: " + patientId);
+        }
+        MedicalHistoryEntry saved = historyRepository.save(new MedicalHistoryEntry(patientId, entry));
+        journal.recordHistory(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Page of a patient's history entries in recording order, after the given entry id.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<MedicalHistoryEntry> getHistoryPage(String patientId, Long after, int limit) {
+        Validator.validatePageSize(limit);
+        List<MedicalHistoryEntry> rows = historyRepository.findByPatientIdAndIdGreaterThanOrderByIdAsc(
+                patientId, after != null ? after : 0L, Limit.of(limit + 1));
+        return KeysetPage.of(rows, limit, e -> String.valueOf(e.getId()));
+    }
+
+    private void appendHistory(String patientId, List<String> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        journal.recordHistory(historyRepository.saveAll(entries.stream()
+                .filter(e -> e != null && !e.isBlank())
+                .map(e -> new MedicalHistoryEntry(patientId, e))
+                .toList()));
     }
 
     public PatientRepository getRepository() {
@@ -0,0 +1,482 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.Bill;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Person;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.repository.MedicalHistoryRepository;
+import com.airtribe.meditrack.util.SnapshotReader;
+import com.airtribe.meditrack.util.SnapshotWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Saves and restores every entity (doctors, patients with allergies and medical history,
+ * appointments, bills) as one binary snapshot file.
+ * Demonstrates: versioned binary serialization, streaming reads and writes, batched restore.
+ *
+ * Layout after the {@link SnapshotWriter} header: the kind (FULL or DELTA, format version 2+),
+ * the Specialization and AppointmentStatus name tables, then tagged sections, each a run of
+ * records prefixed with RECORD and closed with END_OF_SECTION, and finally END. Entities are
+ * streamed out of the repositories and restored in batches through {@link EntityBatchWriter},
+ * so neither direction holds a full table in memory.
+ *
+ * A FULL snapshot holds everything; restoring a patient replaces its medical history with the
+ * one in the file. A DELTA holds only rows changed in an updatedAt window plus the history
+ * entries recorded in it, which are appended on restore unless the patient already has them, so
+ * replaying a delta twice or over a newer full snapshot does not duplicate history. A restore runs in one transaction, so
+ * a truncated or corrupt file leaves the database as it was.
+ *
+ * The per-entity record codecs are package-private so {@link WriteAheadJournal} encodes its
+ * records exactly like snapshot rows.
+ */
+@Service
+public class SnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotService.class);
+
+    private static final int BUFFER_BYTES = 4 * 1024 * 1024;
+
+    // Section tags
+    private static final int END = 0;
+    private static final int DOCTORS = 1;
+    private static final int PATIENTS = 2;
+    private static final int HISTORY = 3;
+    private static final int APPOINTMENTS = 4;
+    private static final int BILLS = 5;
+
+    private static final int RECORD = 1;
+    private static final int END_OF_SECTION = 0;
+
+    /**
+     * What a snapshot file contains.
+     */
+    public enum Kind { FULL, DELTA }
+
+    // Row sources for one file, each pushing its rows into the given sink
+    private record Sources(Consumer<Consumer<? super Doctor>> doctors,
+                           Consumer<Consumer<? super Patient>> patients,
+                           Consumer<Consumer<? super MedicalHistoryEntry>> history,
+                           Consumer<Consumer<? super Appointment>> appointments,
+                           Consumer<Consumer<? super Bill>> bills) {
+    }
+
+    // Batch consumers for the sections of one file
+    private record Sinks(Consumer<List<Doctor>> doctors,
+                         Consumer<List<Patient>> patients,
+                         Consumer<List<MedicalHistoryEntry>> history,
+                         Consumer<List<Appointment>> appointments,
+                         Consumer<List<Bill>> bills) {
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter<T> {
+        void write(SnapshotWriter out, T record) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RecordReader<T> {
+        T read(SnapshotReader in) throws IOException;
+    }
+
+    private final DoctorService doctorService;
+    private final PatientService patientService;
+    private final AppointmentService appointmentService;
+    private final BillingService billingService;
+    private final MedicalHistoryRepository historyRepository;
+    private final EntityStreamer entityStreamer;
+    private final EntityBatchWriter batchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchRows;
+
+    public SnapshotService(DoctorService doctorService, PatientService patientService,
+                           AppointmentService appointmentService, BillingService billingService,
+                           MedicalHistoryRepository historyRepository, EntityStreamer entityStreamer,
+                           EntityBatchWriter batchWriter, PlatformTransactionManager transactionManager,
+                           @Value("${meditrack.import.batch-rows:1000}") int batchRows) {
+        this.doctorService = doctorService;
+        this.patientService = patientService;
+        this.appointmentService = appointmentService;
+        this.billingService = billingService;
+        this.historyRepository = historyRepository;
+        this.entityStreamer = entityStreamer;
+        this.batchWriter = batchWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchRows = batchRows;
+    }
+
+    // ==================== SAVE ====================
+
+    /**
+     * Write all entities to {@code filePath}; the file is replaced atomically once complete.
+     *
+     * @return records written per section
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> save(String filePath) throws IOException {
+        return write(filePath, Kind.FULL, new Sources(
+                action -> doctorService.streamDoctors("", action),
+                action -> patientService.streamPatients("", action),
+                action -> entityStreamer.forEach(historyRepository.streamAllByOrderByPatientIdAscIdAsc(), action),
+                action -> appointmentService.streamAppointments("", action),
+                action -> billingService.streamBills("", action)));
+    }
+
+    /**
+     * Write a DELTA of the rows whose updatedAt (history: recordedAt) lies in ({@code after}, {@code upTo}].
+     * The updated_at indexes keep the cost proportional to the number of changed rows.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> saveChanges(String filePath, LocalDateTime after, LocalDateTime upTo) throws IOException {
+        return write(filePath, Kind.DELTA, new Sources(
+                action -> entityStreamer.forEach(doctorService.getRepository()
+                        .streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(after, upTo), action),
+                action -> entityStreamer.forEach(patientService.getRepository()
+                        .streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(after, upTo), action),
+                action -> entityStreamer.forEach(historyRepository
+                        .streamByRecordedAtGreaterThanAndRecordedAtLessThanEqualOrderByPatientIdAscIdAsc(after, upTo), action),
+                action -> entityStreamer.forEach(appointmentService.getRepository()
+                        .streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(after, upTo), action),
+                action -> entityStreamer.forEach(billingService.getRepository()
+                        .streamByUpdatedAtGreaterThanAndUpdatedAtLessThanEqual(after, upTo), action)));
+    }
+
+    /**
+     * Merge DELTA files, oldest first, into one DELTA at {@code filePath}: the newest version of
+     * each entity wins and history entries are kept in order. Memory is proportional to the
+     * number of distinct changed rows.
+     */
+    public Map<String, Long> merge(List<String> sourceFiles, String filePath) throws IOException {
+        Map<String, Doctor> doctors = new LinkedHashMap<>();
+        Map<String, Patient> patients = new LinkedHashMap<>();
+        List<MedicalHistoryEntry> history = new ArrayList<>();
+        Map<String, Appointment> appointments = new LinkedHashMap<>();
+        Map<String, Bill> bills = new LinkedHashMap<>();
+        for (String source : sourceFiles) {
+            Kind kind = read(source, new Sinks(
+                    batch -> batch.forEach(d -> doctors.put(d.getId(), d)),
+                    batch -> batch.forEach(p -> patients.put(p.getId(), p)),
+                    history::addAll,
+                    batch -> batch.forEach(a -> appointments.put(a.getId(), a)),
+                    batch -> batch.forEach(b -> bills.put(b.getId(), b))));
+            if (kind != Kind.DELTA) {
+                throw new IOException(source + " is not a delta snapshot");
+            }
+        }
+        return write(filePath, Kind.DELTA, new Sources(
+                action -> doctors.values().forEach(action),
+                action -> patients.values().forEach(action),
+                action -> history.forEach(action),
+                action -> appointments.values().forEach(action),
+                action -> bills.values().forEach(action)));
+    }
+
+    private Map<String, Long> write(String filePath, Kind kind, Sources sources) throws IOException {
+        long started = System.currentTimeMillis();
+        Path target = Paths.get(filePath);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Map<String, Long> counts = new LinkedHashMap<>();
+        try {
+            writeFile(temp, kind, sources, counts);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        log.info("{} snapshot {} written in {} ms ({} bytes): {}",
+                kind, filePath, System.currentTimeMillis() - started, Files.size(target), counts);
+        return counts;
+    }
+
+    private void writeFile(Path temp, Kind kind, Sources sources, Map<String, Long> counts) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             SnapshotWriter out = new SnapshotWriter(channel, BUFFER_BYTES)) {
+            out.writeEnum(kind);
+            out.writeEnumTable(Specialization.class);
+            out.writeEnumTable(AppointmentStatus.class);
+            counts.put("doctors", writeSection(out, DOCTORS, sources.doctors(), SnapshotService::writeDoctor));
+            counts.put("patients", writeSection(out, PATIENTS, sources.patients(), SnapshotService::writePatient));
+            counts.put("historyEntries", writeSection(out, HISTORY, sources.history(), SnapshotService::writeHistoryEntry));
+            counts.put("appointments", writeSection(out, APPOINTMENTS, sources.appointments(), SnapshotService::writeAppointment));
+            counts.put("bills", writeSection(out, BILLS, sources.bills(), SnapshotService::writeBill));
+            out.writeByte(END);
+        }
+    }
+
+    private static <T> long writeSection(SnapshotWriter out, int tag, Consumer<Consumer<? super T>> source,
+                                         RecordWriter<T> writer) throws IOException {
+        out.writeByte(tag);
+        long[] written = {0};
+        try {
+            source.accept(record -> {
+                try {
+                    out.writeByte(RECORD);
+                    writer.write(out, record);
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.writeByte(END_OF_SECTION);
+        return written[0];
+    }
+
+    private static void writeEntity(SnapshotWriter out, MedicalEntity entity) throws IOException {
+        out.writeString(entity.getId());
+        out.writeTimestamp(entity.getCreatedAt());
+        out.writeTimestamp(entity.getUpdatedAt());
+    }
+
+    private static void writePerson(SnapshotWriter out, Person person) throws IOException {
+        writeEntity(out, person);
+        out.writeString(person.getName());
+        out.writeSignedVarLong(person.getAge());
+        out.writeDictionaryString(person.getGender());
+        out.writeString(person.getPhone());
+        out.writeString(person.getEmail());
+    }
+
+    static void writeDoctor(SnapshotWriter out, Doctor d) throws IOException {
+        writePerson(out, d);
+        out.writeEnum(d.getSpecialization());
+        out.writeDouble(d.getConsultationFee());
+        out.writeSignedVarLong(d.getYearsOfExperience());
+    }
+
+    static void writePatient(SnapshotWriter out, Patient p) throws IOException {
+        writePerson(out, p);
+        out.writeDictionaryString(p.getBloodGroup());
+        List<String> allergies = p.getAllergies() != null ? p.getAllergies() : List.of();
+        out.writeVarInt(allergies.size());
+        for (String allergy : allergies) {
+            out.writeDictionaryString(allergy);
+        }
+    }
+
+    static void writeHistoryEntry(SnapshotWriter out, MedicalHistoryEntry e) throws IOException {
+        out.writeDictionaryString(e.getPatientId());
+        out.writeString(e.getEntry());
+        out.writeTimestamp(e.getRecordedAt());
+    }
+
+    static void writeAppointment(SnapshotWriter out, Appointment a) throws IOException {
+        writeEntity(out, a);
+        out.writeDictionaryString(a.getDoctorId());
+        out.writeDictionaryString(a.getPatientId());
+        out.writeDictionaryString(a.getDoctorName());
+        out.writeDictionaryString(a.getPatientName());
+        out.writeTimestamp(a.getAppointmentDateTime());
+        out.writeEnum(a.getStatus());
+        out.writeString(a.getNotes());
+    }
+
+    static void writeBill(SnapshotWriter out, Bill b) throws IOException {
+        writeEntity(out, b);
+        out.writeString(b.getAppointmentId());
+        out.writeDictionaryString(b.getPatientId());
+        out.writeDictionaryString(b.getPatientName());
+        out.writeDictionaryString(b.getDoctorName());
+        out.writeDouble(b.getConsultationFee());
+        out.writeDouble(b.getTaxAmount());
+        out.writeDouble(b.getDiscount());
+        out.writeDouble(b.getTotalAmount());
+        out.writeDictionaryString(b.getBillType());
+        out.writeTimestamp(b.getBilledAt());
+    }
+
+    // ==================== RESTORE ====================
+
+    /**
+     * Upsert every entity in the snapshot at {@code filePath} in a single transaction; if the
+     * file cannot be read to the end nothing is changed. Callers rebuild the in-memory indexes
+     * afterwards, as after a CSV load.
+     *
+     * @return records restored per section
+     */
+    public Map<String, Long> restore(String filePath) throws IOException {
+        long started = System.currentTimeMillis();
+        boolean[] replaceHistory = {true};
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Kind kind;
+        try {
+            // The batch writer joins this transaction and clears the persistence context per batch
+            kind = transactionTemplate.execute(status -> {
+                try {
+                    return read(filePath, new Sinks(
+                            batch -> batchWriter.upsert(batch, doctorService.getRepository()),
+                            batch -> restorePatients(batch, replaceHistory[0]),
+                            batch -> restoreHistory(batch, replaceHistory[0]),
+                            batch -> batchWriter.upsert(batch, appointmentService.getRepository()),
+                            batch -> batchWriter.upsert(batch, billingService.getRepository())),
+                            counts, k -> replaceHistory[0] = k == Kind.FULL);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("{} snapshot {} restored in {} ms: {}", kind, filePath, System.currentTimeMillis() - started, counts);
+        return counts;
+    }
+
+    private Kind read(String filePath, Sinks sinks) throws IOException {
+        return read(filePath, sinks, new LinkedHashMap<>(), kind -> { });
+    }
+
+    private Kind read(String filePath, Sinks sinks, Map<String, Long> counts, Consumer<Kind> onKind) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            SnapshotReader in = new SnapshotReader(channel, BUFFER_BYTES);
+            // Version 1 files predate deltas and are always full snapshots
+            Kind kind = in.formatVersion() >= 2 ? in.readEnum(List.of(Kind.values())) : Kind.FULL;
+            onKind.accept(kind);
+            List<Specialization> specializations = in.readEnumTable(Specialization.class);
+            List<AppointmentStatus> statuses = in.readEnumTable(AppointmentStatus.class);
+            for (int tag = in.readByte(); tag != END; tag = in.readByte()) {
+                switch (tag) {
+                    case DOCTORS -> counts.put("doctors", readSection(in,
+                            r -> readDoctor(r, specializations), sinks.doctors()));
+                    case PATIENTS -> counts.put("patients", readSection(in,
+                            SnapshotService::readPatient, sinks.patients()));
+                    case HISTORY -> counts.put("historyEntries", readSection(in,
+                            SnapshotService::readHistoryEntry, sinks.history()));
+                    case APPOINTMENTS -> counts.put("appointments", readSection(in,
+                            r -> readAppointment(r, statuses), sinks.appointments()));
+                    case BILLS -> counts.put("bills", readSection(in, SnapshotService::readBill, sinks.bills()));
+                    default -> throw new IOException("Unknown snapshot section " + tag);
+                }
+            }
+            return kind;
+        }
+    }
+
+    private void restorePatients(List<Patient> batch, boolean replaceHistory) {
+        // A full snapshot's HISTORY section follows, in the same transaction, and brings the entries back
+        if (replaceHistory) {
+            historyRepository.deleteByPatientIdIn(batch.stream().map(Patient::getId).toList());
+        }
+        batchWriter.upsert(batch, patientService.getRepository());
+    }
+
+    private void restoreHistory(List<MedicalHistoryEntry> batch, boolean replaceHistory) {
+        // After a full snapshot's patients section the history is empty, so only deltas need the check
+        batchWriter.insert(replaceHistory ? batch : historyRepository.missingEntries(batch));
+    }
+
+    private <T> long readSection(SnapshotReader in, RecordReader<T> reader, Consumer<List<T>> sink) throws IOException {
+        long read = 0;
+        List<T> batch = new ArrayList<>(batchRows);
+        while (in.readByte() == RECORD) {
+            batch.add(reader.read(in));
+            read++;
+            if (batch.size() == batchRows) {
+                sink.accept(batch);
+                batch = new ArrayList<>(batchRows);
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+        }
+        return read;
+    }
+
+    private static <T extends MedicalEntity> T readEntity(SnapshotReader in, T entity) throws IOException {
+        entity.setId(in.readString());
+        entity.setCreatedAt(in.readTimestamp());
+        entity.setUpdatedAt(in.readTimestamp());
+        return entity;
+    }
+
+    private static <T extends Person> T readPerson(SnapshotReader in, T person) throws IOException {
+        readEntity(in, person);
+        person.setName(in.readString());
+        person.setAge((int) in.readSignedVarLong());
+        person.setGender(in.readString());
+        person.setPhone(in.readString());
+        person.setEmail(in.readString());
+        return person;
+    }
+
+    static Doctor readDoctor(SnapshotReader in, List<Specialization> specializations) throws IOException {
+        Doctor d = readPerson(in, new Doctor());
+        d.setSpecialization(in.readEnum(specializations));
+        d.setConsultationFee(in.readDouble());
+        d.setYearsOfExperience((int) in.readSignedVarLong());
+        return d;
+    }
+
+    static Patient readPatient(SnapshotReader in) throws IOException {
+        Patient p = readPerson(in, new Patient());
+        p.setBloodGroup(in.readString());
+        int allergies = in.readVarInt();
+        List<String> list = new ArrayList<>(allergies);
+        for (int i = 0; i < allergies; i++) {
+            list.add(in.readString());
+        }
+        p.setAllergies(list);
+        return p;
+    }
+
+    static MedicalHistoryEntry readHistoryEntry(SnapshotReader in) throws IOException {
+        return new MedicalHistoryEntry(in.readString(), in.readString(), in.readTimestamp());
+    }
+
+    static Appointment readAppointment(SnapshotReader in, List<AppointmentStatus> statuses) throws IOException {
+        Appointment a = readEntity(in, new Appointment());
+        a.setDoctorId(in.readString());
+        a.setPatientId(in.readString());
+        a.setDoctorName(in.readString());
+        a.setPatientName(in.readString());
+        a.setAppointmentDateTime(in.readTimestamp());
+        a.setStatus(in.readEnum(statuses));
+        a.setNotes(in.readString());
+        return a;
+    }
+
+    static Bill readBill(SnapshotReader in) throws IOException {
+        Bill b = readEntity(in, new Bill());
+        b.setAppointmentId(in.readString());
+        b.setPatientId(in.readString());
+        b.setPatientName(in.readString());
+        b.setDoctorName(in.readString());
+        b.setConsultationFee(in.readDouble());
+        b.setTaxAmount(in.readDouble());
+        b.setDiscount(in.readDouble());
+        b.setTotalAmount(in.readDouble());
+        b.setBillType(in.readString());
+        b.setBilledAt(in.readTimestamp());
+        return b;
+    }
+}
@@ -0,0 +1,276 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.exception.InvalidDataException;
+import com.airtribe.meditrack.util.SymptomMatcher;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Symptom-to-specialization dictionary loaded from a file and swapped atomically on change.
+ * Demonstrates: memory-mapped file reading, WatchService, immutable snapshot behind a volatile reference.
+ *
+ * Each load parses the whole file and compiles a new SymptomMatcher off to the side; only then is
+ * the snapshot reference replaced. Readers just dereference the volatile field, so they never lock
+ * and never see a half-built dictionary. A file that fails to parse leaves the previous snapshot
+ * in place.
+ *
+ * Without meditrack.symptoms.file the bundled classpath:symptoms.dict is used and not watched.
+ */
+@Component
+public class SymptomDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(SymptomDictionary.class);
+
+    private static final String BUNDLED_DICTIONARY = "symptoms.dict";
+    private static final long RELOAD_SETTLE_MILLIS = 200;
+
+    /**
+     * One loaded version of the dictionary; never modified after publication.
+     */
+    public record Snapshot(long version, SymptomMatcher matcher, String source, Instant loadedAt,
+                           long loadMillis) {
+    }
+
+    private final Path file;
+    private final boolean watch;
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong failedReloads = new AtomicLong();
+    private volatile Snapshot current;
+    private volatile WatchService watchService;
+    private Thread watcher;
+
+    public SymptomDictionary(@Value("${meditrack.symptoms.file:}") String file,
+                             @Value("${meditrack.symptoms.watch:true}") boolean watch) {
+        this.file = file == null || file.isBlank() ? null : Path.of(file).toAbsolutePath().normalize();
+        this.watch = watch;
+        if (this.file == null) {
+            loadBundled();
+        } else {
+            reload();
+        }
+    }
+
+    /**
+     * Whole-word symptom hits per specialization, e.g. "headache and migraine" -> {NEUROLOGY=2}.
+     */
+    public Map<Specialization, Integer> matchSpecializations(String symptoms) {
+        return current.matcher().countHits(symptoms);
+    }
+
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Re-read the configured file and publish it as a new snapshot.
+     *
+     * @throws InvalidDataException if no file is configured or it cannot be read or parsed
+     */
+    public synchronized Snapshot reload() {
+        if (file == null) {
+            throw new InvalidDataException("symptoms", "No symptom dictionary file configured");
+        }
+        long started = System.nanoTime();
+        Map<String, Specialization> entries;
+        try {
+            entries = parse(readMapped(file), file.toString());
+        } catch (IOException e) {
+            failedReloads.incrementAndGet();
+            throw new InvalidDataException("symptoms", "Cannot read symptom dictionary " + file, e);
+        } catch (InvalidDataException e) {
+            failedReloads.incrementAndGet();
+            throw e;
+        }
+        return publish(entries, file.toString(), started);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Snapshot snapshot = current;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("version", snapshot.version());
+        metrics.put("source", snapshot.source());
+        metrics.put("phrases", snapshot.matcher().size());
+        metrics.put("loadedAt", snapshot.loadedAt().toString());
+        metrics.put("lastLoadMillis", snapshot.loadMillis());
+        metrics.put("failedReloads", failedReloads.get());
+        metrics.put("watching", watcher != null && watcher.isAlive());
+        return metrics;
+    }
+
+    // --- File watching ---
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWatching() {
+        if (file == null || !watch || watcher != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.warn("Cannot watch symptom dictionary {}; reload it through the API instead", file, e);
+            return;
+        }
+        watcher = Thread.ofVirtual().name("symptom-dictionary-watcher").start(this::watchLoop);
+        log.info("Watching symptom dictionary {} for changes.", file);
+    }
+
+    @PreDestroy
+    public void stopWatching() throws IOException, InterruptedException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watcher != null) {
+            watcher.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void watchLoop() {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= name.equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    // Editors write in several steps; let them finish, then coalesce the burst
+                    Thread.sleep(RELOAD_SETTLE_MILLIS);
+                    drainPendingEvents();
+                    reloadQuietly();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("Symptom dictionary watcher stopped.");
+        }
+    }
+
+    private void drainPendingEvents() {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (InvalidDataException e) {
+            log.warn("Symptom dictionary reload failed, keeping version {}: {}", current.version(), e.getMessage());
+        }
+    }
+
+    // --- Loading ---
+
+    private void loadBundled() {
+        long started = System.nanoTime();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(BUNDLED_DICTIONARY)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing classpath resource " + BUNDLED_DICTIONARY);
+            }
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            publish(parse(text, BUNDLED_DICTIONARY), "classpath:" + BUNDLED_DICTIONARY, started);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Snapshot publish(Map<String, Specialization> entries, String source, long startedNanos) {
+        SymptomMatcher matcher = new SymptomMatcher(entries);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        Snapshot snapshot = new Snapshot(versions.incrementAndGet(), matcher, source, Instant.now(), millis);
+        current = snapshot;
+        log.info("Symptom dictionary v{} loaded from {}: {} phrases in {} ms.",
+                snapshot.version(), source, matcher.size(), millis);
+        return snapshot;
+    }
+
+    /**
+     * Decode the file straight from a read-only mapping, without an intermediate byte[] copy.
+     */
+    private static CharBuffer readMapped(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return StandardCharsets.UTF_8.newDecoder().decode(bytes);
+            } catch (CharacterCodingException e) {
+                throw new InvalidDataException("symptoms", path + " is not valid UTF-8", e);
+            }
+        }
+    }
+
+    /**
+     * Parse "phrase = SPECIALIZATION" lines; blank lines and '#' comments are skipped.
+     * A later line for the same phrase wins.
+     */
+    static Map<String, Specialization> parse(CharSequence text, String source) {
+        Map<String, Specialization> entries = new LinkedHashMap<>();
+        int lineNumber = 0;
+        int start = 0;
+        while (start < text.length()) {
+            int end = start;
+            while (end < text.length() && text.charAt(end) != '\n') {
+                end++;
+            }
+            lineNumber++;
+            String line = text.subSequence(start, end).toString();
+            start = end + 1;
+
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int eq = line.lastIndexOf('=');
+            String phrase = eq < 0 ? "" : line.substring(0, eq).strip();
+            String spec = eq < 0 ? "" : line.substring(eq + 1).strip();
+            if (phrase.isEmpty() || spec.isEmpty()) {
+                throw new InvalidDataException("symptoms",
+                        source + ":" + lineNumber + ": expected 'phrase = SPECIALIZATION'");
+            }
+            try {
+                entries.put(phrase.toLowerCase(Locale.ROOT), Specialization.valueOf(spec.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidDataException("symptoms",
+                        source + ":" + lineNumber + ": unknown specialization '" + spec + "'");
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,62 @@
+package com.airtribe.meditrack.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write until its transaction has committed, or undoes
+ * them once it has rolled back.
+ * Demonstrates: TransactionSynchronization callbacks.
+ *
+ * Indexes updated in the middle of a transaction would keep phantom entries if it rolled back.
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Run {@code action} after the current transaction commits; immediately if there is none.
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run {@code action} if the current transaction rolls back; never if there is none.
+     */
+    static void afterRollback(Runnable action) {
+        afterCompletion(false, action);
+    }
+
+    /**
+     * Run {@code action} once the current transaction has completed, after a commit when
+     * {@code onCommit} and after a rollback otherwise. Without a transaction only a commit
+     * action runs, immediately. Unlike {@link #afterCommit}, this runs after every afterCommit
+     * callback, and an exception is logged instead of reaching the committing caller.
+     */
+    static void afterCompletion(boolean onCommit, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
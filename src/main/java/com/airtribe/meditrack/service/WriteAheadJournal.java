@@ -0,0 +1,530 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.Bill;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.MedicalEntity;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.util.JournalFrames;
+import com.airtribe.meditrack.util.SnapshotReader;
+import com.airtribe.meditrack.util.SnapshotWriter;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only write-ahead journal of every create, update and delete made through the services.
+ * Demonstrates: group commit, transaction synchronization hooks, a single writer thread, fsync batching.
+ *
+ * Services record changes inside their transaction. Just before it commits, the transaction
+ * flushes (taking its row locks), encodes its records and queues them under the next sequence
+ * number. A transaction that wrote the same row cannot get that far until this one has committed,
+ * so the queue follows database commit order for every row and replay never puts an older
+ * version over a newer one. Encoding before commit also freezes the records: later changes to the
+ * entity objects cannot leak into the journal. The writer appends a transaction's records only
+ * once it has committed, so a rollback leaves no trace.
+ *
+ * One writer thread takes everything queued (waiting up to group-commit-ms for more), appends it
+ * as a single checksummed frame and forces it to disk once; committing callers wait for that only
+ * after their transaction has completed and Hibernate has returned its connection. Many
+ * concurrent writes thus share one fsync, and no lock is held across a commit.
+ *
+ * Records hold the full entity, encoded with the snapshot codecs, so replaying one is an upsert;
+ * history appends are skipped on replay when already present. Each process run writes fresh segment files
+ * (journal-NNNNNNNN.log); {@link CheckpointService} replays them on startup and deletes the ones
+ * a checkpoint snapshot has made redundant.
+ */
+@Component
+public class WriteAheadJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadJournal.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{8})\\.log");
+    private static final int ENCODER_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * What a record does to the entity it carries.
+     */
+    public enum Op { UPSERT, DELETE }
+
+    /**
+     * Which repository a record belongs to.
+     */
+    public enum Type { DOCTOR, PATIENT, HISTORY, APPOINTMENT, BILL }
+
+    /**
+     * One journaled change; {@code value} is the entity for UPSERT and its id for DELETE.
+     */
+    public record Entry(Op op, Type type, Object value) {
+    }
+
+    // A transaction's encoded records, or (records == null) a request to start a new segment;
+    // the writer appends the records once {@code committed} completes with true
+    private record Commit(long sequence, byte[] records, int count,
+                          CompletableFuture<Boolean> committed, CompletableFuture<Integer> done) {
+    }
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long groupCommitNanos;
+    private final int maxGroupRecords;
+    private final long segmentMaxBytes;
+    private final boolean awaitSync;
+    private final BlockingQueue<Commit> queue;
+    // Guards the sequence so commits enter the queue in sequence order
+    private final Object sequencer = new Object();
+    private long sequence;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    // Writer-thread state
+    private FileChannel segment;
+    private int segmentNumber;
+    private long segmentBytes;
+    private final ByteArrayOutputStream encoded = new ByteArrayOutputStream(ENCODER_BUFFER_BYTES);
+    private SnapshotWriter encoder;
+
+    public WriteAheadJournal(@Value("${meditrack.journal.enabled:false}") boolean enabled,
+                             @Value("${meditrack.journal.directory:data/journal}") String directory,
+                             @Value("${meditrack.journal.group-commit-ms:2}") long groupCommitMillis,
+                             @Value("${meditrack.journal.max-group-records:4096}") int maxGroupRecords,
+                             @Value("${meditrack.journal.segment-mb:64}") int segmentMegabytes,
+                             @Value("${meditrack.journal.queue-capacity:65536}") int queueCapacity,
+                             @Value("${meditrack.journal.await-sync:true}") boolean awaitSync) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+        this.maxGroupRecords = maxGroupRecords;
+        this.segmentMaxBytes = segmentMegabytes * 1024L * 1024L;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.awaitSync = awaitSync;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // ==================== RECORDING (service threads) ====================
+
+    public void recordUpsert(MedicalEntity entity) {
+        recordUpserts(List.of(entity));
+    }
+
+    public void recordUpserts(Collection<? extends MedicalEntity> entities) {
+        if (!enabled) return;
+        List<Entry> entries = new ArrayList<>(entities.size());
+        for (MedicalEntity entity : entities) {
+            entries.add(new Entry(Op.UPSERT, typeOf(entity.getClass()), entity));
+        }
+        record(entries);
+    }
+
+    public void recordHistory(Collection<MedicalHistoryEntry> entries) {
+        if (!enabled || entries.isEmpty()) return;
+        record(entries.stream().map(e -> new Entry(Op.UPSERT, Type.HISTORY, e)).toList());
+    }
+
+    /**
+     * Record a delete; deleting a patient also deletes its history on replay.
+     */
+    public void recordDelete(Class<? extends MedicalEntity> type, String id) {
+        if (!enabled) return;
+        record(List.of(new Entry(Op.DELETE, typeOf(type), id)));
+    }
+
+    private void record(List<Entry> entries) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            await(enqueue(encode(entries), entries.size(), CompletableFuture.completedFuture(true)), entries.size());
+            return;
+        }
+        TransactionRecords pending = (TransactionRecords) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new TransactionRecords();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.entries.addAll(entries);
+    }
+
+    /**
+     * The records of one transaction, queued in beforeCommit and released to the writer by the outcome.
+     */
+    private final class TransactionRecords implements TransactionSynchronization {
+
+        private final List<Entry> entries = new ArrayList<>();
+        private final CompletableFuture<Boolean> committed = new CompletableFuture<>();
+        private CompletableFuture<Integer> done;
+
+        @Override
+        public int getOrder() {
+            // Release the writer before the other after-commit callbacks run
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Hold every row lock before taking a sequence number, so conflicting writers queue in commit order
+            if (!readOnly) entityManager.flush();
+            done = enqueue(encode(entries), entries.size(), committed);
+        }
+
+        @Override
+        public void afterCommit() {
+            committed.complete(true);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            committed.complete(false);
+            TransactionSynchronizationManager.unbindResourceIfPossible(WriteAheadJournal.this);
+            if (status == STATUS_COMMITTED) {
+                await(done, entries.size());
+            }
+        }
+    }
+
+    private static byte[] encode(List<Entry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SnapshotWriter out = SnapshotWriter.fragment(Channels.newChannel(bytes), 8 * 1024);
+        try {
+            for (Entry entry : entries) {
+                encode(out, entry);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode " + entries.size() + " journal records", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private CompletableFuture<Integer> enqueue(byte[] records, int count, CompletableFuture<Boolean> committed) {
+        try {
+            synchronized (sequencer) {
+                Commit commit = new Commit(++sequence, records, count, committed, new CompletableFuture<>());
+                queue.put(commit);
+                return commit.done();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted before {} journal records were queued; they may be lost on restart", count);
+            return null;
+        }
+    }
+
+    private void await(CompletableFuture<Integer> done, int records) {
+        // Before start() the records wait in the queue and are written once the journal opens
+        if (done == null || !awaitSync || !running) return;
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted before {} journal records were durable", records);
+        } catch (ExecutionException e) {
+            // The change is committed; all that can be done is to report it
+            log.error("Journal write failed; {} committed records may be lost on restart: {}",
+                    records, e.getCause().getMessage());
+        }
+    }
+
+    private static Type typeOf(Class<?> type) {
+        if (Doctor.class.isAssignableFrom(type)) return Type.DOCTOR;
+        if (Patient.class.isAssignableFrom(type)) return Type.PATIENT;
+        if (Appointment.class.isAssignableFrom(type)) return Type.APPOINTMENT;
+        if (Bill.class.isAssignableFrom(type)) return Type.BILL;
+        throw new IllegalArgumentException("Not a journaled entity: " + type.getSimpleName());
+    }
+
+    // ==================== WRITER THREAD ====================
+
+    /**
+     * Start appending at segment {@code firstSegment}; called once recovery has replayed the
+     * existing segments.
+     */
+    public synchronized void start(int firstSegment) throws IOException {
+        if (!enabled || running) return;
+        Files.createDirectories(directory);
+        openSegment(firstSegment);
+        running = true;
+        writer = Thread.ofPlatform().name("journal-writer").daemon(true).start(this::writeLoop);
+    }
+
+    /**
+     * Close the current segment and continue in a new one. Every record committed before this
+     * call is in an older segment once it returns.
+     *
+     * @return number of the new segment
+     */
+    public int rotate() throws IOException {
+        if (!running) {
+            throw new IOException("The journal is not running");
+        }
+        try {
+            CompletableFuture<Integer> rotated = enqueue(null, 0, CompletableFuture.completedFuture(true));
+            if (rotated == null) {
+                throw new InterruptedException();
+            }
+            return rotated.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rotating the journal", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Journal rotation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void writeLoop() {
+        List<Commit> group = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                Commit first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                collectGroup(group);
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+        closeSegment();
+    }
+
+    /**
+     * Gather more commits until the group is full or the group-commit window has passed.
+     */
+    private void collectGroup(List<Commit> group) throws InterruptedException {
+        long deadline = System.nanoTime() + groupCommitNanos;
+        int records = group.get(0).count();
+        while (records < maxGroupRecords && group.get(group.size() - 1).records() != null) {
+            Commit next = queue.poll();
+            if (next == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                    return;
+                }
+            }
+            group.add(next);
+            records += next.count();
+        }
+    }
+
+    private void writeGroup(List<Commit> group) throws InterruptedException {
+        try {
+            // The queue holds commits in sequence order, so appending in queue order follows it
+            for (Commit commit : group) {
+                if (commit.records() == null) {
+                    continue;
+                }
+                // Wait for the outcome, so a transaction that rolls back in its commit leaves no trace
+                if (outcome(commit)) {
+                    encoded.writeBytes(commit.records());
+                } else {
+                    log.debug("Journal commit {} rolled back; its {} records are dropped", commit.sequence(), commit.count());
+                }
+            }
+            flushFrame();
+            Commit last = group.get(group.size() - 1);
+            if (last.records() == null || segmentBytes >= segmentMaxBytes) {
+                closeSegment();
+                openSegment(segmentNumber + 1);
+            }
+            group.forEach(commit -> commit.done().complete(segmentNumber));
+        } catch (IOException | RuntimeException e) {
+            log.error("Journal segment {} write failed: {}", segmentNumber, e.getMessage());
+            group.forEach(commit -> commit.done().completeExceptionally(e));
+            // Frames after a failed one could not be replayed, so continue in a new segment
+            try {
+                closeSegment();
+                openSegment(segmentNumber + 1);
+            } catch (IOException reopen) {
+                log.error("Journal could not open a new segment: {}", reopen.getMessage());
+            }
+        }
+    }
+
+    private static boolean outcome(Commit commit) throws InterruptedException {
+        try {
+            return commit.committed().get();
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    private static void encode(SnapshotWriter out, Entry entry) throws IOException {
+        out.writeEnum(entry.op());
+        out.writeEnum(entry.type());
+        if (entry.op() == Op.DELETE) {
+            out.writeString((String) entry.value());
+            return;
+        }
+        switch (entry.type()) {
+            case DOCTOR -> SnapshotService.writeDoctor(out, (Doctor) entry.value());
+            case PATIENT -> SnapshotService.writePatient(out, (Patient) entry.value());
+            case HISTORY -> SnapshotService.writeHistoryEntry(out, (MedicalHistoryEntry) entry.value());
+            case APPOINTMENT -> SnapshotService.writeAppointment(out, (Appointment) entry.value());
+            case BILL -> SnapshotService.writeBill(out, (Bill) entry.value());
+        }
+    }
+
+    private void flushFrame() throws IOException {
+        encoder.flush();
+        if (encoded.size() == 0) {
+            return;
+        }
+        segmentBytes += JournalFrames.write(segment, encoded.toByteArray(), encoded.size());
+        segment.force(false);
+        encoded.reset();
+    }
+
+    /**
+     * A new segment starts with the snapshot header and the enum name tables, as its first frame.
+     */
+    private void openSegment(int number) throws IOException {
+        segmentNumber = number;
+        segment = FileChannel.open(directory.resolve(segmentName(number)),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentBytes = 0;
+        encoded.reset();
+        encoder = new SnapshotWriter(Channels.newChannel(encoded), ENCODER_BUFFER_BYTES);
+        encoder.writeEnumTable(Op.class);
+        encoder.writeEnumTable(Type.class);
+        encoder.writeEnumTable(Specialization.class);
+        encoder.writeEnumTable(AppointmentStatus.class);
+        flushFrame();
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Closing journal segment {} failed: {}", segmentNumber, e.getMessage());
+        }
+        segment = null;
+    }
+
+    // ==================== SEGMENT FILES ====================
+
+    static String segmentName(int number) {
+        return String.format("journal-%08d.log", number);
+    }
+
+    /**
+     * Numbers of the segment files on disk, ascending.
+     */
+    public List<Integer> listSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(f -> SEGMENT_NAME.matcher(f.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(m -> Integer.parseInt(m.group(1)))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    public Path segmentPath(int number) {
+        return directory.resolve(segmentName(number));
+    }
+
+    /**
+     * Feed every intact record of a segment to {@code sink}, in order.
+     *
+     * @return true if the segment ended with a torn (never acknowledged) frame
+     */
+    public boolean read(int number, Consumer<Entry> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(number), StandardOpenOption.READ)) {
+            JournalFrames.Reader frames = new JournalFrames.Reader(channel);
+            SnapshotReader in;
+            try {
+                in = new SnapshotReader(frames, ENCODER_BUFFER_BYTES);
+            } catch (EOFException e) {
+                // Crashed before the header frame was complete: nothing was acknowledged
+                return true;
+            }
+            List<Op> ops = in.readEnumTable(Op.class);
+            List<Type> types = in.readEnumTable(Type.class);
+            List<Specialization> specializations = in.readEnumTable(Specialization.class);
+            List<AppointmentStatus> statuses = in.readEnumTable(AppointmentStatus.class);
+            while (!in.atEnd()) {
+                Op op = in.readEnum(ops);
+                Type type = in.readEnum(types);
+                if (op == Op.DELETE) {
+                    sink.accept(new Entry(op, type, in.readString()));
+                    continue;
+                }
+                Object value = switch (type) {
+                    case DOCTOR -> SnapshotService.readDoctor(in, specializations);
+                    case PATIENT -> SnapshotService.readPatient(in);
+                    case HISTORY -> SnapshotService.readHistoryEntry(in);
+                    case APPOINTMENT -> SnapshotService.readAppointment(in, statuses);
+                    case BILL -> SnapshotService.readBill(in);
+                };
+                sink.accept(new Entry(op, type, value));
+            }
+            return frames.isTorn();
+        }
+    }
+}
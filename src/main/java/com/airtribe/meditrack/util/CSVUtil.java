@@ -2,15 +2,14 @@ package com.airtribe.meditrack.util;
 
 import com.airtribe.meditrack.entity.Appointment;
 import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.Bill;
 import com.airtribe.meditrack.entity.Doctor;
 import com.airtribe.meditrack.entity.Patient;
 import com.airtribe.meditrack.entity.Specialization;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -19,8 +18,11 @@ import java.util.List;
 
 /**
  * CSV utility for file I/O persistence.
- * Demonstrates: File I/O, try-with-resources, String.split(",") parsing,
+ * Demonstrates: File I/O, try-with-resources, streaming RFC 4180 parsing with typed row mappers,
  * serialization/deserialization to CSV format.
+ *
+ * Files are read and written as UTF-8 through {@link CsvReader} and {@link CsvWriter}, so names
+ * and notes containing commas, quotes or line breaks round-trip intact.
  */
 public final class CSVUtil {
 
@@ -36,131 +38,161 @@ public final class CSVUtil {
         }
     }
 
+    private static CsvWriter writer(String filePath) throws IOException {
+        ensureDirectoryExists(filePath);
+        return new CsvWriter(Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse every data row of a CSV file with a header; a missing file yields an empty list.
+     */
+    public static <T> List<T> load(String filePath, CsvReader.RowMapper<T> mapper) throws IOException {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) return new ArrayList<>();
+
+        // CsvReader buffers itself, so the stream is not wrapped in a BufferedReader
+        try (CsvReader reader = new CsvReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8))) {
+            reader.skipHeader();
+            return reader.readAll(mapper);
+        }
+    }
+
     // ==================== DOCTORS ====================
 
+    public static final String[] DOCTOR_HEADER = {"id", "name", "age", "gender", "phone", "email",
+            "specialization", "consultationFee", "yearsOfExperience"};
+
     public static void saveDoctors(List<Doctor> doctors, String filePath) throws IOException {
-        ensureDirectoryExists(filePath);
         // try-with-resources — auto-closes writer
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write("id,name,age,gender,phone,email,specialization,consultationFee,yearsOfExperience");
-            writer.newLine();
+        try (CsvWriter writer = writer(filePath)) {
+            writer.row(DOCTOR_HEADER);
             for (Doctor d : doctors) {
-                writer.write(String.join(",",
-                        d.getId(), d.getName(), String.valueOf(d.getAge()),
-                        d.getGender(), d.getPhone(), d.getEmail(),
-                        d.getSpecialization().name(),
-                        String.valueOf(d.getConsultationFee()),
-                        String.valueOf(d.getYearsOfExperience())));
-                writer.newLine();
+                writeDoctor(writer, d);
             }
         }
     }
 
+    public static void writeDoctor(CsvWriter writer, Doctor d) throws IOException {
+        writer.field(d.getId()).field(d.getName()).field(d.getAge())
+                .field(d.getGender()).field(d.getPhone()).field(d.getEmail())
+                .field(d.getSpecialization())
+                .field(d.getConsultationFee())
+                .field(d.getYearsOfExperience())
+                .endRow();
+    }
+
     public static List<Doctor> loadDoctors(String filePath) throws IOException {
-        List<Doctor> doctors = new ArrayList<>();
-        Path path = Paths.get(filePath);
-        if (!Files.exists(path)) return doctors;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line = reader.readLine(); // skip header
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 9) {
-                    Doctor d = new Doctor(
-                            parts[0].trim(), parts[1].trim(),
-                            Integer.parseInt(parts[2].trim()),
-                            parts[3].trim(), parts[4].trim(), parts[5].trim(),
-                            Specialization.valueOf(parts[6].trim()),
-                            Double.parseDouble(parts[7].trim()),
-                            Integer.parseInt(parts[8].trim())
-                    );
-                    doctors.add(d);
-                }
-            }
-        }
-        return doctors;
+        return load(filePath, CSVUtil::mapDoctor);
+    }
+
+    /**
+     * Row mapper for the doctors file; rows with fewer than 9 fields are skipped.
+     */
+    public static Doctor mapDoctor(CsvReader row) {
+        if (row.fieldCount() < 9) return null;
+        return new Doctor(
+                row.getTrimmed(0), row.getTrimmed(1),
+                row.getInt(2),
+                row.getTrimmed(3), row.getTrimmed(4), row.getTrimmed(5),
+                Specialization.valueOf(row.getTrimmed(6)),
+                row.getDouble(7),
+                row.getInt(8)
+        );
     }
 
     // ==================== PATIENTS ====================
 
+    public static final String[] PATIENT_HEADER = {"id", "name", "age", "gender", "phone", "email", "bloodGroup"};
+
     public static void savePatients(List<Patient> patients, String filePath) throws IOException {
-        ensureDirectoryExists(filePath);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write("id,name,age,gender,phone,email,bloodGroup");
-            writer.newLine();
+        try (CsvWriter writer = writer(filePath)) {
+            writer.row(PATIENT_HEADER);
             for (Patient p : patients) {
-                writer.write(String.join(",",
-                        p.getId(), p.getName(), String.valueOf(p.getAge()),
-                        p.getGender(), p.getPhone(), p.getEmail(),
-                        p.getBloodGroup()));
-                writer.newLine();
+                writePatient(writer, p);
             }
         }
     }
 
+    public static void writePatient(CsvWriter writer, Patient p) throws IOException {
+        writer.field(p.getId()).field(p.getName()).field(p.getAge())
+                .field(p.getGender()).field(p.getPhone()).field(p.getEmail())
+                .field(p.getBloodGroup())
+                .endRow();
+    }
+
     public static List<Patient> loadPatients(String filePath) throws IOException {
-        List<Patient> patients = new ArrayList<>();
-        Path path = Paths.get(filePath);
-        if (!Files.exists(path)) return patients;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line = reader.readLine(); // skip header
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 7) {
-                    Patient p = new Patient(
-                            parts[0].trim(), parts[1].trim(),
-                            Integer.parseInt(parts[2].trim()),
-                            parts[3].trim(), parts[4].trim(), parts[5].trim(),
-                            parts[6].trim()
-                    );
-                    patients.add(p);
-                }
-            }
-        }
-        return patients;
+        return load(filePath, CSVUtil::mapPatient);
+    }
+
+    /**
+     * Row mapper for the patients file; rows with fewer than 7 fields are skipped.
+     */
+    public static Patient mapPatient(CsvReader row) {
+        if (row.fieldCount() < 7) return null;
+        return new Patient(
+                row.getTrimmed(0), row.getTrimmed(1),
+                row.getInt(2),
+                row.getTrimmed(3), row.getTrimmed(4), row.getTrimmed(5),
+                row.getTrimmed(6)
+        );
     }
 
     // ==================== APPOINTMENTS ====================
 
+    public static final String[] APPOINTMENT_HEADER = {"id", "doctorId", "patientId", "doctorName", "patientName",
+            "dateTime", "status", "notes"};
+
     public static void saveAppointments(List<Appointment> appointments, String filePath) throws IOException {
-        ensureDirectoryExists(filePath);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write("id,doctorId,patientId,doctorName,patientName,dateTime,status,notes");
-            writer.newLine();
+        try (CsvWriter writer = writer(filePath)) {
+            writer.row(APPOINTMENT_HEADER);
             for (Appointment a : appointments) {
-                writer.write(String.join(",",
-                        a.getId(), a.getDoctorId(), a.getPatientId(),
-                        a.getDoctorName(), a.getPatientName(),
-                        DateUtil.formatForStorage(a.getAppointmentDateTime()),
-                        a.getStatus().name(),
-                        a.getNotes() != null ? a.getNotes() : ""));
-                writer.newLine();
+                writeAppointment(writer, a);
             }
         }
     }
 
+    public static void writeAppointment(CsvWriter writer, Appointment a) throws IOException {
+        writer.field(a.getId()).field(a.getDoctorId()).field(a.getPatientId())
+                .field(a.getDoctorName()).field(a.getPatientName())
+                .field(DateUtil.formatForStorage(a.getAppointmentDateTime()))
+                .field(a.getStatus())
+                .field(a.getNotes())
+                .endRow();
+    }
+
     public static List<Appointment> loadAppointments(String filePath) throws IOException {
-        List<Appointment> appointments = new ArrayList<>();
-        Path path = Paths.get(filePath);
-        if (!Files.exists(path)) return appointments;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line = reader.readLine(); // skip header
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 7) {
-                    Appointment a = new Appointment(
-                            parts[0].trim(), parts[1].trim(), parts[2].trim(),
-                            parts[3].trim(), parts[4].trim(),
-                            DateUtil.parseFromStorage(parts[5].trim()),
-                            parts.length > 7 ? parts[7].trim() : ""
-                    );
-                    a.setStatus(AppointmentStatus.valueOf(parts[6].trim()));
-                    appointments.add(a);
-                }
-            }
-        }
-        return appointments;
+        return load(filePath, CSVUtil::mapAppointment);
+    }
+
+    /**
+     * Row mapper for the appointments file; notes are optional, rows with fewer than 7 fields are skipped.
+     */
+    public static Appointment mapAppointment(CsvReader row) {
+        if (row.fieldCount() < 7) return null;
+        Appointment a = new Appointment(
+                row.getTrimmed(0), row.getTrimmed(1), row.getTrimmed(2),
+                row.getTrimmed(3), row.getTrimmed(4),
+                DateUtil.parseFromStorage(row.getTrimmed(5)),
+                row.getTrimmed(7)
+        );
+        a.setStatus(AppointmentStatus.valueOf(row.getTrimmed(6)));
+        return a;
+    }
+
+    // ==================== BILLS ====================
+
+    public static final String[] BILL_HEADER = {"id", "appointmentId", "patientId", "patientName", "doctorName",
+            "consultationFee", "taxAmount", "discount", "totalAmount", "billType", "billedAt"};
+
+    public static void writeBill(CsvWriter writer, Bill b) throws IOException {
+        writer.field(b.getId()).field(b.getAppointmentId()).field(b.getPatientId())
+                .field(b.getPatientName()).field(b.getDoctorName())
+                .field(b.getConsultationFee())
+                .field(b.getTaxAmount())
+                .field(b.getDiscount())
+                .field(b.getTotalAmount())
+                .field(b.getBillType())
+                .field(DateUtil.formatForStorage(b.getBilledAt()))
+                .endRow();
     }
 }
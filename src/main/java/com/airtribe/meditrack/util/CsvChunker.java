@@ -0,0 +1,176 @@
+package com.airtribe.meditrack.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Splits a memory-mapped CSV file into record-aligned chunks that can be parsed independently.
+ * Demonstrates: memory-mapped I/O (FileChannel.map), parallel prefix computation, ByteBuffer slicing.
+ *
+ * In RFC 4180 a line break ends a record exactly when an even number of quote characters
+ * precedes it, because quotes only open, close or escape ({@code ""}) quoted fields. The file is
+ * cut into fixed-size regions; workers count the quotes in each region in parallel, a prefix over
+ * those counts gives the quote parity at every region start, and each region's chunk then starts
+ * after its first even-parity line break. Only the bytes of one record per region are scanned twice.
+ */
+public final class CsvChunker {
+
+    /**
+     * Byte range [offset, offset + length) holding whole records; the first chunk holds the header.
+     */
+    public record Chunk(int index, long offset, long length) {
+    }
+
+    private CsvChunker() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Record-aligned chunks of roughly {@code chunkBytes} each, covering the whole file in order.
+     */
+    public static List<Chunk> split(FileChannel channel, long chunkBytes, ExecutorService workers) throws IOException {
+        long size = channel.size();
+        int regions = (int) Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+
+        List<Long> quotes = runAll(workers, regions,
+                r -> countQuotes(channel, r * chunkBytes, Math.min(size, (r + 1) * chunkBytes)));
+        boolean[] oddAtStart = new boolean[regions];
+        long seen = 0;
+        for (int r = 0; r < regions; r++) {
+            oddAtStart[r] = (seen & 1) == 1;
+            seen += quotes.get(r);
+        }
+        List<Long> starts = runAll(workers, regions,
+                r -> r == 0 ? 0L : recordStart(channel, r * chunkBytes, size, oddAtStart[r]));
+
+        List<Chunk> chunks = new ArrayList<>();
+        for (int r = 0; r < regions; r++) {
+            long start = starts.get(r);
+            long end = r + 1 < regions ? starts.get(r + 1) : size;
+            // Empty when one record spans the whole region; the next chunk starts at the same offset
+            if (end > start) {
+                chunks.add(new Chunk(chunks.size(), start, end - start));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * UTF-8 reader over one chunk; boundaries fall on line breaks, so no character is split.
+     */
+    public static Reader open(FileChannel channel, Chunk chunk) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, chunk.offset(), chunk.length());
+        return new InputStreamReader(new ByteBufferInputStream(mapped), StandardCharsets.UTF_8);
+    }
+
+    // --- Scanning ---
+
+    private static long countQuotes(FileChannel channel, long from, long to) throws IOException {
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        long quotes = 0;
+        for (int i = 0, n = region.limit(); i < n; i++) {
+            if (region.get(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Offset just after the first record-ending line break at or after {@code from}, or the file size.
+     */
+    private static long recordStart(FileChannel channel, long from, long size, boolean oddQuotes) throws IOException {
+        boolean inQuotes = oddQuotes;
+        long position = from;
+        while (position < size) {
+            long window = Math.min(size - position, Integer.MAX_VALUE);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            for (int i = 0; i < window; i++) {
+                byte b = mapped.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    return position + i + 1;
+                }
+            }
+            position += window;
+        }
+        return size;
+    }
+
+    @FunctionalInterface
+    private interface RegionTask {
+        long apply(int region) throws IOException;
+    }
+
+    private static List<Long> runAll(ExecutorService workers, int regions, RegionTask task) throws IOException {
+        List<Future<Long>> futures = new ArrayList<>(regions);
+        for (int r = 0; r < regions; r++) {
+            int region = r;
+            futures.add(workers.submit(() -> task.apply(region)));
+        }
+        List<Long> results = new ArrayList<>(regions);
+        try {
+            for (Future<Long> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IOException("Interrupted while splitting CSV file", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to split CSV file", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * InputStream view of a ByteBuffer, so chunk bytes are decoded without copying them to the heap first.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.airtribe.meditrack.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streaming RFC 4180 CSV parser.
+ * Demonstrates: hand-written state machine, reusable buffers, functional interfaces.
+ *
+ * Input is pulled through one reusable char buffer; each record's fields are copied once into a
+ * reusable record buffer (with {@code ""} escapes resolved) and addressed by offsets, so reading a
+ * row allocates nothing until a mapper asks for a String. Quoted fields may contain commas, quotes
+ * and line breaks. CRLF and LF line endings are accepted; blank lines are skipped.
+ */
+public final class CsvReader implements Closeable {
+
+    /**
+     * Maps the current record to a value; returning null skips the row.
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(CsvReader row);
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private char[] record = new char[256];
+    private int recordLength;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private boolean[] fieldQuoted = new boolean[16];
+    private int fieldCount;
+    private long lineNumber;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    // --- Record iteration ---
+
+    /**
+     * Advance to the next non-blank record; false at end of input.
+     */
+    public boolean next() throws IOException {
+        do {
+            if (!readRecord()) {
+                return false;
+            }
+        } while (fieldCount == 1 && fieldEnd[0] == fieldStart[0] && !fieldQuoted[0]);
+        return true;
+    }
+
+    /**
+     * Skip a header record; false if the input is empty.
+     */
+    public boolean skipHeader() throws IOException {
+        return next();
+    }
+
+    /**
+     * Map every remaining record, passing non-null results to the consumer.
+     */
+    public <T> void forEach(RowMapper<T> mapper, Consumer<? super T> consumer) throws IOException {
+        while (next()) {
+            T value = mapper.map(this);
+            if (value != null) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    public <T> List<T> readAll(RowMapper<T> mapper) throws IOException {
+        List<T> rows = new ArrayList<>();
+        forEach(mapper, rows::add);
+        return rows;
+    }
+
+    // --- Field access for the current record ---
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Physical line on which the current record ended (1-based), for error messages.
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    public boolean isEmpty(int index) {
+        return index >= fieldCount || fieldEnd[index] == fieldStart[index];
+    }
+
+    public String getString(int index) {
+        if (index >= fieldCount) {
+            return "";
+        }
+        return new String(record, fieldStart[index], fieldEnd[index] - fieldStart[index]);
+    }
+
+    /**
+     * Field with surrounding whitespace removed, as the original split-and-trim loader read it.
+     * Quoted fields are returned verbatim, since their quotes mark exactly where they start and end.
+     */
+    public String getTrimmed(int index) {
+        if (index >= fieldCount) {
+            return "";
+        }
+        int start = fieldStart[index];
+        int end = fieldEnd[index];
+        if (!fieldQuoted[index]) {
+            while (start < end && record[start] <= ' ') start++;
+            while (end > start && record[end - 1] <= ' ') end--;
+        }
+        return new String(record, start, end - start);
+    }
+
+    /**
+     * Field as a CharSequence view over the record buffer; valid until the next call to {@link #next()}.
+     */
+    public CharSequence getChars(int index) {
+        if (index >= fieldCount) {
+            return "";
+        }
+        return CharBuffer.wrap(record, fieldStart[index], fieldEnd[index] - fieldStart[index]);
+    }
+
+    /**
+     * Parse an integer straight from the record buffer, ignoring surrounding blanks.
+     */
+    public int getInt(int index) {
+        long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw numberError(index);
+        }
+        return (int) value;
+    }
+
+    public long getLong(int index) {
+        if (index >= fieldCount) {
+            throw numberError(index);
+        }
+        int i = fieldStart[index];
+        int end = fieldEnd[index];
+        while (i < end && record[i] == ' ') i++;
+        while (end > i && record[end - 1] == ' ') end--;
+        boolean negative = i < end && record[i] == '-';
+        if (negative || (i < end && record[i] == '+')) i++;
+        if (i == end) {
+            throw numberError(index);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw numberError(index);
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    public double getDouble(int index) {
+        try {
+            return Double.parseDouble(getString(index).trim());
+        } catch (NumberFormatException e) {
+            throw numberError(index);
+        }
+    }
+
+    private NumberFormatException numberError(int index) {
+        return new NumberFormatException("Line " + lineNumber + ", field " + (index + 1)
+                + ": not a number: '" + getString(index) + "'");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // --- Parser ---
+
+    private boolean readRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        if (!fill()) {
+            return false;
+        }
+        lineNumber++;
+        beginField();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                if (quoted) {
+                    throw new IOException("Line " + lineNumber + ": unterminated quoted field");
+                }
+                endField();
+                return true;
+            }
+            char c = buffer[position++];
+            if (quoted) {
+                if (c == QUOTE) {
+                    if (position == limit && !fill()) {
+                        quoted = false;
+                        afterQuote = true;
+                        continue;
+                    }
+                    if (buffer[position] == QUOTE) {
+                        append(QUOTE);
+                        position++;
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    append(c);
+                }
+            } else if (c == SEPARATOR) {
+                endField();
+                beginField();
+                afterQuote = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && (position < limit || fill()) && buffer[position] == '\n') {
+                    position++;
+                }
+                endField();
+                return true;
+            } else if (c == QUOTE && recordLength == fieldStart[fieldCount] && !afterQuote) {
+                quoted = true;
+                fieldQuoted[fieldCount] = true;
+            } else {
+                // Lenient: characters after a closing quote are kept as-is
+                append(c);
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private void beginField() {
+        if (fieldCount == fieldStart.length) {
+            int grown = fieldCount * 2;
+            fieldStart = Arrays.copyOf(fieldStart, grown);
+            fieldEnd = Arrays.copyOf(fieldEnd, grown);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, grown);
+        }
+        fieldStart[fieldCount] = recordLength;
+        fieldQuoted[fieldCount] = false;
+    }
+
+    private void endField() {
+        fieldEnd[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+    private void append(char c) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = c;
+    }
+}
@@ -0,0 +1,107 @@
+package com.airtribe.meditrack.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * RFC 4180 CSV writer, the counterpart of {@link CsvReader}.
+ * Demonstrates: fluent API, escaping, Closeable.
+ *
+ * Fields containing a comma, quote, line break or leading/trailing blank are quoted, with embedded
+ * quotes doubled; everything else is written verbatim. Null is written as an empty field.
+ * Rows end with CRLF as the RFC specifies.
+ */
+public final class CsvWriter implements Closeable, Flushable {
+
+    private static final String LINE_END = "\r\n";
+
+    private final Writer out;
+    private boolean rowStarted;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public CsvWriter row(String... fields) throws IOException {
+        for (String field : fields) {
+            field(field);
+        }
+        return endRow();
+    }
+
+    public CsvWriter field(String value) throws IOException {
+        separate();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return this;
+        }
+        out.write('"');
+        int from = 0;
+        for (int i = value.indexOf('"'); i >= 0; i = value.indexOf('"', i + 1)) {
+            out.write(value, from, i + 1 - from);
+            out.write('"');
+            from = i + 1;
+        }
+        out.write(value, from, value.length() - from);
+        out.write('"');
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public CsvWriter field(double value) throws IOException {
+        separate();
+        out.write(Double.toString(value));
+        return this;
+    }
+
+    public CsvWriter field(Enum<?> value) throws IOException {
+        return field(value == null ? null : value.name());
+    }
+
+    public CsvWriter endRow() throws IOException {
+        out.write(LINE_END);
+        rowStarted = false;
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void separate() throws IOException {
+        if (rowStarted) {
+            out.write(',');
+        }
+        rowStarted = true;
+    }
+
+    private static boolean needsQuotes(String value) {
+        // Readers trim unquoted fields, so keep leading and trailing whitespace inside quotes
+        if (value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ') {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
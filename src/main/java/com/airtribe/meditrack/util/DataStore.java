@@ -3,30 +3,443 @@ package com.airtribe.meditrack.util;
 import com.airtribe.meditrack.entity.MedicalEntity;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Generic in-memory data store for MediTrack entities.
- * Demonstrates: generics (bounded type parameter), collections (HashMap, ArrayList),
- * iterators, Java 8 streams & lambdas, Comparator usage.
+ * Generic thread-safe in-memory data store for MediTrack entities with named secondary indexes
+ * and point-in-time snapshots.
+ * Demonstrates: generics (bounded type parameter), ConcurrentHashMap, ReadWriteLock,
+ * hash and sorted (TreeMap) indexes, multi-version concurrency control, AutoCloseable,
+ * fork-join (RecursiveTask), Arrays.parallelSort, iterators, Java 8 streams & lambdas, Comparator usage.
+ *
+ * <pre>
+ * DataStore&lt;Doctor&gt; doctors = new DataStore&lt;&gt;();
+ * doctors.addIndex("specialization", Doctor::getSpecialization);
+ * doctors.addSortedIndex("fee", Doctor::getConsultationFee);
+ * doctors.filter("specialization", Specialization.ENT);      // O(1) + result size
+ * doctors.range("fee", 500.0, 1000.0);                       // O(log n) + result size
+ * try (DataStore&lt;Doctor&gt;.Snapshot snapshot = doctors.snapshot()) {
+ *     snapshot.stream()...                                   // consistent, never blocks writers
+ * }
+ * </pre>
+ *
+ * Every write stamps a new version number and prepends a version to the entity's chain, so
+ * the state as of any version can be read back. A {@link Snapshot} pins the version current
+ * when it was opened and reads the chains without locking. Versions older than the oldest
+ * open snapshot are unlinked after writes and when snapshots close.
+ *
+ * Writes also update the insertion order and every index under one write lock; index queries
+ * read the current state under the read lock. Point lookups and full reads take no lock.
+ * {@link #apply} stamps a whole batch of removals and additions with one version, so readers
+ * see all of it or none of it.
+ *
+ * Above PARALLEL_THRESHOLD entities, predicate filters, sorting and top-K split the insertion
+ * order into sequence ranges and run them as fork-join tasks; sorting finishes with a parallel
+ * merge sort. {@code filter(predicate, limit)} and {@code topK} never build the full result.
+ *
+ * Index keys are computed when an entity is added or updated; call {@link #update} after
+ * changing an indexed field in place. Null keys are not indexed. Snapshots hold references to
+ * the stored objects, so only storing a new instance per update keeps old snapshots unchanged.
  *
  * @param <T> the type of entity stored, must extend MedicalEntity
  */
 public class DataStore<T extends MedicalEntity> {
 
-    private final Map<String, T> store;
+    // Collections of at least this many entities are scanned with fork-join tasks
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    // Insertion-sequence span scanned by one fork-join leaf
+    private static final long LEAF_SPAN = 4_096;
+
+    /**
+     * One version of an entity: {@code entity} is null for a removal. Newest first via {@code older}.
+     */
+    private static final class Version<E> {
+        private final E entity;
+        private final long version;
+        private final Map<String, Object> keys;
+        private volatile Version<E> older;
+
+        private Version(E entity, long version, Map<String, Object> keys, Version<E> older) {
+            this.entity = entity;
+            this.version = version;
+            this.keys = keys;
+            this.older = older;
+        }
+    }
+
+    /**
+     * Position of one entity in insertion order with its version chain.
+     */
+    private static final class Slot<E> {
+        private final String id;
+        private final long seq;
+        private volatile Version<E> head;
+
+        private Slot(String id, long seq) {
+            this.id = id;
+            this.seq = seq;
+        }
+
+        private E visibleAt(long version) {
+            for (Version<E> v = head; v != null; v = v.older) {
+                if (v.version <= version) {
+                    return v.entity;
+                }
+            }
+            return null;
+        }
+
+        private E current() {
+            Version<E> v = head;
+            return v == null ? null : v.entity;
+        }
+    }
+
+    private final class Index {
+        private final Function<? super T, ?> keyFunction;
+        private final Map<Object, NavigableSet<Long>> postings;
+
+        private Index(Function<? super T, ?> keyFunction, boolean sorted) {
+            this.keyFunction = keyFunction;
+            this.postings = sorted ? new TreeMap<>() : new HashMap<>();
+        }
+
+        private void add(Object key, long seq) {
+            postings.computeIfAbsent(key, k -> new TreeSet<>()).add(seq);
+        }
+
+        private void remove(Object key, long seq) {
+            NavigableSet<Long> seqs = postings.get(key);
+            if (seqs != null && seqs.remove(seq) && seqs.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Consistent read-only view of the store as of one version. Close it (try-with-resources)
+     * so the versions it pins can be reclaimed.
+     */
+    public final class Snapshot implements AutoCloseable, Iterable<T> {
+
+        private final long version;
+        private boolean closed;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public Optional<T> getById(String id) {
+            checkOpen();
+            Slot<T> slot = slots.get(id);
+            T entity = slot == null ? null : slot.visibleAt(version);
+            if (entity == null && slot != null) {
+                // Removed and re-added since the snapshot: the visible version is in a retired slot
+                entity = stream().filter(e -> e.getId().equals(id)).findFirst().orElse(null);
+            }
+            return Optional.ofNullable(entity);
+        }
+
+        public List<T> getAll() {
+            return stream().collect(Collectors.toList());
+        }
+
+        public Stream<T> stream() {
+            checkOpen();
+            return insertionOrder.values().stream()
+                    .map(slot -> slot.visibleAt(version))
+                    .filter(e -> e != null);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return stream().iterator();
+        }
+
+        public int size() {
+            return (int) stream().count();
+        }
+
+        /**
+         * Entities matching the predicate, in insertion order.
+         */
+        public List<T> filter(Predicate<? super T> predicate) {
+            return scan(new FilterTask(predicate, firstSeq(), lastSeq() + 1, leafSpan()));
+        }
+
+        /**
+         * The first {@code limit} matches in insertion order; stops scanning once they are found.
+         */
+        public List<T> filter(Predicate<? super T> predicate, int limit) {
+            return stream().filter(predicate).limit(limit).collect(Collectors.toList());
+        }
+
+        /**
+         * All entities ordered by the comparator (parallel merge sort for large stores).
+         * The visible versions are collected straight into one array that is sorted in place;
+         * the returned list is a fixed-size view of it, so copy it before adding or removing.
+         */
+        @SuppressWarnings("unchecked")
+        public List<T> sorted(Comparator<? super T> comparator) {
+            T[] array = (T[]) stream().toArray(MedicalEntity[]::new);
+            if (array.length >= PARALLEL_THRESHOLD) {
+                Arrays.parallelSort(array, comparator);
+            } else {
+                Arrays.sort(array, comparator);
+            }
+            return Arrays.asList(array);
+        }
+
+        /**
+         * The {@code k} smallest entities by the comparator, in order. Each task keeps only a
+         * bounded heap of k, so memory stays O(k) per task.
+         */
+        public List<T> topK(Comparator<? super T> comparator, int k) {
+            if (k <= 0) {
+                return new ArrayList<>();
+            }
+            PriorityQueue<T> heap = scan(new TopKTask(comparator, k, firstSeq(), lastSeq() + 1, leafSpan()));
+            List<T> result = new ArrayList<>(heap);
+            result.sort(comparator);
+            return result;
+        }
+
+        private <R> R scan(RecursiveTask<R> task) {
+            checkOpen();
+            // Outside a pool invoke() runs in this thread; forks inside go to the common pool
+            return task.invoke();
+        }
+
+        private long leafSpan() {
+            return size >= PARALLEL_THRESHOLD ? LEAF_SPAN : Long.MAX_VALUE;
+        }
+
+        private long firstSeq() {
+            Map.Entry<Long, Slot<T>> first = insertionOrder.firstEntry();
+            return first == null ? 0 : first.getKey();
+        }
+
+        private long lastSeq() {
+            Map.Entry<Long, Slot<T>> last = insertionOrder.lastEntry();
+            return last == null ? -1 : last.getKey();
+        }
+
+        private List<T> visibleIn(long from, long to) {
+            List<T> visible = new ArrayList<>();
+            for (Slot<T> slot : insertionOrder.subMap(from, true, to, false).values()) {
+                T entity = slot.visibleAt(version);
+                if (entity != null) {
+                    visible.add(entity);
+                }
+            }
+            return visible;
+        }
+
+        /**
+         * Filters the sequence range [from, to), splitting it in halves above the leaf span.
+         */
+        private final class FilterTask extends RecursiveTask<List<T>> {
+            private final Predicate<? super T> predicate;
+            private final long from;
+            private final long to;
+            private final long leafSpan;
+
+            private FilterTask(Predicate<? super T> predicate, long from, long to, long leafSpan) {
+                this.predicate = predicate;
+                this.from = from;
+                this.to = to;
+                this.leafSpan = leafSpan;
+            }
+
+            @Override
+            protected List<T> compute() {
+                if (to - from <= leafSpan) {
+                    List<T> matches = visibleIn(from, to);
+                    matches.removeIf(predicate.negate());
+                    return matches;
+                }
+                long mid = from + (to - from) / 2;
+                FilterTask left = new FilterTask(predicate, from, mid, leafSpan);
+                left.fork();
+                List<T> right = new FilterTask(predicate, mid, to, leafSpan).compute();
+                List<T> result = left.join();
+                result.addAll(right);
+                return result;
+            }
+        }
+
+        /**
+         * Bounded max-heap of the k smallest entities of [from, to); halves are merged on join.
+         */
+        private final class TopKTask extends RecursiveTask<PriorityQueue<T>> {
+            private final Comparator<? super T> comparator;
+            private final int k;
+            private final long from;
+            private final long to;
+            private final long leafSpan;
+
+            private TopKTask(Comparator<? super T> comparator, int k, long from, long to, long leafSpan) {
+                this.comparator = comparator;
+                this.k = k;
+                this.from = from;
+                this.to = to;
+                this.leafSpan = leafSpan;
+            }
+
+            @Override
+            protected PriorityQueue<T> compute() {
+                if (to - from <= leafSpan) {
+                    PriorityQueue<T> heap = new PriorityQueue<>(k + 1, comparator.reversed());
+                    for (Slot<T> slot : insertionOrder.subMap(from, true, to, false).values()) {
+                        T entity = slot.visibleAt(version);
+                        if (entity != null) {
+                            offer(heap, entity);
+                        }
+                    }
+                    return heap;
+                }
+                long mid = from + (to - from) / 2;
+                TopKTask left = new TopKTask(comparator, k, from, mid, leafSpan);
+                left.fork();
+                PriorityQueue<T> heap = new TopKTask(comparator, k, mid, to, leafSpan).compute();
+                for (T entity : left.join()) {
+                    offer(heap, entity);
+                }
+                return heap;
+            }
+
+            private void offer(PriorityQueue<T> heap, T entity) {
+                if (heap.size() < k) {
+                    heap.add(entity);
+                } else if (comparator.compare(entity, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(entity);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (openSnapshots) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                openSnapshots.merge(version, -1, (a, b) -> a + b == 0 ? null : a + b);
+            }
+            if (lock.writeLock().tryLock()) {
+                try {
+                    reclaim();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("Snapshot is closed");
+            }
+        }
+    }
+
+    private final Map<String, Slot<T>> slots = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Slot<T>> insertionOrder = new ConcurrentSkipListMap<>();
+    private final Map<String, Index> indexes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Open snapshot versions -> count; guarded by its own monitor
+    private final TreeMap<Long, Integer> openSnapshots = new TreeMap<>();
+
+    // Guarded by the write lock
+    private final Set<Slot<T>> withHistory = new HashSet<>();
+    private long nextSeq;
+    private long reclaimedUpTo;
+    private long batchVersion;   // version stamped by the apply() in progress, 0 outside one
+    private volatile long currentVersion;
+    private volatile int size;
 
     public DataStore() {
-        this.store = new LinkedHashMap<>();
+    }
+
+    // --- Secondary indexes ---
+
+    /**
+     * Register a hash index answering {@link #filter(String, Object)} in O(1) plus result size.
+     * Existing entities are indexed immediately.
+     */
+    public void addIndex(String name, Function<? super T, ?> keyFunction) {
+        registerIndex(name, new Index(keyFunction, false));
+    }
+
+    /**
+     * Register a sorted index that additionally answers {@link #range} in O(log n) plus result size.
+     */
+    public <K extends Comparable<? super K>> void addSortedIndex(String name, Function<? super T, K> keyFunction) {
+        registerIndex(name, new Index(keyFunction, true));
+    }
+
+    private void registerIndex(String name, Index index) {
+        lock.writeLock().lock();
+        try {
+            if (indexes.containsKey(name)) {
+                throw new IllegalArgumentException("Index already exists: " + name);
+            }
+            indexes.put(name, index);
+            for (Slot<T> slot : slots.values()) {
+                Version<T> head = slot.head;
+                if (head.entity == null) continue;
+                Object key = index.keyFunction.apply(head.entity);
+                if (key != null) {
+                    index.add(key, slot.seq);
+                    head.keys.put(name, key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Snapshots ---
+
+    /**
+     * Open a point-in-time view. Writers are not blocked while it is open.
+     */
+    public Snapshot snapshot() {
+        synchronized (openSnapshots) {
+            long version = currentVersion;
+            openSnapshots.merge(version, 1, Integer::sum);
+            return new Snapshot(version);
+        }
     }
 
     // --- CRUD operations ---
@@ -35,75 +448,384 @@ public class DataStore<T extends MedicalEntity> {
         if (entity == null || entity.getId() == null) {
             throw new IllegalArgumentException("Entity and its ID must not be null");
         }
-        store.put(entity.getId(), entity);
+        lock.writeLock().lock();
+        try {
+            put(entity);
+            reclaim();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public Optional<T> getById(String id) {
-        return Optional.ofNullable(store.get(id));
+        Slot<T> slot = slots.get(id);
+        return Optional.ofNullable(slot == null ? null : visible(slot));
     }
 
+    /**
+     * All entities in insertion order, read from a snapshot without blocking writers.
+     */
     public List<T> getAll() {
-        return new ArrayList<>(store.values());
+        try (Snapshot snapshot = snapshot()) {
+            return snapshot.getAll();
+        }
     }
 
     public T update(T entity) {
-        if (entity == null || entity.getId() == null || !store.containsKey(entity.getId())) {
-            throw new NoSuchElementException("Entity not found for update: "
-                    + (entity != null ? entity.getId() : "null"));
+        lock.writeLock().lock();
+        try {
+            if (entity == null || entity.getId() == null || !exists(entity.getId())) {
+                throw new NoSuchElementException("Entity not found for update: "
+                        + (entity != null ? entity.getId() : "null"));
+            }
+            put(entity);
+            reclaim();
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
         }
-        store.put(entity.getId(), entity);
-        return entity;
     }
 
     public boolean remove(String id) {
-        return store.remove(id) != null;
+        lock.writeLock().lock();
+        try {
+            Slot<T> slot = slots.get(id);
+            if (slot == null || slot.current() == null) {
+                return false;
+            }
+            delete(slot);
+            reclaim();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public boolean exists(String id) {
-        return store.containsKey(id);
+        return getById(id).isPresent();
     }
 
     public int size() {
-        return store.size();
+        return size;
     }
 
-    // --- Search & filter using streams and lambdas ---
+    // --- Search & filter ---
 
+    /**
+     * Full scan with an arbitrary predicate, in insertion order (fork-join for large stores).
+     */
     public List<T> filter(Predicate<T> predicate) {
-        return store.values().stream()
-                .filter(predicate)
-                .collect(Collectors.toList());
+        try (Snapshot snapshot = snapshot()) {
+            return snapshot.filter(predicate);
+        }
+    }
+
+    /**
+     * The first {@code limit} matches in insertion order, without scanning past them.
+     */
+    public List<T> filter(Predicate<T> predicate, int limit) {
+        try (Snapshot snapshot = snapshot()) {
+            return snapshot.filter(predicate, limit);
+        }
     }
 
     public Optional<T> findFirst(Predicate<T> predicate) {
-        return store.values().stream()
-                .filter(predicate)
-                .findFirst();
+        try (Snapshot snapshot = snapshot()) {
+            return snapshot.stream()
+                    .filter(predicate)
+                    .findFirst();
+        }
+    }
+
+    /**
+     * Entities whose index key equals {@code key}, in insertion order, without scanning.
+     */
+    public List<T> filter(String indexName, Object key) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> seqs = index(indexName).postings.get(key);
+            return seqs == null ? new ArrayList<>() : resolve(seqs);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<T> findFirst(String indexName, Object key) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Long> seqs = index(indexName).postings.get(key);
+            return seqs == null ? Optional.empty() : Optional.of(entityAt(seqs.first()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Entities whose sorted-index key lies in [{@code from}, {@code to}], ordered by key,
+     * then insertion order.
+     */
+    public <K extends Comparable<? super K>> List<T> range(String indexName, K from, K to) {
+        lock.readLock().lock();
+        try {
+            List<T> result = new ArrayList<>();
+            for (NavigableSet<Long> seqs : sorted(indexName).subMap(from, true, to, true).values()) {
+                result.addAll(resolve(seqs));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * At most {@code limit} entities whose sorted-index key is greater than {@code after},
+     * ordered by key (keyset pagination).
+     */
+    public <K extends Comparable<? super K>> List<T> after(String indexName, K after, int limit) {
+        lock.readLock().lock();
+        try {
+            List<T> result = new ArrayList<>();
+            for (NavigableSet<Long> seqs : sorted(indexName).tailMap(after, false).values()) {
+                for (long seq : seqs) {
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                    result.add(entityAt(seq));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     // --- Sorting with Comparator ---
 
+    /**
+     * All entities ordered by the comparator, as a fixed-size list (parallel merge sort for large stores).
+     */
     public List<T> getAllSorted(Comparator<T> comparator) {
-        return store.values().stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
+        try (Snapshot snapshot = snapshot()) {
+            return snapshot.sorted(comparator);
+        }
+    }
+
+    /**
+     * The {@code k} smallest entities by the comparator, in order, without sorting the rest.
+     */
+    public List<T> topK(Comparator<T> comparator, int k) {
+        try (Snapshot snapshot = snapshot()) {
+            return snapshot.topK(comparator, k);
+        }
     }
 
     // --- Iterator access ---
 
+    /**
+     * Iterator over a snapshot taken now; later changes are not reflected.
+     */
     public Iterator<T> iterator() {
-        return store.values().iterator();
+        return getAll().iterator();
     }
 
     // --- Bulk operations ---
 
+    /**
+     * Add all entities as one write.
+     */
     public void addAll(Collection<T> entities) {
-        for (T entity : entities) {
-            add(entity);
-        }
+        apply(false, List.of(), entities);
     }
 
+    /**
+     * Remove every entity as one write; open snapshots keep seeing them.
+     */
     public void clear() {
-        store.clear();
+        apply(true, List.of(), List.of());
+    }
+
+    /**
+     * Remove every entity when {@code clear} is set, then the {@code removals}, then add or
+     * update the {@code additions}, all under one version: a snapshot or point lookup sees
+     * either the whole batch or none of it.
+     */
+    public void apply(boolean clear, Collection<String> removals, Collection<T> additions) {
+        for (T entity : additions) {
+            if (entity == null || entity.getId() == null) {
+                throw new IllegalArgumentException("Entity and its ID must not be null");
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            batchVersion = currentVersion + 1;
+            if (clear) {
+                for (Slot<T> slot : slots.values()) {
+                    if (slot.current() != null) {
+                        delete(slot);
+                    }
+                }
+            }
+            for (String id : removals) {
+                Slot<T> slot = slots.get(id);
+                if (slot != null && slot.current() != null) {
+                    delete(slot);
+                }
+            }
+            additions.forEach(this::put);
+            currentVersion = batchVersion;   // publishes the whole batch at once
+        } finally {
+            batchVersion = 0;
+            reclaim();
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of entities still holding superseded versions (for tests).
+     */
+    int slotsWithHistory() {
+        lock.readLock().lock();
+        try {
+            return withHistory.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Internal (callers hold the write lock unless noted) ---
+
+    private void put(T entity) {
+        Slot<T> slot = slots.get(entity.getId());
+        if (slot != null && slot.current() != null) {
+            unindex(slot);   // an update keeps the original insertion position
+        } else if (slot != null && batchVersion != 0 && slot.head.version == batchVersion) {
+            size++;          // removed earlier in this batch: readers must keep finding the slot
+        } else {
+            // New, or re-added after removal: the old slot stays for snapshots until reclaimed
+            slot = new Slot<>(entity.getId(), nextSeq++);
+            slots.put(slot.id, slot);
+            insertionOrder.put(slot.seq, slot);
+            size++;
+        }
+        Map<String, Object> keys = new HashMap<>();
+        long seq = slot.seq;
+        indexes.forEach((name, index) -> {
+            Object key = index.keyFunction.apply(entity);
+            if (key != null) {
+                index.add(key, seq);
+                keys.put(name, key);
+            }
+        });
+        publish(slot, entity, keys);
+    }
+
+    private void delete(Slot<T> slot) {
+        unindex(slot);
+        publish(slot, null, Map.of());
+        size--;
+    }
+
+    private void publish(Slot<T> slot, T entity, Map<String, Object> keys) {
+        if (batchVersion != 0) {
+            // Linked now, visible once apply() moves currentVersion past the whole batch
+            slot.head = new Version<>(entity, batchVersion, keys, slot.head);
+        } else {
+            long version = currentVersion + 1;
+            slot.head = new Version<>(entity, version, keys, slot.head);
+            currentVersion = version;   // snapshots opened from now on see the new version
+        }
+        prune(slot, horizon());
+    }
+
+    /**
+     * The current version of a slot without locking, skipping versions an apply() in progress
+     * has linked but not yet published.
+     */
+    private T visible(Slot<T> slot) {
+        while (true) {
+            long version = currentVersion;
+            T entity = slot.visibleAt(version);
+            if (entity != null || version == currentVersion) {
+                return entity;
+            }
+            // A batch was published meanwhile and may have reclaimed the version we were after
+        }
+    }
+
+    /**
+     * Unlink superseded versions of every entity once the oldest open snapshot has moved on.
+     */
+    private void reclaim() {
+        long horizon = horizon();
+        if (horizon <= reclaimedUpTo || withHistory.isEmpty()) {
+            return;
+        }
+        for (Slot<T> slot : new ArrayList<>(withHistory)) {
+            prune(slot, horizon);
+        }
+        reclaimedUpTo = horizon;
+    }
+
+    /**
+     * Oldest version any reader may still ask for.
+     */
+    private long horizon() {
+        synchronized (openSnapshots) {
+            return openSnapshots.isEmpty() ? currentVersion : openSnapshots.firstKey();
+        }
+    }
+
+    private void prune(Slot<T> slot, long horizon) {
+        // The newest version at or below the horizon is the oldest anyone can see
+        for (Version<T> v = slot.head; v != null; v = v.older) {
+            if (v.version <= horizon) {
+                v.older = null;
+                break;
+            }
+        }
+        Version<T> head = slot.head;
+        if (head.older != null) {
+            withHistory.add(slot);
+            return;
+        }
+        withHistory.remove(slot);
+        if (head.entity == null && head.version <= horizon) {
+            insertionOrder.remove(slot.seq);
+            slots.remove(slot.id, slot);
+        }
+    }
+
+    private void unindex(Slot<T> slot) {
+        slot.head.keys.forEach((name, key) -> indexes.get(name).remove(key, slot.seq));
+    }
+
+    // Caller holds the read or write lock
+    private Index index(String name) {
+        Index index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown index: " + name);
+        }
+        return index;
+    }
+
+    // Caller holds the read or write lock
+    private NavigableMap<Object, NavigableSet<Long>> sorted(String name) {
+        if (!(index(name).postings instanceof NavigableMap<Object, NavigableSet<Long>> sorted)) {
+            throw new IllegalArgumentException("Index is not sorted: " + name);
+        }
+        return sorted;
+    }
+
+    // Caller holds the read or write lock
+    private List<T> resolve(Collection<Long> seqs) {
+        List<T> result = new ArrayList<>(seqs.size());
+        for (long seq : seqs) {
+            result.add(entityAt(seq));
+        }
+        return result;
+    }
+
+    private T entityAt(long seq) {
+        return insertionOrder.get(seq).current();
     }
 }
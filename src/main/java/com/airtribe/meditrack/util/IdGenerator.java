@@ -57,4 +57,25 @@ public class IdGenerator {
     public String nextBillId() {
         return "BILL-" + billCounter.incrementAndGet();
     }
+
+    /**
+     * Move the matching counter past an id that was restored rather than generated (bulk load,
+     * snapshot, journal replay), so later ids do not collide with it. Other ids are ignored.
+     */
+    public void reserve(String id) {
+        if (id == null) return;
+        if (id.startsWith("DOC-")) reserve(doctorCounter, id.substring(4));
+        else if (id.startsWith("PAT-")) reserve(patientCounter, id.substring(4));
+        else if (id.startsWith("APT-")) reserve(appointmentCounter, id.substring(4));
+        else if (id.startsWith("BILL-")) reserve(billCounter, id.substring(5));
+    }
+
+    private static void reserve(AtomicInteger counter, String number) {
+        try {
+            int value = Integer.parseInt(number);
+            counter.accumulateAndGet(value, Math::max);
+        } catch (NumberFormatException e) {
+            // Not a generated id
+        }
+    }
 }
@@ -0,0 +1,66 @@
+package com.airtribe.meditrack.util;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes objects as newline-delimited JSON (one document per line).
+ * Demonstrates: streaming HTTP responses, functional interfaces.
+ */
+public final class NdjsonWriter {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final ObjectMapper objectMapper;
+    private final OutputStream out;
+    private int pending;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+        this.objectMapper = objectMapper;
+        this.out = out;
+    }
+
+    /**
+     * Response whose body is produced by {@code producer}, which pushes rows into the given sink.
+     * Rows are serialised as they arrive, so the full result is never held in memory.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(ObjectMapper objectMapper,
+                                                                    Consumer<Consumer<T>> producer) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            producer.accept(writer::write);
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MEDIA_TYPE).body(body);
+    }
+
+    public void write(Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+            if (++pending >= FLUSH_EVERY) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+            pending = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
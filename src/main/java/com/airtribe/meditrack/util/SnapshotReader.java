@@ -0,0 +1,186 @@
+package com.airtribe.meditrack.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoder for the binary snapshot format written by {@link SnapshotWriter}.
+ * Demonstrates: direct ByteBuffer refills from a channel, varint decoding, format versioning.
+ */
+public final class SnapshotReader {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final List<String> dictionary = new ArrayList<>();
+    private final int formatVersion;
+
+    public SnapshotReader(ReadableByteChannel channel, int bufferSize) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        buffer.flip();
+        ensure(4);
+        if (buffer.getInt() != SnapshotWriter.MAGIC) {
+            throw new IOException("Not a MediTrack snapshot");
+        }
+        formatVersion = readVarInt();
+        if (formatVersion < 1 || formatVersion > SnapshotWriter.FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + formatVersion
+                    + " (this build reads up to " + SnapshotWriter.FORMAT_VERSION + ")");
+        }
+    }
+
+    /**
+     * Format version the file was written with; callers branch on it for fields added later.
+     */
+    public int formatVersion() {
+        return formatVersion;
+    }
+
+    // --- Primitives ---
+
+    public int readByte() throws IOException {
+        ensure(1);
+        return buffer.get() & 0xFF;
+    }
+
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in snapshot");
+    }
+
+    public int readVarInt() throws IOException {
+        return (int) readVarLong();
+    }
+
+    public long readSignedVarLong() throws IOException {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public double readDouble() throws IOException {
+        ensure(8);
+        return buffer.getDouble();
+    }
+
+    public LocalDateTime readTimestamp() throws IOException {
+        if (readByte() == 0) {
+            return null;
+        }
+        long seconds = readSignedVarLong();
+        return LocalDateTime.ofEpochSecond(seconds, readVarInt(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Ordinal-to-constant table matching the one the writer recorded; constants unknown to this
+     * build map to null.
+     */
+    public <E extends Enum<E>> List<E> readEnumTable(Class<E> type) throws IOException {
+        int count = readVarInt();
+        List<E> table = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readLiteral();
+            E constant = null;
+            for (E candidate : type.getEnumConstants()) {
+                if (candidate.name().equals(name)) {
+                    constant = candidate;
+                }
+            }
+            table.add(constant);
+        }
+        return table;
+    }
+
+    public <E extends Enum<E>> E readEnum(List<E> table) throws IOException {
+        int code = readVarInt();
+        return code == 0 ? null : table.get(code - 1);
+    }
+
+    // --- Strings ---
+
+    /**
+     * Reads a string written by either writeString or writeDictionaryString.
+     */
+    public String readString() throws IOException {
+        int code = readVarInt();
+        switch (code) {
+            case SnapshotWriter.STRING_NULL:
+                return null;
+            case SnapshotWriter.STRING_LITERAL:
+                return readLiteral();
+            case SnapshotWriter.STRING_NEW_ENTRY:
+                String value = readLiteral();
+                dictionary.add(value);
+                return value;
+            default:
+                int entry = code - SnapshotWriter.STRING_REFERENCE;
+                if (entry >= dictionary.size()) {
+                    throw new IOException("Snapshot refers to unknown dictionary entry " + entry);
+                }
+                return dictionary.get(entry);
+        }
+    }
+
+    private String readLiteral() throws IOException {
+        int length = readVarInt();
+        if (length <= buffer.capacity()) {
+            ensure(length);
+            String value = StandardCharsets.UTF_8.decode(buffer.slice(buffer.position(), length)).toString();
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+        byte[] bytes = new byte[length];
+        int offset = 0;
+        while (offset < length) {
+            ensure(1);
+            int n = Math.min(buffer.remaining(), length - offset);
+            buffer.get(bytes, offset, n);
+            offset += n;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * True once every byte has been consumed; for record streams that have no END marker.
+     */
+    public boolean atEnd() throws IOException {
+        if (buffer.hasRemaining()) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        buffer.flip();
+        return read < 0;
+    }
+
+    // --- Buffer management ---
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Snapshot is truncated");
+            }
+        }
+        buffer.flip();
+    }
+}
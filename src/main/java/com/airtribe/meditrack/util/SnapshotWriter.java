@@ -0,0 +1,205 @@
+package com.airtribe.meditrack.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encoder for MediTrack's binary snapshot format, the counterpart of {@link SnapshotReader}.
+ * Demonstrates: direct ByteBuffers with FileChannel, variable-length integer encoding,
+ * dictionary compression.
+ *
+ * Integers are unsigned LEB128 varints (zigzag for signed values); doubles are 8 raw bytes;
+ * timestamps are epoch seconds (UTC) plus nanos; enums are ordinals into a name table written
+ * once per file, so reordering an enum does not corrupt old snapshots. Strings are coded as
+ * 0 = null, 1 = literal, 2 = literal that joins the dictionary, n + 3 = dictionary entry n.
+ * The dictionary stops growing at DICTIONARY_LIMIT entries, which bounds memory on both sides.
+ *
+ * The target is any channel: snapshot files write straight to a FileChannel, while the journal
+ * encodes into memory and frames each flushed batch itself. A {@link #fragment} has no header
+ * and no dictionary, so its bytes can be spliced into any stream after the header.
+ */
+public final class SnapshotWriter implements Closeable {
+
+    public static final int MAGIC = 0x4D54534E; // "MTSN"
+    public static final int FORMAT_VERSION = 2;
+    public static final int DICTIONARY_LIMIT = 1 << 16;
+
+    static final int STRING_NULL = 0;
+    static final int STRING_LITERAL = 1;
+    static final int STRING_NEW_ENTRY = 2;
+    static final int STRING_REFERENCE = 3;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final int dictionaryLimit;
+
+    public SnapshotWriter(WritableByteChannel channel, int bufferSize) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.dictionaryLimit = DICTIONARY_LIMIT;
+        buffer.putInt(MAGIC);
+        writeVarInt(FORMAT_VERSION);
+    }
+
+    private SnapshotWriter(WritableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.dictionaryLimit = 0;
+    }
+
+    /**
+     * A headerless writer that writes every string as a literal, for records encoded ahead of
+     * the stream they end up in.
+     */
+    public static SnapshotWriter fragment(WritableByteChannel channel, int bufferSize) {
+        return new SnapshotWriter(channel, ByteBuffer.allocate(bufferSize));
+    }
+
+    // --- Primitives ---
+
+    public void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    public void writeVarLong(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    public void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public void writeDouble(double value) throws IOException {
+        ensure(8);
+        buffer.putDouble(value);
+    }
+
+    public void writeTimestamp(LocalDateTime value) throws IOException {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeSignedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+        writeVarInt(value.getNano());
+    }
+
+    public void writeEnum(Enum<?> value) throws IOException {
+        writeVarInt(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    /**
+     * Names of the enum's constants in ordinal order, for {@link SnapshotReader#readEnumTable(Class)}.
+     */
+    public void writeEnumTable(Class<? extends Enum<?>> type) throws IOException {
+        Enum<?>[] constants = type.getEnumConstants();
+        writeVarInt(constants.length);
+        for (Enum<?> constant : constants) {
+            writeLiteral(constant.name());
+        }
+    }
+
+    // --- Strings ---
+
+    /**
+     * String that is usually unique (ids, names, free text): written verbatim.
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(STRING_NULL);
+        } else {
+            writeVarInt(STRING_LITERAL);
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * String that repeats across records (foreign keys, categories): written once, then by reference.
+     */
+    public void writeDictionaryString(String value) throws IOException {
+        if (value == null) {
+            writeVarInt(STRING_NULL);
+            return;
+        }
+        Integer entry = dictionary.get(value);
+        if (entry != null) {
+            writeVarInt(entry + STRING_REFERENCE);
+        } else if (dictionary.size() < dictionaryLimit) {
+            dictionary.put(value, dictionary.size());
+            writeVarInt(STRING_NEW_ENTRY);
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        } else {
+            writeString(value);
+        }
+    }
+
+    private void writeLiteral(String value) throws IOException {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        writeVarInt(bytes.length);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int n = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, n);
+            offset += n;
+        }
+    }
+
+    // --- Buffer management ---
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Hand buffered bytes to the channel, without forcing them to storage.
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    /**
+     * Write out buffered bytes and, for a file, force them to the storage device.
+     */
+    @Override
+    public void close() throws IOException {
+        drain();
+        if (channel instanceof FileChannel file) {
+            file.force(false);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.airtribe.meditrack.util;
+
+import com.airtribe.meditrack.entity.Specialization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Finds all symptom phrases of a dictionary in a text in one pass and counts hits per specialization.
+ * Demonstrates: Aho-Corasick automaton (trie + failure links compiled into a DFA), EnumMap.
+ *
+ * The automaton is built once; matching costs O(text length + hits) no matter how many phrases
+ * the dictionary holds. Phrases only count on word boundaries, so "ear" matches "ear pain" but
+ * not "heart" or "year". Text and phrases are lower-cased and runs of whitespace collapsed.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class SymptomMatcher {
+
+    private final int[] charClass;      // char -> column in the transition table, -1 if unused
+    private final int alphabetSize;
+    private final int[] transitions;    // state * alphabetSize + column -> next state
+    private final int[][] outputs;      // state -> phrases ending here (including via failure links)
+    private final int[] phraseLength;
+    private final Specialization[] phraseSpecialization;
+
+    public SymptomMatcher(Map<String, Specialization> dictionary) {
+        List<String> phrases = new ArrayList<>();
+        List<Specialization> specs = new ArrayList<>();
+        dictionary.forEach((phrase, spec) -> {
+            String normalized = normalize(phrase);
+            if (!normalized.isEmpty() && spec != null) {
+                phrases.add(normalized);
+                specs.add(spec);
+            }
+        });
+
+        // --- Alphabet: only characters that occur in some phrase get a column ---
+        int maxChar = 0;
+        for (String phrase : phrases) {
+            for (int i = 0; i < phrase.length(); i++) {
+                maxChar = Math.max(maxChar, phrase.charAt(i));
+            }
+        }
+        charClass = new int[maxChar + 1];
+        Arrays.fill(charClass, -1);
+        int columns = 0;
+        for (String phrase : phrases) {
+            for (int i = 0; i < phrase.length(); i++) {
+                char c = phrase.charAt(i);
+                if (charClass[c] < 0) {
+                    charClass[c] = columns++;
+                }
+            }
+        }
+        alphabetSize = Math.max(columns, 1);
+
+        // --- Trie ---
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> terminal = new ArrayList<>();
+        gotoTable.add(newRow());
+        terminal.add(new ArrayList<>());
+        for (int p = 0; p < phrases.size(); p++) {
+            String phrase = phrases.get(p);
+            int state = 0;
+            for (int i = 0; i < phrase.length(); i++) {
+                int col = charClass[phrase.charAt(i)];
+                if (gotoTable.get(state)[col] < 0) {
+                    gotoTable.get(state)[col] = gotoTable.size();
+                    gotoTable.add(newRow());
+                    terminal.add(new ArrayList<>());
+                }
+                state = gotoTable.get(state)[col];
+            }
+            terminal.get(state).add(p);
+        }
+
+        // --- Failure links (BFS), folded into a complete transition table ---
+        int states = gotoTable.size();
+        int[] fail = new int[states];
+        transitions = new int[states * alphabetSize];
+        outputs = new int[states][];
+        outputs[0] = toArray(terminal.get(0));
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int col = 0; col < alphabetSize; col++) {
+            int next = gotoTable.get(0)[col];
+            if (next < 0) {
+                transitions[col] = 0;
+            } else {
+                transitions[col] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            List<Integer> out = new ArrayList<>(terminal.get(state));
+            for (int p : outputs[fail[state]]) {
+                out.add(p);
+            }
+            outputs[state] = toArray(out);
+            for (int col = 0; col < alphabetSize; col++) {
+                int next = gotoTable.get(state)[col];
+                if (next < 0) {
+                    transitions[state * alphabetSize + col] = transitions[fail[state] * alphabetSize + col];
+                } else {
+                    transitions[state * alphabetSize + col] = next;
+                    fail[next] = transitions[fail[state] * alphabetSize + col];
+                    queue.add(next);
+                }
+            }
+        }
+
+        phraseLength = phrases.stream().mapToInt(String::length).toArray();
+        phraseSpecialization = specs.toArray(new Specialization[0]);
+    }
+
+    /**
+     * Number of whole-word phrase occurrences per specialization; empty if nothing matched.
+     */
+    public Map<Specialization, Integer> countHits(String text) {
+        Map<Specialization, Integer> hits = new EnumMap<>(Specialization.class);
+        if (text == null) {
+            return hits;
+        }
+        String s = normalize(text);
+        int state = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int col = c < charClass.length ? charClass[c] : -1;
+            state = col < 0 ? 0 : transitions[state * alphabetSize + col];
+            for (int p : outputs[state]) {
+                int start = i - phraseLength[p] + 1;
+                if (isBoundary(s, start - 1) && isBoundary(s, i + 1)) {
+                    hits.merge(phraseSpecialization[p], 1, Integer::sum);
+                }
+            }
+        }
+        return hits;
+    }
+
+    public int size() {
+        return phraseLength.length;
+    }
+
+    // --- Internal ---
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static boolean isBoundary(String s, int index) {
+        return index < 0 || index >= s.length() || !Character.isLetterOrDigit(s.charAt(index));
+    }
+
+    private static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
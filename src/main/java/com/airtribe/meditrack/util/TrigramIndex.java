@@ -0,0 +1,208 @@
+package com.airtribe.meditrack.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index for case-insensitive substring search over a few text fields.
+ * Demonstrates: inverted index, set intersection, bounded top-K with a PriorityQueue, ReadWriteLock.
+ *
+ * Every field is split into overlapping 3-character grams; each gram maps to the keys containing it.
+ * A keyword of 3+ characters is answered by intersecting the postings of its grams (smallest first)
+ * and verifying the survivors, so it matches exactly what {@code field.contains(keyword)} would.
+ * Shorter keywords fall back to scanning the stored fields, still without touching the database.
+ *
+ * Results are ranked: exact field match, then field prefix, then word prefix, then any substring;
+ * ties are broken by key.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int WORD_PREFIX = 1;
+    private static final int SUBSTRING = 0;
+
+    private record Hit(String key, int rank) {
+    }
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingInt(Hit::rank).reversed()
+            .thenComparing(Hit::key);
+
+    private final Map<String, List<String>> fieldsByKey = new HashMap<>();
+    private final Map<String, Set<String>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index (or re-index) a key with the given searchable field values; null values are ignored.
+     */
+    public void put(String key, List<String> fields) {
+        List<String> normalized = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            if (field != null && !field.isEmpty()) {
+                normalized.add(field.toLowerCase(Locale.ROOT));
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            List<String> previous = fieldsByKey.put(key, normalized);
+            if (previous != null) {
+                removePostings(key, previous);
+            }
+            for (String gram : gramsOf(normalized)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            List<String> previous = fieldsByKey.remove(key);
+            if (previous != null) {
+                removePostings(key, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            fieldsByKey.clear();
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return fieldsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keys whose fields contain the keyword (case-insensitive), best matches first, at most {@code limit}.
+     */
+    public List<String> search(String keyword, int limit) {
+        if (keyword == null || keyword.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        String needle = keyword.trim().toLowerCase(Locale.ROOT);
+
+        // Min-heap on rank keeps only the best `limit` hits
+        PriorityQueue<Hit> top = new PriorityQueue<>(BEST_FIRST.reversed());
+        lock.readLock().lock();
+        try {
+            for (String key : candidates(needle)) {
+                int rank = rank(fieldsByKey.get(key), needle);
+                if (rank >= SUBSTRING) {
+                    top.add(new Hit(key, rank));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(BEST_FIRST);
+        return hits.stream().map(Hit::key).toList();
+    }
+
+    // --- Internal ---
+
+    private Iterable<String> candidates(String needle) {
+        if (needle.length() < GRAM) {
+            return fieldsByKey.keySet();
+        }
+        List<Set<String>> lists = new ArrayList<>();
+        for (String gram : gramsOf(List.of(needle))) {
+            Set<String> keys = postings.get(gram);
+            if (keys == null) {
+                return List.of();
+            }
+            lists.add(keys);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<String> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Best rank of the needle across the fields, or -1 if no field contains it.
+     */
+    private static int rank(List<String> fields, String needle) {
+        int best = -1;
+        if (fields == null) {
+            return best;
+        }
+        for (String field : fields) {
+            int at = field.indexOf(needle);
+            if (at < 0) {
+                continue;
+            }
+            int rank;
+            if (at == 0) {
+                rank = field.length() == needle.length() ? EXACT : PREFIX;
+            } else {
+                rank = startsWord(field, needle) ? WORD_PREFIX : SUBSTRING;
+            }
+            best = Math.max(best, rank);
+        }
+        return best;
+    }
+
+    private static boolean startsWord(String field, String needle) {
+        for (int at = field.indexOf(needle); at >= 0; at = field.indexOf(needle, at + 1)) {
+            if (!Character.isLetterOrDigit(field.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removePostings(String key, List<String> fields) {
+        for (String gram : gramsOf(fields)) {
+            Set<String> keys = postings.get(gram);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> gramsOf(List<String> fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                grams.add(field.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+}
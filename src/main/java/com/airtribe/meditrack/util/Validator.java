@@ -57,4 +57,11 @@ public final class Validator {
             throw new InvalidDataException("id", entityName + " ID cannot be null or empty");
         }
     }
+
+    public static void validatePageSize(int limit) {
+        if (limit < 1 || limit > Constants.MAX_PAGE_SIZE) {
+            throw new InvalidDataException("limit",
+                    "Limit must be between 1 and " + Constants.MAX_PAGE_SIZE);
+        }
+    }
 }
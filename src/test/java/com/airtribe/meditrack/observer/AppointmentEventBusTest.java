@@ -0,0 +1,67 @@
+package com.airtribe.meditrack.observer;
+
+import com.airtribe.meditrack.entity.Appointment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentEventBusTest {
+
+    /**
+     * Records delivery order and how many deliveries ever overlapped.
+     */
+    private static final class SlowObserver implements AppointmentObserver {
+        private final List<String> seen = new CopyOnWriteArrayList<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public void onAppointmentCreated(Appointment appointment) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            seen.add(appointment.getId());
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onAppointmentCancelled(Appointment appointment) {
+        }
+
+        @Override
+        public void onAppointmentStatusChanged(Appointment appointment) {
+        }
+    }
+
+    @Test
+    void callerRunsKeepsPublishOrderAndSerialDelivery() throws Exception {
+        SlowObserver observer = new SlowObserver();
+        AppointmentEventBus bus = new AppointmentEventBus(List.of(observer), 2, OverflowPolicy.CALLER_RUNS);
+        List<String> published = new ArrayList<>();
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setId("APT-" + i);
+            published.add(appointment.getId());
+            done.add(bus.publish(AppointmentEvent.of(AppointmentEvent.Type.CREATED, List.of(appointment))));
+        }
+        CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).get();
+        bus.shutdown();
+
+        assertThat(observer.seen).containsExactlyElementsOf(published);
+        assertThat(observer.maxInFlight).hasValue(1);
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> metrics = (Map<String, Map<String, Object>>) bus.getMetrics().get("observers");
+        assertThat((long) metrics.get("SlowObserver").get("callerRuns")).isPositive();
+    }
+}
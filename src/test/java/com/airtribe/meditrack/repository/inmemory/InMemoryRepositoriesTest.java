@@ -0,0 +1,171 @@
+package com.airtribe.meditrack.repository.inmemory;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.Bill;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.repository.AppointmentRepository;
+import com.airtribe.meditrack.repository.DoctorRepository;
+import com.airtribe.meditrack.service.AppointmentService;
+import com.airtribe.meditrack.service.BillingService;
+import com.airtribe.meditrack.service.DoctorService;
+import com.airtribe.meditrack.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class InMemoryRepositoriesTest {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BillingService billingService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void servicesRunUnchangedOnDataStoreRepositories() {
+        assertThat(doctorRepository).isInstanceOf(InMemoryDoctorRepository.class);
+
+        Doctor cheap = doctorService.addDoctor(new Doctor(null, "Cheap Doctor", 40, "Male", "9876543211",
+                "cheap@meditrack.com", Specialization.ENT, 200, 8));
+        Doctor dear = doctorService.addDoctor(new Doctor(null, "Dear Doctor", 50, "Female", "9876543212",
+                "dear@meditrack.com", Specialization.ENT, 900, 20));
+        Patient patient = patientService.addPatient(new Patient(null, "Memory Patient", 28, "Female",
+                "9123456782", "memory@meditrack.com", "AB+"));
+
+        LocalDateTime slot = LocalDateTime.of(2032, 5, 3, 11, 0);
+        Appointment later = appointmentService.createAppointment(dear.getId(), patient.getId(), slot.plusDays(1), "");
+        Appointment sooner = appointmentService.createAppointment(cheap.getId(), patient.getId(), slot, "");
+        Appointment cancelled = appointmentService.createAppointment(cheap.getId(), patient.getId(), slot.plusHours(2), "");
+        appointmentService.cancelAppointment(cancelled.getId());
+        Bill bill = billingService.generateBill(sooner.getId(), "STANDARD");
+
+        assertThat(doctorService.searchDoctors(Specialization.ENT)).containsExactly(cheap, dear);
+        assertThat(doctorService.getDoctorsSortedByFee()).containsExactly(cheap, dear);
+        assertThat(appointmentService.getUpcomingAppointments()).containsExactly(sooner, later);
+        assertThat(appointmentService.getAppointmentsByDoctor(cheap.getId())).containsExactly(sooner, cancelled);
+        assertThat(appointmentRepository.findByIdGreaterThanOrderByIdAsc(sooner.getId(), Limit.of(10)))
+                .contains(cancelled).doesNotContain(sooner);
+        assertThat(billingService.getBillsByPatient(patient.getId())).containsExactly(bill);
+        assertThat(patientService.searchPatientsByAge(28)).extracting("id").containsExactly(patient.getId());
+    }
+
+    @Test
+    void rolledBackWritesNeverReachTheStore() {
+        Doctor kept = doctorService.addDoctor(new Doctor(null, "Kept Doctor", 45, "Male", "9876543213",
+                "kept@meditrack.com", Specialization.DERMATOLOGY, 300, 10));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Doctor ghost = doctorService.addDoctor(new Doctor(null, "Ghost Doctor", 35, "Female", "9876543214",
+                    "ghost@meditrack.com", Specialization.DERMATOLOGY, 400, 5));
+            Doctor patch = new Doctor();
+            patch.setConsultationFee(999);
+            doctorService.updateDoctor(kept.getId(), patch);
+            assertThat(doctorRepository.findById(ghost.getId())).isPresent();
+            status.setRollbackOnly();
+        });
+
+        assertThat(doctorService.searchDoctors(Specialization.DERMATOLOGY)).containsExactly(kept);
+        assertThat(doctorRepository.findById(kept.getId())).get()
+                .extracting(Doctor::getConsultationFee).isEqualTo(300.0);
+        assertThat(doctorService.searchDoctors("Ghost Doctor")).extracting(Doctor::getName).doesNotContain("Ghost Doctor");
+
+        // Changing a returned entity without save() stores nothing
+        doctorRepository.findById(kept.getId()).orElseThrow().setConsultationFee(1);
+        assertThat(doctorRepository.findById(kept.getId())).get()
+                .extracting(Doctor::getConsultationFee).isEqualTo(300.0);
+        doctorService.deleteDoctor(kept.getId());
+    }
+
+    @Test
+    void findersReadTheTransactionsOwnWrites() {
+        Doctor stays = doctorRepository.save(new Doctor("DOC-RYW-1", "Stays", 40, "Male", "9876543217",
+                "stays@meditrack.com", Specialization.NEUROLOGY, 700, 10));
+        Doctor leaves = doctorRepository.save(new Doctor("DOC-RYW-2", "Leaves", 40, "Male", "9876543218",
+                "leaves@meditrack.com", Specialization.NEUROLOGY, 800, 10));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Doctor joins = new Doctor("DOC-RYW-3", "Joins", 40, "Female", "9876543219",
+                    "joins@meditrack.com", Specialization.NEUROLOGY, 750, 10);
+            doctorRepository.save(joins);
+            doctorRepository.delete(leaves);
+            stays.setConsultationFee(900);
+            doctorRepository.save(stays);
+
+            assertThat(doctorRepository.findBySpecialization(Specialization.NEUROLOGY))
+                    .extracting(Doctor::getId).containsExactly("DOC-RYW-1", "DOC-RYW-3");
+            assertThat(doctorRepository.findByConsultationFeeLessThanEqual(800))
+                    .extracting(Doctor::getId).contains("DOC-RYW-3").doesNotContain("DOC-RYW-1", "DOC-RYW-2");
+            assertThat(doctorRepository.findByIdGreaterThanOrderByIdAsc("DOC-RYW-0", Limit.of(2)))
+                    .extracting(Doctor::getId).containsExactly("DOC-RYW-1", "DOC-RYW-3");
+        });
+
+        assertThat(doctorRepository.findBySpecialization(Specialization.NEUROLOGY))
+                .extracting(Doctor::getId, Doctor::getConsultationFee)
+                .containsExactly(tuple("DOC-RYW-1", 900.0), tuple("DOC-RYW-3", 750.0));
+        doctorRepository.deleteAllById(List.of("DOC-RYW-1", "DOC-RYW-3"));
+    }
+
+    @Test
+    void queryByExampleMatchesLikeJpa() {
+        Doctor first = doctorService.addDoctor(new Doctor(null, "Example Ortho One", 41, "Male", "9876543215",
+                "ortho1@meditrack.com", Specialization.ORTHOPEDICS, 500, 12));
+        Doctor second = doctorService.addDoctor(new Doctor(null, "Example Ortho Two", 52, "Female", "9876543216",
+                "ortho2@meditrack.com", Specialization.ORTHOPEDICS, 650, 25));
+        Doctor probe = new Doctor();
+        probe.setName("example ortho");
+        probe.setSpecialization(Specialization.ORTHOPEDICS);
+        ExampleMatcher matcher = ExampleMatcher.matching()
+                .withIgnorePaths("createdAt", "updatedAt", "age", "consultationFee", "yearsOfExperience")
+                .withStringMatcher(ExampleMatcher.StringMatcher.STARTING)
+                .withIgnoreCase();
+        Example<Doctor> example = Example.of(probe, matcher);
+
+        assertThat(doctorRepository.count(example)).isEqualTo(2);
+        assertThat(doctorRepository.findAll(example, Sort.by(Sort.Direction.DESC, "consultationFee")))
+                .containsExactly(second, first);
+
+        Window<Doctor> page = doctorRepository.findBy(example, q -> q.sortBy(Sort.by("consultationFee"))
+                .limit(1).scroll(ScrollPosition.keyset()));
+        assertThat(page.getContent()).containsExactly(first);
+        Window<Doctor> next = doctorRepository.findBy(example, q -> q.sortBy(Sort.by("consultationFee"))
+                .limit(1).scroll(page.positionAt(0)));
+        assertThat(next.getContent()).containsExactly(second);
+        assertThat(next.hasNext()).isFalse();
+        doctorService.deleteDoctor(first.getId());
+        doctorService.deleteDoctor(second.getId());
+    }
+}
@@ -0,0 +1,111 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.exception.AppointmentConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class AppointmentServiceConcurrencyTest {
+
+    private static final LocalDateTime SLOT = LocalDateTime.of(2031, 3, 14, 10, 0);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = doctorService.addDoctor(new Doctor(null, "Test Doctor", 45, "Female", "9876543210",
+                "doc@meditrack.com", Specialization.CARDIOLOGY, 500, 15));
+        patient = patientService.addPatient(new Patient(null, "Test Patient", 30, "Male", "9123456780",
+                "pat@meditrack.com", "O+"));
+    }
+
+    @Test
+    void rejectsOverlappingBookingAndAllowsAdjacentOne() {
+        appointmentService.createAppointment(doctor.getId(), patient.getId(), SLOT, "first");
+
+        assertThatThrownBy(() -> appointmentService.createAppointment(
+                doctor.getId(), patient.getId(), SLOT.plusMinutes(15), "overlap"))
+                .isInstanceOf(AppointmentConflictException.class);
+
+        Appointment adjacent = appointmentService.createAppointment(
+                doctor.getId(), patient.getId(), SLOT.plusMinutes(30), "adjacent");
+        assertThat(adjacent.getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
+    }
+
+    @Test
+    void cancellingFreesTheSlotAndReconfirmingTakesItBack() {
+        Appointment first = appointmentService.createAppointment(doctor.getId(), patient.getId(), SLOT, "first");
+        appointmentService.cancelAppointment(first.getId());
+
+        Appointment second = appointmentService.createAppointment(doctor.getId(), patient.getId(), SLOT, "second");
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+
+        assertThatThrownBy(() -> appointmentService.updateStatus(first.getId(), AppointmentStatus.CONFIRMED))
+                .isInstanceOf(AppointmentConflictException.class);
+        assertThat(appointmentService.getAppointmentById(first.getId()).getStatus())
+                .isEqualTo(AppointmentStatus.CANCELLED);
+    }
+
+    @Test
+    void onlyOneOfManyParallelBookingsForTheSameSlotSucceeds() throws Exception {
+        int attempts = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<Appointment>> results = new ArrayList<>();
+
+        for (int i = 0; i < attempts; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                try {
+                    return appointmentService.createAppointment(doctor.getId(), patient.getId(), SLOT, "race");
+                } catch (AppointmentConflictException e) {
+                    conflicts.incrementAndGet();
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+
+        int booked = 0;
+        for (Future<Appointment> result : results) {
+            if (result.get() != null) booked++;
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(booked).isEqualTo(1);
+        assertThat(conflicts.get()).isEqualTo(attempts - 1);
+        assertThat(appointmentService.getAppointmentsByDoctor(doctor.getId())).hasSize(1);
+    }
+}
@@ -0,0 +1,136 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.BatchBookingResult;
+import com.airtribe.meditrack.entity.BookingRequest;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.KeysetPage;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.observer.AppointmentObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AppointmentServiceTest {
+
+    private static final LocalDateTime SLOT = LocalDateTime.of(2031, 3, 14, 10, 0);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Doctor doctor;
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = doctorService.addDoctor(new Doctor(null, "Test Doctor", 45, "Female", "9876543210",
+                "doc@meditrack.com", Specialization.CARDIOLOGY, 500, 15));
+        patient = patientService.addPatient(new Patient(null, "Test Patient", 30, "Male", "9123456780",
+                "pat@meditrack.com", "O+"));
+    }
+
+    @Test
+    void batchBookingCreatesValidRowsAndReportsTheRest() {
+        String at = SLOT.toString();
+        List<BookingRequest> rows = List.of(
+                new BookingRequest(doctor.getId(), patient.getId(), at, "ok"),
+                new BookingRequest(doctor.getId(), patient.getId(), SLOT.plusMinutes(10).toString(), "overlaps row 0"),
+                new BookingRequest("DOC-missing", patient.getId(), at, "unknown doctor"),
+                new BookingRequest(doctor.getId(), patient.getId(), "not-a-date", "bad date"),
+                new BookingRequest(doctor.getId(), patient.getId(), SLOT.plusHours(1).toString(), null));
+
+        BatchBookingResult result = appointmentService.createAppointments(rows);
+
+        assertThat(result.createdCount()).isEqualTo(2);
+        assertThat(result.failures()).extracting(BatchBookingResult.Failure::index).containsExactly(1, 2, 3);
+        assertThat(appointmentService.getAppointmentsByDoctor(doctor.getId())).hasSize(2);
+    }
+
+    @Test
+    void largeBatchKeepsTheCallersPersistenceContext() {
+        // More rows than one JDBC batch, so persistAll flushes in the middle of the transaction
+        List<BookingRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            rows.add(new BookingRequest(doctor.getId(), patient.getId(), SLOT.plusDays(100 + i).toString(), null));
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Doctor managed = doctorService.getRepository().findById(doctor.getId()).orElseThrow();
+            assertThat(appointmentService.createAppointments(rows).createdCount()).isEqualTo(60);
+            managed.setYearsOfExperience(16);
+        });
+
+        assertThat(doctorService.getRepository().findById(doctor.getId())).get()
+                .extracting(Doctor::getYearsOfExperience).isEqualTo(16);
+    }
+
+    @Test
+    void committedBookingReachesObserversThroughTheOutbox() throws Exception {
+        Doctor relayed = doctorService.addDoctor(new Doctor(null, "Outbox Doctor", 50, "Male", "9876543211",
+                "outbox@meditrack.com", Specialization.NEUROLOGY, 600, 10));
+        CountDownLatch delivered = new CountDownLatch(1);
+        appointmentService.addObserver(new AppointmentObserver() {
+            @Override
+            public void onAppointmentCreated(Appointment appointment) {
+                if (appointment.getDoctorId().equals(relayed.getId())) {
+                    delivered.countDown();
+                }
+            }
+
+            @Override
+            public void onAppointmentCancelled(Appointment appointment) {
+            }
+
+            @Override
+            public void onAppointmentStatusChanged(Appointment appointment) {
+            }
+        });
+
+        appointmentService.createAppointment(relayed.getId(), patient.getId(), SLOT, "relayed");
+
+        assertThat(delivered.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void keysetPagesAndStreamCoverEveryAppointmentInIdOrder() {
+        appointmentService.createAppointment(doctor.getId(), patient.getId(), SLOT.plusDays(1), "p1");
+        appointmentService.createAppointment(doctor.getId(), patient.getId(), SLOT.plusDays(2), "p2");
+        appointmentService.createAppointment(doctor.getId(), patient.getId(), SLOT.plusDays(3), "p3");
+
+        List<String> paged = new ArrayList<>();
+        KeysetPage<Appointment> page = appointmentService.getAppointmentsPage(null, 2);
+        page.items().forEach(a -> paged.add(a.getId()));
+        while (page.hasMore()) {
+            page = appointmentService.getAppointmentsPage(page.nextCursor(), 2);
+            page.items().forEach(a -> paged.add(a.getId()));
+        }
+        List<String> streamed = new ArrayList<>();
+        appointmentService.streamAppointments(null, a -> streamed.add(a.getId()));
+
+        assertThat(paged).isSorted().doesNotHaveDuplicates()
+                .hasSize(appointmentService.getAllAppointments().size());
+        assertThat(streamed).isEqualTo(paged);
+    }
+}
@@ -0,0 +1,62 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.FreeSlot;
+import com.airtribe.meditrack.entity.Specialization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentSlotEngineTest {
+
+    private static final LocalDateTime MONDAY_9AM = LocalDateTime.of(2031, 3, 17, 9, 0);
+
+    private DoctorScheduleIndex scheduleIndex;
+    private AppointmentSlotEngine slotEngine;
+
+    @BeforeEach
+    void setUp() {
+        scheduleIndex = new DoctorScheduleIndex();
+        DoctorDirectory directory = new DoctorDirectory();
+        directory.put(new Doctor("DOC-1", "Alpha", 50, "F", null, null, Specialization.CARDIOLOGY, 500, 20));
+        directory.put(new Doctor("DOC-2", "Beta", 40, "M", null, null, Specialization.CARDIOLOGY, 400, 10));
+        directory.put(new Doctor("DOC-3", "Gamma", 40, "M", null, null, Specialization.NEUROLOGY, 400, 10));
+        slotEngine = new AppointmentSlotEngine(scheduleIndex, directory);
+    }
+
+    @Test
+    void skipsBookedAndPartiallyBookedSlots() {
+        scheduleIndex.reserve("DOC-1", "APT-1", MONDAY_9AM);
+        scheduleIndex.reserve("DOC-1", "APT-2", MONDAY_9AM.plusMinutes(50)); // 09:50-10:20
+
+        List<FreeSlot> slots = slotEngine.nextFreeSlots("DOC-1", MONDAY_9AM, 3, 1);
+
+        assertThat(slots).extracting(FreeSlot::start).containsExactly(
+                MONDAY_9AM.plusMinutes(90),
+                MONDAY_9AM.plusMinutes(105),
+                MONDAY_9AM.plusMinutes(120));
+    }
+
+    @Test
+    void mergesDoctorsOfSpecializationInTimeOrder() {
+        scheduleIndex.reserve("DOC-1", "APT-1", MONDAY_9AM);
+
+        List<FreeSlot> slots = slotEngine.nextFreeSlots(Specialization.CARDIOLOGY, MONDAY_9AM, 3, 1);
+
+        assertThat(slots).extracting(FreeSlot::doctorId).containsExactly("DOC-2", "DOC-2", "DOC-1");
+        assertThat(slots).extracting(FreeSlot::start).containsExactly(
+                MONDAY_9AM, MONDAY_9AM.plusMinutes(15), MONDAY_9AM.plusMinutes(30));
+    }
+
+    @Test
+    void continuesOnFollowingDaysWhenTheFirstDayIsOver() {
+        List<FreeSlot> slots = slotEngine.nextFreeSlots("DOC-3", MONDAY_9AM.withHour(16).withMinute(31), 2, 2);
+
+        assertThat(slots).extracting(FreeSlot::start).containsExactly(
+                MONDAY_9AM.plusDays(1), MONDAY_9AM.plusDays(1).plusMinutes(15));
+    }
+}
@@ -0,0 +1,158 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.repository.DoctorRepository;
+import com.airtribe.meditrack.repository.MedicalHistoryRepository;
+import com.airtribe.meditrack.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "meditrack.journal.enabled=true",
+        "meditrack.journal.directory=target/journal-test"
+})
+class CheckpointServiceTest {
+
+    @Autowired
+    private CheckpointService checkpointService;
+
+    @Autowired
+    private WriteAheadJournal journal;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedicalHistoryRepository historyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void clearJournal() throws IOException {
+        FileSystemUtils.deleteRecursively(Paths.get("target/journal-test"));
+    }
+
+    @Test
+    void replaysJournaledWritesAndCheckpointTruncatesTheTail() throws IOException {
+        Doctor doctor = doctorService.addDoctor(new Doctor(null, "Journal Doctor", 48, "Female", "9876512340",
+                "journal@meditrack.com", Specialization.CARDIOLOGY, 700, 15));
+        Doctor patch = new Doctor();
+        patch.setConsultationFee(725);
+        doctorService.updateDoctor(doctor.getId(), patch);
+        Doctor removed = doctorService.addDoctor(new Doctor(null, "Removed Doctor", 60, "Male", "9876512341",
+                "removed@meditrack.com", Specialization.NEUROLOGY, 900, 20));
+        doctorService.deleteDoctor(removed.getId());
+        Patient patient = patientService.addPatient(new Patient(null, "Journal Patient", 29, "Male", "9123412340",
+                "journalpat@meditrack.com", "O+"));
+        patientService.appendHistoryEntry(patient.getId(), "Fracture, left wrist");
+
+        // Lose the rows without journaling it, as a restart of the in-memory database would
+        wipe(doctor.getId(), patient.getId());
+        assertThat(doctorRepository.findById(doctor.getId())).isEmpty();
+
+        assertThat(checkpointService.recover().get("journalRecords")).isGreaterThanOrEqualTo(6L);
+        assertThat(doctorRepository.findById(doctor.getId())).get()
+                .extracting(Doctor::getConsultationFee).isEqualTo(725.0);
+        assertThat(doctorRepository.findById(removed.getId())).isEmpty();
+        assertThat(patientRepository.findById(patient.getId())).isPresent();
+        assertThat(historyRepository.findByPatientIdOrderByIdAsc(patient.getId())).hasSize(1);
+
+        List<Integer> before = journal.listSegments();
+        checkpointService.checkpoint();
+        List<Integer> after = journal.listSegments();
+        assertThat(after).hasSize(1).doesNotContainAnyElementsOf(before);
+        assertThat(Files.exists(journal.getDirectory().resolve("CHECKPOINT"))).isTrue();
+
+        // Written after the checkpoint, so it lives only in the tail segment
+        patientService.appendHistoryEntry(patient.getId(), "Cast removed");
+        wipe(doctor.getId(), patient.getId());
+        checkpointService.recover();
+        assertThat(doctorRepository.findById(doctor.getId())).isPresent();
+        assertThat(historyRepository.findByPatientIdOrderByIdAsc(patient.getId()))
+                .extracting(MedicalHistoryEntry::getEntry)
+                .containsExactly("Fracture, left wrist", "Cast removed");
+
+        // Recovering over rows that are still there must not duplicate history
+        checkpointService.recover();
+        assertThat(historyRepository.findByPatientIdOrderByIdAsc(patient.getId())).hasSize(2);
+    }
+
+    @Test
+    void concurrentWritersReplayInCommitOrder() throws Exception {
+        Doctor doctor = doctorService.addDoctor(new Doctor(null, "Contended Doctor", 51, "Male", "9876512342",
+                "contended@meditrack.com", Specialization.ENT, 400, 12));
+        Patient patient = patientService.addPatient(new Patient(null, "Contended Patient", 44, "Female",
+                "9123412342", "contendedpat@meditrack.com", "A+"));
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 1; i <= 40; i++) {
+                double fee = 400 + i;
+                String note = "Visit " + i;
+                writes.add(writers.submit(() -> {
+                    Doctor patch = new Doctor();
+                    patch.setConsultationFee(fee);
+                    doctorService.updateDoctor(doctor.getId(), patch);
+                }));
+                writes.add(writers.submit(() -> patientService.appendHistoryEntry(patient.getId(), note)));
+            }
+            for (Future<?> write : writes) {
+                write.get();
+            }
+        } finally {
+            writers.shutdown();
+        }
+        double committed = doctorRepository.findById(doctor.getId()).orElseThrow().getConsultationFee();
+
+        // A rolled-back write must not reach the journal
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Doctor patch = new Doctor();
+            patch.setConsultationFee(1);
+            doctorService.updateDoctor(doctor.getId(), patch);
+            status.setRollbackOnly();
+        });
+        wipe(doctor.getId(), patient.getId());
+        checkpointService.recover();
+
+        assertThat(doctorRepository.findById(doctor.getId())).get()
+                .extracting(Doctor::getConsultationFee).isEqualTo(committed);
+        assertThat(historyRepository.findByPatientIdOrderByIdAsc(patient.getId())).hasSize(40);
+    }
+
+    private void wipe(String doctorId, String patientId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            historyRepository.deleteByPatientId(patientId);
+            patientRepository.deleteById(patientId);
+            doctorRepository.deleteById(doctorId);
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.util.CSVUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "meditrack.import.batch-rows=7")
+class CsvImportServiceTest {
+
+    @Autowired
+    private CsvImportService importService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Test
+    void importsInBatchesAndUpsertsOnReload(@TempDir Path dir) throws IOException {
+        List<Doctor> doctors = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            doctors.add(new Doctor("IMP-" + i, "Dr. Import, " + i, 40, "F", "900000000" + i % 10,
+                    "imp" + i + "@meditrack.com", Specialization.ENT, 300, 5));
+        }
+        String file = dir.resolve("doctors.csv").toString();
+        CSVUtil.saveDoctors(doctors, file);
+
+        CsvImportService.ImportResult first = importService.importFile(file, Doctor.class,
+                CSVUtil::mapDoctor, doctorService.getRepository());
+
+        doctors.get(3).setConsultationFee(999);
+        CSVUtil.saveDoctors(doctors, file);
+        CsvImportService.ImportResult second = importService.importFile(file, Doctor.class,
+                CSVUtil::mapDoctor, doctorService.getRepository());
+
+        assertThat(first.rows()).isEqualTo(40);
+        assertThat(second.rows()).isEqualTo(40);
+        assertThat(doctorService.getRepository().findById("IMP-3")).get()
+                .satisfies(d -> {
+                    assertThat(d.getConsultationFee()).isEqualTo(999.0);
+                    assertThat(d.getName()).isEqualTo("Dr. Import, 3");
+                });
+        assertThat(doctorService.getRepository().findAllById(doctors.stream().map(Doctor::getId).toList()))
+                .hasSize(40);
+    }
+}
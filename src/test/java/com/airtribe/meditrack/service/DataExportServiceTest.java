@@ -0,0 +1,70 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.Bill;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.exception.InvalidDataException;
+import com.airtribe.meditrack.util.CSVUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class DataExportServiceTest {
+
+    @Autowired
+    private DataExportService exportService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BillingService billingService;
+
+    @Test
+    void exportsBillsAsCsvAndNdjson() throws IOException {
+        Doctor doctor = doctorService.addDoctor(new Doctor(null, "Export Doctor", 48, "Female", "9876509876",
+                "export@meditrack.com", Specialization.ENT, 400, 12));
+        Patient patient = patientService.addPatient(new Patient(null, "Export, Patient", 29, "Male", "9123409876",
+                "exportpat@meditrack.com", "O+"));
+        Appointment appointment = appointmentService.createAppointment(doctor.getId(), patient.getId(),
+                LocalDateTime.of(2033, 2, 3, 10, 0), null);
+        Bill bill = billingService.generateBill(appointment.getId(), "STANDARD");
+
+        String csv = export("bills", DataExportService.Format.CSV);
+        assertThat(csv).startsWith(String.join(",", CSVUtil.BILL_HEADER) + "\r\n");
+        assertThat(csv).contains(bill.getId() + "," + appointment.getId() + "," + patient.getId()
+                + ",\"Export, Patient\",Export Doctor,");
+
+        String ndjson = export("BILLS", DataExportService.Format.NDJSON);
+        assertThat(ndjson.lines()).anyMatch(line -> line.contains("\"" + bill.getId() + "\""));
+    }
+
+    @Test
+    void rejectsUnknownEntityAndFormat() {
+        assertThatThrownBy(() -> exportService.checkEntity("invoices")).isInstanceOf(InvalidDataException.class);
+        assertThatThrownBy(() -> DataExportService.Format.of("xml")).isInstanceOf(InvalidDataException.class);
+    }
+
+    private String export(String entity, DataExportService.Format format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(entity, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
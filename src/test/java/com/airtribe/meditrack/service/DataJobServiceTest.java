@@ -0,0 +1,80 @@
+package com.airtribe.meditrack.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataJobServiceTest {
+
+    private final DataJobService jobService = new DataJobService(1, 10);
+
+    @AfterEach
+    void tearDown() {
+        jobService.stop();
+    }
+
+    @Test
+    void reportsProgressAndResult() throws InterruptedException {
+        DataJob job = jobService.submit("test", j -> {
+            j.addWorkTotal(4);
+            for (int i = 0; i < 4; i++) {
+                j.addRows(25);
+                j.addWorkDone(1);
+            }
+            return "done";
+        });
+
+        awaitDone(job);
+        assertThat(job.getStatus()).isEqualTo(DataJob.Status.SUCCEEDED);
+        assertThat(job.getRowsProcessed()).isEqualTo(100);
+        assertThat(job.getProgress()).isEqualTo(1.0);
+        assertThat(job.getEtaMillis()).isZero();
+        assertThat(job.getResult()).isEqualTo("done");
+    }
+
+    @Test
+    void cancelsRunningAndQueuedJobs() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        DataJob running = jobService.submit("loop", j -> {
+            started.countDown();
+            while (true) {
+                j.addRows(1);
+                Thread.sleep(1);
+            }
+        });
+        // The pool has a single thread, so this one waits behind the loop
+        DataJob queued = jobService.submit("queued", j -> "never");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(jobService.cancel(queued.getId())).isTrue();
+        assertThat(jobService.cancel(running.getId())).isTrue();
+
+        awaitDone(running);
+        assertThat(running.getStatus()).isEqualTo(DataJob.Status.CANCELLED);
+        assertThat(queued.getStatus()).isEqualTo(DataJob.Status.CANCELLED);
+        assertThat(jobService.cancel(running.getId())).isFalse();
+    }
+
+    @Test
+    void recordsFailures() throws InterruptedException {
+        DataJob job = jobService.submit("failing", j -> {
+            throw new IOException("disk full");
+        });
+
+        awaitDone(job);
+        assertThat(job.getStatus()).isEqualTo(DataJob.Status.FAILED);
+        assertThat(job.getErrors()).containsExactly("disk full");
+    }
+
+    private static void awaitDone(DataJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!job.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.service.DeltaExportService.DeltaResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "meditrack.delta.directory=target/delta-test",
+        "meditrack.delta.safety-lag-ms=0"
+})
+class DeltaExportServiceTest {
+
+    @Autowired
+    private DeltaExportService deltaExportService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @BeforeEach
+    void clearSegments() throws IOException {
+        FileSystemUtils.deleteRecursively(Paths.get("target/delta-test"));
+    }
+
+    @Test
+    void updateBumpsUpdatedAtAndOnlyChangedRowsAreExported() throws Exception {
+        Doctor doctor = doctorService.addDoctor(new Doctor(null, "Delta Doctor", 45, "Male", "9876501234",
+                "delta@meditrack.com", Specialization.CARDIOLOGY, 600, 15));
+        DeltaResult baseline = deltaExportService.exportChanges();
+        assertThat(baseline.records().get("doctors")).isPositive();
+
+        Thread.sleep(2);
+        Doctor patch = new Doctor();
+        patch.setConsultationFee(650);
+        Doctor updated = doctorService.updateDoctor(doctor.getId(), patch);
+        assertThat(updated.getUpdatedAt()).isAfter(baseline.upTo());
+
+        Thread.sleep(2);
+        DeltaResult delta = deltaExportService.exportChanges();
+        assertThat(delta.segment()).isNotNull();
+        assertThat(delta.records()).containsEntry("doctors", 1L).containsEntry("patients", 0L);
+
+        Thread.sleep(2);
+        assertThat(deltaExportService.exportChanges().segment()).isNull();
+    }
+
+    @Test
+    void compactionMergesSegmentsIntoOne() throws Exception {
+        Doctor doctor = doctorService.addDoctor(new Doctor(null, "Compact Doctor", 52, "Female", "9876505678",
+                "compact@meditrack.com", Specialization.DERMATOLOGY, 500, 22));
+        deltaExportService.exportChanges();
+        Thread.sleep(2);
+        Doctor patch = new Doctor();
+        patch.setYearsOfExperience(23);
+        doctorService.updateDoctor(doctor.getId(), patch);
+        Thread.sleep(2);
+        deltaExportService.exportChanges();
+        assertThat((List<?>) deltaExportService.getStatus().get("segments")).hasSize(2);
+
+        Map<String, Object> result = deltaExportService.compact();
+
+        assertThat(result).containsEntry("segmentsBefore", 2).containsEntry("segmentsAfter", 1);
+        assertThat((List<?>) deltaExportService.getStatus().get("segments")).hasSize(1);
+        deltaExportService.restore();
+        assertThat(doctorService.getDoctorById(doctor.getId()).orElseThrow().getYearsOfExperience()).isEqualTo(23);
+    }
+
+    @Test
+    void restoreKeepsTimestampsAndDoesNotDuplicateHistory() throws Exception {
+        Doctor doctor = doctorService.addDoctor(new Doctor(null, "Replayed Doctor", 48, "Male", "9876509012",
+                "replayed@meditrack.com", Specialization.ORTHOPEDICS, 600, 18));
+        Patient patient = patientService.addPatient(new Patient(null, "Replayed Patient", 36, "Female",
+                "9123409012", "replayedpat@meditrack.com", "B+"));
+        patientService.appendHistoryEntry(patient.getId(), "Hypertension");
+        deltaExportService.exportChanges();
+        Thread.sleep(2);
+        Doctor patch = new Doctor();
+        patch.setConsultationFee(900);
+        doctorService.updateDoctor(doctor.getId(), patch);
+
+        deltaExportService.restore();
+        deltaExportService.restore();
+
+        assertThat(doctorService.getRepository().findById(doctor.getId())).get()
+                .satisfies(d -> assertThat(d.getConsultationFee()).isEqualTo(600.0));
+        assertThat(patientService.getHistoryPage(patient.getId(), null, 10).items())
+                .extracting(MedicalHistoryEntry::getEntry).containsExactly("Hypertension");
+        // The restored doctor keeps its exported updatedAt, so there is nothing new to export
+        Thread.sleep(2);
+        assertThat(deltaExportService.exportChanges().segment()).isNull();
+    }
+}
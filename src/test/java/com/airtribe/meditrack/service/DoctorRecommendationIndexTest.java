@@ -0,0 +1,115 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Specialization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DoctorRecommendationIndexTest {
+
+    private DoctorScheduleIndex scheduleIndex;
+    private DoctorLoadTable loadTable;
+    private DoctorRecommendationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        scheduleIndex = new DoctorScheduleIndex();
+        DoctorDirectory directory = new DoctorDirectory();
+        List<Doctor> doctors = List.of(
+                new Doctor("DOC-1", "Alpha", 50, "F", null, null, Specialization.CARDIOLOGY, 500, 20),
+                new Doctor("DOC-2", "Beta", 40, "M", null, null, Specialization.CARDIOLOGY, 400, 10),
+                new Doctor("DOC-3", "Gamma", 40, "M", null, null, Specialization.NEUROLOGY, 400, 25),
+                new Doctor("DOC-4", "Delta", 45, "F", null, null, Specialization.ENT, 300, 30));
+        doctors.forEach(directory::put);
+        loadTable = new DoctorLoadTable(new AppointmentSlotEngine(scheduleIndex, directory));
+        index = new DoctorRecommendationIndex(directory, loadTable);
+        index.rebuild(doctors);
+    }
+
+    @Test
+    void mergesMatchedBucketsByHitsThenScore() {
+        List<Doctor> top = index.topK(Map.of(Specialization.CARDIOLOGY, 2, Specialization.NEUROLOGY, 1), 3);
+
+        assertThat(top).extracting(Doctor::getId).containsExactly("DOC-1", "DOC-2", "DOC-3");
+        assertThat(index.topK(Map.of(Specialization.CARDIOLOGY, 1, Specialization.NEUROLOGY, 1), 2))
+                .extracting(Doctor::getId).containsExactly("DOC-3", "DOC-1");
+    }
+
+    @Test
+    void upcomingConfirmedBookingsLowerADoctorsRank() {
+        List<Appointment> bookings = book("DOC-1", 6);
+        index.refreshLoad("DOC-1");
+
+        assertThat(loadTable.get("DOC-1").upcomingConfirmed()).isEqualTo(6);
+        assertThat(index.topK(Map.of(Specialization.CARDIOLOGY, 1), 2))
+                .extracting(Doctor::getId).containsExactly("DOC-2", "DOC-1");
+
+        bookings.forEach(a -> {
+            a.setStatus(AppointmentStatus.CANCELLED);
+            scheduleIndex.release("DOC-1", a.getId(), a.getAppointmentDateTime());
+            loadTable.track(a);
+        });
+        index.refreshLoad("DOC-1");
+
+        assertThat(loadTable.get("DOC-1").upcomingConfirmed()).isZero();
+        assertThat(index.topK(Map.of(Specialization.CARDIOLOGY, 1), 2))
+                .extracting(Doctor::getId).containsExactly("DOC-1", "DOC-2");
+    }
+
+    @Test
+    void loadTableKeepsSameTimeBookingsAndFollowsTheNextFreeSlot() {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        for (String id : List.of("APT-A", "APT-B")) {
+            Appointment a = new Appointment(id, "DOC-2", "PAT-1", "Doctor", "Patient", tomorrow, "");
+            a.setStatus(AppointmentStatus.CONFIRMED);
+            loadTable.track(a);
+        }
+        assertThat(loadTable.refresh("DOC-2").upcomingConfirmed()).isEqualTo(2);
+
+        // Fill the first free slot; the next search starts there instead of today
+        LocalDateTime free = loadTable.get("DOC-2").nextFreeSlot();
+        Appointment taken = new Appointment("APT-C", "DOC-2", "PAT-1", "Doctor", "Patient", free, "");
+        scheduleIndex.reserve("DOC-2", taken.getId(), free);
+        loadTable.track(taken);
+        assertThat(loadTable.refresh("DOC-2").nextFreeSlot()).isAfter(free);
+
+        scheduleIndex.release("DOC-2", taken.getId(), free);
+        taken.setStatus(AppointmentStatus.CANCELLED);
+        loadTable.track(taken);
+        assertThat(loadTable.refresh("DOC-2").nextFreeSlot()).isEqualTo(free);
+
+        loadTable.remove("DOC-2");
+        assertThat(loadTable.get("DOC-2")).isEqualTo(DoctorLoadTable.DoctorLoad.IDLE);
+        assertThat(loadTable.refresh("DOC-2").upcomingConfirmed()).isZero();
+    }
+
+    private List<Appointment> book(String doctorId, int count) {
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        List<Appointment> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Appointment a = new Appointment("APT-" + i, doctorId, "PAT-1", "Doctor", "Patient",
+                    tomorrow.plusMinutes(30L * i), "");
+            a.setStatus(AppointmentStatus.CONFIRMED);
+            scheduleIndex.reserve(doctorId, a.getId(), a.getAppointmentDateTime());
+            loadTable.track(a);
+            bookings.add(a);
+        }
+        return bookings;
+    }
+
+    @Test
+    void removedDoctorsAreNoLongerRecommended() {
+        index.remove("DOC-4");
+
+        assertThat(index.topK(Map.of(Specialization.ENT, 1), 5)).isEmpty();
+    }
+}
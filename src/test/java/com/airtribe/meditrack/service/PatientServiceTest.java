@@ -0,0 +1,133 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.KeysetPage;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.PatientSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statistics are global: keep the outbox relay from polling while statements are counted
+@SpringBootTest(properties = "meditrack.outbox.poll-interval-ms=3600000")
+class PatientServiceTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void getAllPatientsIssuesTheSameNumberOfStatementsRegardlessOfPatientCount() {
+        addPatients(3);
+        long fewPatients = statementsFor(() -> patientService.getAllPatients());
+
+        addPatients(20);
+        long manyPatients = statementsFor(() -> patientService.getAllPatients());
+
+        assertThat(manyPatients).isEqualTo(fewPatients).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void streamingPatientsLoadsAllergiesOncePerPage() {
+        addPatients(3);
+        List<Patient> few = new ArrayList<>();
+        long fewPatients = statementsFor(() -> patientService.streamPatients(null, few::add));
+
+        addPatients(20);
+        List<Patient> many = new ArrayList<>();
+        long manyPatients = statementsFor(() -> patientService.streamPatients(null, many::add));
+
+        assertThat(many).hasSize(few.size() + 20);
+        assertThat(many).filteredOn(p -> p.getName().startsWith("Stats Patient"))
+                .allSatisfy(p -> assertThat(p.getAllergies()).containsExactly("Penicillin"));
+        assertThat(manyPatients).isEqualTo(fewPatients).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void summariesAreServedByASingleQuery() {
+        addPatients(5);
+
+        AtomicReference<List<PatientSummary>> result = new AtomicReference<>();
+        long statements = statementsFor(() -> result.set(patientService.getPatientSummaries()));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(result.get()).hasSizeGreaterThanOrEqualTo(5);
+    }
+
+    @Test
+    void medicalHistoryIsAppendedAndReadInRecordingOrder() {
+        Patient patient = new Patient(null, "History Patient", 60, "Male", "9123456781",
+                "history@meditrack.com", "B+");
+        patient.getMedicalHistory().add("Hypertension");
+        String id = patientService.addPatient(patient).getId();
+
+        patientService.appendHistoryEntry(id, "Knee surgery");
+        // A client echoing the fetched history back on update must not duplicate it
+        Patient update = new Patient();
+        update.setMedicalHistory(new ArrayList<>(patientService.getPatientDetails(id).orElseThrow().getMedicalHistory()));
+        patientService.updatePatient(id, update);
+        patientService.appendHistoryEntry(id, "Type 2 diabetes");
+
+        assertThat(patientService.getPatientDetails(id).orElseThrow().getMedicalHistory())
+                .containsExactly("Hypertension", "Knee surgery", "Type 2 diabetes");
+
+        KeysetPage<MedicalHistoryEntry> first = patientService.getHistoryPage(id, null, 2);
+        KeysetPage<MedicalHistoryEntry> second = patientService.getHistoryPage(id, Long.valueOf(first.nextCursor()), 2);
+        assertThat(first.items()).extracting(MedicalHistoryEntry::getEntry).containsExactly("Hypertension", "Knee surgery");
+        assertThat(second.items()).extracting(MedicalHistoryEntry::getEntry).containsExactly("Type 2 diabetes");
+        assertThat(second.hasMore()).isFalse();
+    }
+
+    @Test
+    void medicalHistoryIsReadOnCreateOnly() {
+        Patient patient = new Patient(null, "Create Only Patient", 45, "Female", "9123456783",
+                "createonly@meditrack.com", "O+");
+        patient.getMedicalHistory().add("Migraine");
+        String id = patientService.addPatient(patient).getId();
+
+        Patient update = new Patient();
+        update.setPhone("9123456784");
+        update.getMedicalHistory().add("Fractured wrist");
+        patientService.updatePatient(id, update);
+
+        Patient details = patientService.getPatientDetails(id).orElseThrow();
+        assertThat(details.getPhone()).isEqualTo("9123456784");
+        assertThat(details.getMedicalHistory()).containsExactly("Migraine");
+    }
+
+    private long statementsFor(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addPatients(int count) {
+        for (int i = 0; i < count; i++) {
+            Patient patient = new Patient(null, "Stats Patient " + i, 40, "Female", "9123456780",
+                    "stats@meditrack.com", "A+");
+            patient.getAllergies().add("Penicillin");
+            patient.getMedicalHistory().add("Asthma");
+            patientService.addPatient(patient);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.Bill;
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.MedicalHistoryEntry;
+import com.airtribe.meditrack.entity.Patient;
+import com.airtribe.meditrack.entity.Specialization;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class SnapshotServiceTest {
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private BillingService billingService;
+
+    @Test
+    void restoresEveryEntityTypeAsSaved(@TempDir Path dir) throws IOException {
+        Doctor doctor = doctorService.addDoctor(new Doctor(null, "Snapshot Doctor", 50, "Female", "9876543210",
+                "snap@meditrack.com", Specialization.NEUROLOGY, 750, 20));
+        Patient patient = new Patient(null, "Snapshot Patient", 33, "Male", "9123456780",
+                "snappat@meditrack.com", "AB-");
+        patient.setAllergies(List.of("Penicillin", "Latex"));
+        patient.setMedicalHistory(List.of("Migraine since 2020"));
+        patient = patientService.addPatient(patient);
+        patientService.appendHistoryEntry(patient.getId(), "MRI, \"clear\"");
+        Appointment appointment = appointmentService.createAppointment(doctor.getId(), patient.getId(),
+                LocalDateTime.of(2032, 5, 6, 11, 0), "Notes with, commas\nand lines");
+        appointmentService.updateStatus(appointment.getId(), AppointmentStatus.CONFIRMED);
+        Bill bill = billingService.getBillById(
+                billingService.generateBill(appointment.getId(), "STANDARD").getId()).orElseThrow();
+
+        String file = dir.resolve("meditrack.snapshot").toString();
+        Map<String, Long> saved = snapshotService.save(file);
+
+        // Diverge from the snapshot, then restore it
+        Doctor changed = doctorService.getRepository().findById(doctor.getId()).orElseThrow();
+        changed.setConsultationFee(1);
+        doctorService.getRepository().save(changed);
+        patientService.appendHistoryEntry(patient.getId(), "added after the snapshot");
+        billingService.getRepository().deleteById(bill.getId());
+
+        Map<String, Long> restored = snapshotService.restore(file);
+
+        assertThat(restored).isEqualTo(saved);
+        assertThat(doctorService.getRepository().findById(doctor.getId())).get()
+                .satisfies(d -> {
+                    assertThat(d.getConsultationFee()).isEqualTo(750.0);
+                    assertThat(d.getSpecialization()).isEqualTo(Specialization.NEUROLOGY);
+                });
+        assertThat(patientService.getPatientDetails(patient.getId())).get()
+                .satisfies(p -> {
+                    assertThat(p.getAllergies()).containsExactly("Penicillin", "Latex");
+                    assertThat(p.getMedicalHistory()).containsExactly("Migraine since 2020", "MRI, \"clear\"");
+                });
+        assertThat(appointmentService.getRepository().findById(appointment.getId())).get()
+                .satisfies(a -> {
+                    assertThat(a.getNotes()).isEqualTo("Notes with, commas\nand lines");
+                    assertThat(a.getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
+                    assertThat(a.getAppointmentDateTime()).isEqualTo(LocalDateTime.of(2032, 5, 6, 11, 0));
+                });
+        assertThat(billingService.getBillById(bill.getId())).get()
+                .satisfies(b -> {
+                    assertThat(b.getTotalAmount()).isEqualTo(bill.getTotalAmount());
+                    assertThat(b.getBilledAt()).isEqualTo(bill.getBilledAt());
+                });
+        assertThat(patientService.getHistoryPage(patient.getId(), null, 10).items())
+                .extracting(MedicalHistoryEntry::getEntry).hasSize(2);
+    }
+
+    @Test
+    void truncatedSnapshotRestoresNothing(@TempDir Path dir) throws IOException {
+        Patient patient = patientService.addPatient(new Patient(null, "Truncated Patient", 41, "Female",
+                "9123456781", "trunc@meditrack.com", "O+"));
+        patientService.appendHistoryEntry(patient.getId(), "Asthma");
+        Path file = dir.resolve("meditrack.snapshot");
+        snapshotService.save(file.toString());
+        // Cut into the last sections, after the patients and their history
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 4);
+        }
+        patientService.appendHistoryEntry(patient.getId(), "added after the snapshot");
+
+        assertThatThrownBy(() -> snapshotService.restore(file.toString())).isInstanceOf(IOException.class);
+
+        assertThat(patientService.getHistoryPage(patient.getId(), null, 10).items())
+                .extracting(MedicalHistoryEntry::getEntry).containsExactly("Asthma", "added after the snapshot");
+        assertThat(Files.list(dir)).containsExactly(file);
+    }
+}
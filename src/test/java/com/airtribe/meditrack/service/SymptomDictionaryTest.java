@@ -0,0 +1,59 @@
+package com.airtribe.meditrack.service;
+
+import com.airtribe.meditrack.entity.Specialization;
+import com.airtribe.meditrack.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+class SymptomDictionaryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bundledDictionaryIsUsedWithoutAFile() {
+        SymptomDictionary dictionary = new SymptomDictionary("", false);
+
+        assertThat(dictionary.snapshot().source()).isEqualTo("classpath:symptoms.dict");
+        assertThat(dictionary.matchSpecializations("chest pain and a rash"))
+                .containsOnly(entry(Specialization.CARDIOLOGY, 1), entry(Specialization.DERMATOLOGY, 1));
+    }
+
+    @Test
+    void reloadSwapsInTheEditedFile() throws IOException {
+        Path file = dir.resolve("symptoms.dict");
+        Files.writeString(file, "# test\nheart = CARDIOLOGY\n");
+        SymptomDictionary dictionary = new SymptomDictionary(file.toString(), false);
+        SymptomDictionary.Snapshot first = dictionary.snapshot();
+
+        Files.writeString(file, "heart = CARDIOLOGY\nhay fever = ent  # seasonal\n");
+        SymptomDictionary.Snapshot second = dictionary.reload();
+
+        assertThat(second.version()).isGreaterThan(first.version());
+        assertThat(first.matcher().countHits("hay fever")).isEmpty();
+        assertThat(dictionary.matchSpecializations("hay fever")).containsOnly(entry(Specialization.ENT, 1));
+    }
+
+    @Test
+    void brokenFileKeepsThePreviousSnapshot() throws IOException {
+        Path file = dir.resolve("symptoms.dict");
+        Files.writeString(file, "heart = CARDIOLOGY\n");
+        SymptomDictionary dictionary = new SymptomDictionary(file.toString(), false);
+
+        Files.writeString(file, "heart = CARDIOLOGY\nfoot = PODIATRY\n");
+
+        assertThatThrownBy(dictionary::reload)
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessageContaining(":2: unknown specialization 'PODIATRY'");
+        assertThat(dictionary.snapshot().version()).isEqualTo(1);
+        assertThat(dictionary.getMetrics()).containsEntry("failedReloads", 1L);
+    }
+}
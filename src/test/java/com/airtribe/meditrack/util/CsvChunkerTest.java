@@ -0,0 +1,61 @@
+package com.airtribe.meditrack.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvChunkerTest {
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void chunksStartOnRecordBoundariesEvenInsideMultiLineQuotedFields(@TempDir Path dir) throws IOException {
+        StringWriter csv = new StringWriter();
+        List<String> expected = new ArrayList<>();
+        try (CsvWriter writer = new CsvWriter(csv)) {
+            writer.row("id", "notes");
+            for (int i = 0; i < 500; i++) {
+                String notes = i % 3 == 0 ? "line one\nline \"two\", with comma\n" : "ñote " + i;
+                writer.row("ROW-" + i, notes);
+                expected.add("ROW-" + i + "|" + notes);
+            }
+        }
+        Path file = dir.resolve("rows.csv");
+        Files.writeString(file, csv.toString(), StandardCharsets.UTF_8);
+
+        List<String> parsed = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<CsvChunker.Chunk> chunks = CsvChunker.split(channel, 97, workers);
+            assertThat(chunks.size()).isGreaterThan(50);
+            for (CsvChunker.Chunk chunk : chunks) {
+                try (CsvReader reader = new CsvReader(CsvChunker.open(channel, chunk))) {
+                    if (chunk.index() == 0) {
+                        reader.skipHeader();
+                    }
+                    reader.forEach(row -> row.getString(0) + "|" + row.getString(1), parsed::add);
+                }
+            }
+        }
+
+        assertThat(parsed).containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,105 @@
+package com.airtribe.meditrack.util;
+
+import com.airtribe.meditrack.entity.Appointment;
+import com.airtribe.meditrack.entity.AppointmentStatus;
+import com.airtribe.meditrack.entity.Specialization;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    private static List<List<String>> parse(String csv) throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            return reader.readAll(row -> {
+                List<String> fields = new ArrayList<>();
+                for (int i = 0; i < row.fieldCount(); i++) {
+                    fields.add(row.getString(i));
+                }
+                return fields;
+            });
+        }
+    }
+
+    @Test
+    void parsesQuotesEscapesAndLineEndings() throws IOException {
+        assertThat(parse("a,\"b, c\",\"say \"\"hi\"\"\"\r\n\r\n,,\"multi\nline\"\n\"\",x"))
+                .containsExactly(
+                        List.of("a", "b, c", "say \"hi\""),
+                        List.of("", "", "multi\nline"),
+                        List.of("", "x"));
+        assertThatThrownBy(() -> parse("a,\"open")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void writerOutputReadsBackIncludingFieldsLongerThanTheBuffer() throws IOException {
+        String big = "x,\"".repeat(40_000);
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            writer.row("plain", " padded ", big, null);
+            writer.field(42).field(-7).field(2.5).endRow();
+        }
+
+        List<List<String>> rows = parse(out.toString());
+        assertThat(rows.get(0)).containsExactly("plain", " padded ", big, "");
+        try (CsvReader reader = new CsvReader(new StringReader(out.toString()))) {
+            reader.skipHeader();
+            reader.next();
+            assertThat(reader.getInt(0)).isEqualTo(42);
+            assertThat(reader.getLong(1)).isEqualTo(-7);
+            assertThat(reader.getDouble(2)).isEqualTo(2.5);
+        }
+    }
+
+    @Test
+    void appointmentNotesWithCommasSurviveSaveAndLoad(@TempDir Path dir) throws IOException {
+        Appointment appointment = new Appointment("APT-1", "DOC-1", "PAT-1", "Dr. Rao, MD", "Asha",
+                LocalDateTime.of(2026, 3, 4, 10, 30), "Follow-up, bring \"old\" reports\nfasting");
+        appointment.setStatus(AppointmentStatus.CONFIRMED);
+        String file = dir.resolve("appointments.csv").toString();
+
+        CSVUtil.saveAppointments(List.of(appointment), file);
+        List<Appointment> loaded = CSVUtil.loadAppointments(file);
+
+        assertThat(loaded).singleElement().satisfies(a -> {
+            assertThat(a.getDoctorName()).isEqualTo("Dr. Rao, MD");
+            assertThat(a.getNotes()).isEqualTo("Follow-up, bring \"old\" reports\nfasting");
+            assertThat(a.getAppointmentDateTime()).isEqualTo(LocalDateTime.of(2026, 3, 4, 10, 30));
+            assertThat(a.getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
+        });
+    }
+
+    @Test
+    void mappersTrimPaddedUnquotedFields() throws IOException {
+        String csv = "id,name,age,gender,phone,email,specialization,fee,years\n"
+                + " DOC-7 , Dr. Iyer ,  52 , Female ,9876500000, iyer@meditrack.com , CARDIOLOGY , 750.0 , 20 \n"
+                + "APT-7,DOC-7,PAT-7,Dr. Iyer,Asha, 2026-03-04T10:30:00 , CONFIRMED ,\" keep my spaces \"\n";
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            reader.skipHeader();
+            reader.next();
+            assertThat(CSVUtil.mapDoctor(reader)).satisfies(d -> {
+                assertThat(d.getId()).isEqualTo("DOC-7");
+                assertThat(d.getName()).isEqualTo("Dr. Iyer");
+                assertThat(d.getEmail()).isEqualTo("iyer@meditrack.com");
+                assertThat(d.getSpecialization()).isEqualTo(Specialization.CARDIOLOGY);
+                assertThat(d.getYearsOfExperience()).isEqualTo(20);
+            });
+            reader.next();
+            assertThat(CSVUtil.mapAppointment(reader)).satisfies(a -> {
+                assertThat(a.getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
+                assertThat(a.getAppointmentDateTime()).isEqualTo(LocalDateTime.of(2026, 3, 4, 10, 30));
+                assertThat(a.getNotes()).isEqualTo(" keep my spaces ");
+            });
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.airtribe.meditrack.util;
+
+import com.airtribe.meditrack.entity.Doctor;
+import com.airtribe.meditrack.entity.Specialization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class DataStoreTest {
+
+    private DataStore<Doctor> store;
+
+    @BeforeEach
+    void setUp() {
+        store = new DataStore<>();
+        store.addIndex("specialization", Doctor::getSpecialization);
+        store.addSortedIndex("fee", Doctor::getConsultationFee);
+    }
+
+    private static Doctor doctor(String id, Specialization spec, double fee) {
+        return new Doctor(id, "Dr " + id, 40, "F", null, null, spec, fee, 10);
+    }
+
+    @Test
+    void indexesFollowAddUpdateAndRemove() {
+        store.add(doctor("DOC-1", Specialization.ENT, 300));
+        store.add(doctor("DOC-2", Specialization.CARDIOLOGY, 800));
+        store.add(doctor("DOC-3", Specialization.ENT, 500));
+
+        assertThat(store.filter("specialization", Specialization.ENT))
+                .extracting(Doctor::getId).containsExactly("DOC-1", "DOC-3");
+        assertThat(store.range("fee", 400.0, 900.0)).extracting(Doctor::getId).containsExactly("DOC-3", "DOC-2");
+
+        Doctor moved = doctor("DOC-1", Specialization.NEUROLOGY, 1000);
+        store.update(moved);
+        store.remove("DOC-3");
+
+        assertThat(store.filter("specialization", Specialization.ENT)).isEmpty();
+        assertThat(store.findFirst("specialization", Specialization.NEUROLOGY)).contains(moved);
+        assertThat(store.range("fee", 0.0, 2000.0)).extracting(Doctor::getId).containsExactly("DOC-2", "DOC-1");
+        assertThat(store.getAll()).extracting(Doctor::getId).containsExactly("DOC-1", "DOC-2");
+    }
+
+    @Test
+    void indexAddedLaterCoversExistingEntities() {
+        store.add(doctor("DOC-1", Specialization.ENT, 300));
+        store.addIndex("experience", Doctor::getYearsOfExperience);
+
+        assertThat(store.filter("experience", 10)).extracting(Doctor::getId).containsExactly("DOC-1");
+    }
+
+    @Test
+    void indexesStayConsistentUnderConcurrentWrites() throws Exception {
+        Specialization[] specs = Specialization.values();
+        int threads = 8;
+        int opsPerThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < opsPerThread; i++) {
+                        String id = "DOC-" + random.nextInt(200);
+                        Doctor d = doctor(id, specs[random.nextInt(specs.length)], random.nextInt(10) * 100);
+                        switch (random.nextInt(4)) {
+                            case 0 -> store.remove(id);
+                            case 1 -> store.filter("specialization", d.getSpecialization())
+                                    .forEach(found -> assertThat(found.getSpecialization()).isEqualTo(d.getSpecialization()));
+                            default -> store.add(d);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Doctor> all = store.getAll();
+        assertThat(all).hasSize(store.size());
+        for (Specialization spec : specs) {
+            assertThat(store.filter("specialization", spec))
+                    .containsExactlyElementsOf(store.filter(d -> d.getSpecialization() == spec));
+        }
+        assertThat(store.range("fee", 0.0, 1000.0)).containsExactlyInAnyOrderElementsOf(all);
+    }
+
+    @Test
+    void snapshotKeepsItsPointInTimeViewWhileWritersContinue() {
+        store.add(doctor("DOC-1", Specialization.ENT, 300));
+        store.add(doctor("DOC-2", Specialization.ENT, 400));
+
+        try (DataStore<Doctor>.Snapshot snapshot = store.snapshot()) {
+            store.update(doctor("DOC-1", Specialization.NEUROLOGY, 350));
+            store.remove("DOC-2");
+            store.add(doctor("DOC-3", Specialization.ENT, 500));
+            store.add(doctor("DOC-2", Specialization.CARDIOLOGY, 450));
+
+            assertThat(snapshot.getAll()).extracting(Doctor::getId, Doctor::getSpecialization)
+                    .containsExactly(tuple("DOC-1", Specialization.ENT), tuple("DOC-2", Specialization.ENT));
+            assertThat(snapshot.getById("DOC-2")).get().extracting(Doctor::getConsultationFee).isEqualTo(400.0);
+            assertThat(snapshot.getById("DOC-3")).isEmpty();
+            assertThat(store.getAll()).extracting(Doctor::getId).containsExactly("DOC-1", "DOC-3", "DOC-2");
+            assertThat(store.slotsWithHistory()).isEqualTo(2);
+        }
+
+        assertThat(store.slotsWithHistory()).isZero();
+        assertThat(store.getById("DOC-2")).get().extracting(Doctor::getSpecialization).isEqualTo(Specialization.CARDIOLOGY);
+    }
+
+    @Test
+    void snapshotsStayConsistentUnderConcurrentUpdates() throws Exception {
+        int doctors = 50;
+        for (int i = 0; i < doctors; i++) {
+            store.add(doctor("DOC-" + i, Specialization.GENERAL, 0));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            // Each round bumps every doctor's fee by one, in id order, as separate writes
+            Future<?> writer = pool.submit(() -> {
+                for (int round = 1; round <= 200; round++) {
+                    for (int i = 0; i < doctors; i++) {
+                        store.update(doctor("DOC-" + i, Specialization.GENERAL, round));
+                    }
+                }
+            });
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    while (!writer.isDone()) {
+                        try (DataStore<Doctor>.Snapshot snapshot = store.snapshot()) {
+                            List<Doctor> first = snapshot.getAll();
+                            assertThat(first).hasSize(doctors);
+                            // Fees never increase along id order inside one consistent view
+                            for (int i = 1; i < first.size(); i++) {
+                                assertThat(first.get(i).getConsultationFee())
+                                        .isLessThanOrEqualTo(first.get(i - 1).getConsultationFee());
+                            }
+                            assertThat(snapshot.getAll()).containsExactlyElementsOf(first);
+                        }
+                    }
+                }));
+            }
+            writer.get();
+            for (Future<?> f : readers) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        store.add(doctor("DOC-0", Specialization.GENERAL, 200));
+        assertThat(store.slotsWithHistory()).isZero();
+    }
+
+    @Test
+    void appliedBatchesAreSeenWholeOrNotAtAll() throws Exception {
+        store.add(doctor("DOC-A", Specialization.GENERAL, 1000));
+        store.add(doctor("DOC-B", Specialization.GENERAL, 0));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // Each batch moves fee from one doctor to the other, and re-adds a removed one
+            Future<?> writer = pool.submit(() -> {
+                for (int round = 1; round <= 2_000; round++) {
+                    store.apply(false, List.of("DOC-C"), List.of(
+                            doctor("DOC-A", Specialization.GENERAL, 1000 - round % 1000),
+                            doctor("DOC-B", Specialization.GENERAL, round % 1000)));
+                    store.apply(false, List.of(), List.of(doctor("DOC-C", Specialization.GENERAL, 0)));
+                }
+            });
+            Future<?> reader = pool.submit(() -> {
+                while (!writer.isDone()) {
+                    try (DataStore<Doctor>.Snapshot snapshot = store.snapshot()) {
+                        assertThat(snapshot.stream().filter(d -> !d.getId().equals("DOC-C"))
+                                .mapToDouble(Doctor::getConsultationFee).sum()).isEqualTo(1000.0);
+                    }
+                    assertThat(store.getById("DOC-A")).isPresent();
+                }
+            });
+            writer.get();
+            reader.get();
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(store.size()).isEqualTo(3);
+    }
+
+    @Test
+    void parallelScansMatchSequentialResults() {
+        Specialization[] specs = Specialization.values();
+        int count = DataStore.PARALLEL_THRESHOLD * 3;
+        List<Doctor> added = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            added.add(doctor("DOC-" + i, specs[i % specs.length], (i * 7919) % 5000));
+        }
+        store.addAll(added);
+        // Holes in the insertion order must not break range splitting
+        for (int i = 0; i < count; i += 10) {
+            store.remove("DOC-" + i);
+        }
+        List<Doctor> live = added.stream().filter(d -> store.exists(d.getId())).toList();
+        Comparator<Doctor> byFee = Comparator.comparingDouble(Doctor::getConsultationFee).thenComparing(Doctor::getId);
+
+        assertThat(store.filter(d -> d.getSpecialization() == Specialization.ENT))
+                .containsExactlyElementsOf(live.stream().filter(d -> d.getSpecialization() == Specialization.ENT).toList());
+        List<Doctor> sorted = store.getAllSorted(byFee);
+        assertThat(sorted).containsExactlyElementsOf(live.stream().sorted(byFee).toList());
+        // A fixed-size view of the sorted array; callers copy before changing its size
+        assertThatThrownBy(() -> sorted.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(store.topK(byFee, 25)).containsExactlyElementsOf(live.stream().sorted(byFee).limit(25).toList());
+    }
+
+    @Test
+    void limitedFilterAndTopKOnSmallStores() {
+        store.add(doctor("DOC-1", Specialization.ENT, 300));
+        store.add(doctor("DOC-2", Specialization.CARDIOLOGY, 800));
+        store.add(doctor("DOC-3", Specialization.ENT, 500));
+        store.add(doctor("DOC-4", Specialization.ENT, 100));
+
+        assertThat(store.filter(d -> d.getSpecialization() == Specialization.ENT, 2))
+                .extracting(Doctor::getId).containsExactly("DOC-1", "DOC-3");
+        assertThat(store.topK(Comparator.comparingDouble(Doctor::getConsultationFee), 3))
+                .extracting(Doctor::getId).containsExactly("DOC-4", "DOC-1", "DOC-3");
+        assertThat(store.topK(Comparator.comparingDouble(Doctor::getConsultationFee), 10)).hasSize(4);
+        assertThat(store.topK(Comparator.comparingDouble(Doctor::getConsultationFee), 0)).isEmpty();
+    }
+}
@@ -0,0 +1,59 @@
+package com.airtribe.meditrack.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalFramesTest {
+
+    @Test
+    void readsIntactFramesAndStopsAtATornTail(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("frames.log");
+        long intact;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            JournalFrames.write(channel, bytes("first|"), 6);
+            JournalFrames.write(channel, bytes("second|"), 7);
+            intact = channel.size();
+            JournalFrames.write(channel, bytes("third"), 5);
+            // Simulate a crash part-way through the last append
+            channel.truncate(intact + JournalFrames.HEADER_BYTES + 2);
+        }
+
+        JournalFrames.Reader reader = new JournalFrames.Reader(FileChannel.open(file, StandardOpenOption.READ));
+        try (InputStream in = Channels.newInputStream(reader)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("first|second|");
+        }
+        assertThat(reader.isTorn()).isTrue();
+        assertThat(reader.validBytes()).isEqualTo(intact);
+    }
+
+    @Test
+    void corruptPayloadEndsTheStream(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("frames.log");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            JournalFrames.write(channel, bytes("good"), 4);
+            JournalFrames.write(channel, bytes("flip"), 4);
+            channel.write(ByteBuffer.wrap(bytes("x")), channel.size() - 1);
+        }
+
+        JournalFrames.Reader reader = new JournalFrames.Reader(FileChannel.open(file, StandardOpenOption.READ));
+        try (InputStream in = Channels.newInputStream(reader)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("good");
+        }
+        assertThat(reader.isTorn()).isTrue();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
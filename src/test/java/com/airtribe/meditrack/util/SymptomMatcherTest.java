@@ -0,0 +1,47 @@
+package com.airtribe.meditrack.util;
+
+import com.airtribe.meditrack.entity.Specialization;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class SymptomMatcherTest {
+
+    private final SymptomMatcher matcher = new SymptomMatcher(dictionary());
+
+    private static Map<String, Specialization> dictionary() {
+        Map<String, Specialization> dictionary = new LinkedHashMap<>();
+        dictionary.put("ear", Specialization.ENT);
+        dictionary.put("heart", Specialization.CARDIOLOGY);
+        dictionary.put("chest pain", Specialization.CARDIOLOGY);
+        dictionary.put("back pain", Specialization.ORTHOPEDICS);
+        dictionary.put("pain", Specialization.GENERAL);
+        return dictionary;
+    }
+
+    @Test
+    void matchesOnlyWholeWords() {
+        assertThat(matcher.countHits("Heart racing for a year")).containsOnly(entry(Specialization.CARDIOLOGY, 1));
+        assertThat(matcher.countHits("left ear, right ear")).containsOnly(entry(Specialization.ENT, 2));
+        assertThat(matcher.countHits("painful")).isEmpty();
+    }
+
+    @Test
+    void reportsOverlappingPhrasesInOnePass() {
+        assertThat(matcher.countHits("Chest  pain and BACK PAIN"))
+                .containsOnly(entry(Specialization.CARDIOLOGY, 1), entry(Specialization.ORTHOPEDICS, 1),
+                        entry(Specialization.GENERAL, 2));
+    }
+
+    @Test
+    void handlesEmptyInputAndUnknownCharacters() {
+        assertThat(matcher.countHits(null)).isEmpty();
+        assertThat(matcher.countHits("")).isEmpty();
+        assertThat(matcher.countHits("耳 ear ✓")).containsOnly(entry(Specialization.ENT, 1));
+        assertThat(matcher.size()).isEqualTo(5);
+    }
+}
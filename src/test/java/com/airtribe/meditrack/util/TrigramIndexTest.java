@@ -0,0 +1,45 @@
+package com.airtribe.meditrack.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex();
+        index.put("PAT-1", Arrays.asList("Anita Sharma", "PAT-1", "O+"));
+        index.put("PAT-2", Arrays.asList("Sharmaji Rao", "PAT-2", "A+"));
+        index.put("PAT-3", Arrays.asList("Rohit Bhasharma", "PAT-3", null));
+        index.put("PAT-4", Arrays.asList("Sharma", "PAT-4", "B-"));
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenSubstring() {
+        assertThat(index.search("SHARMA", 10)).containsExactly("PAT-4", "PAT-2", "PAT-1", "PAT-3");
+        assertThat(index.search("sharma", 2)).containsExactly("PAT-4", "PAT-2");
+    }
+
+    @Test
+    void shortKeywordsAndMissesBehaveLikeContains() {
+        assertThat(index.search("a+", 10)).containsExactly("PAT-2");
+        assertThat(index.search("xyz", 10)).isEmpty();
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void reindexingAndRemovalUpdateThePostings() {
+        index.put("PAT-4", Arrays.asList("Meera Iyer", "PAT-4", "B-"));
+        index.remove("PAT-1");
+
+        assertThat(index.search("sharma", 10)).containsExactly("PAT-2", "PAT-3");
+        assertThat(index.search("iyer", 10)).containsExactly("PAT-4");
+        assertThat(index.size()).isEqualTo(3);
+    }
+}